@@ -1,7 +1,10 @@
 package ru.practicum.shareit.booking;
 
+import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
@@ -29,19 +32,39 @@ public class BookingClient extends BaseClient {
         );
     }
 
-    public ResponseEntity<Object> getBookings(Long userId, BookingState state, Integer from, Integer size) {
+    public ResponseEntity<Object> getBookings(Long userId, BookingState state, String pageToken, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
-                "from", from,
+                "pageToken", pageToken == null ? "" : pageToken,
                 "size", size
         );
-        return get("", userId, parameters);
+        return get("?state={state}&pageToken={pageToken}&size={size}", userId, parameters);
+    }
+
+    public ResponseEntity<Object> getSummary(Long userId) {
+        return get("/summary", userId);
+    }
+
+    public ResponseEntity<Object> getOwnerSummary(Long userId) {
+        return get("/owner/summary", userId);
+    }
+
+    public void exportBookings(Long userId, HttpServletResponse response) throws IOException {
+        stream("/export", userId, response);
+    }
+
+    public void exportOwnerBookings(Long userId, HttpServletResponse response) throws IOException {
+        stream("/owner/export", userId, response);
     }
 
     public ResponseEntity<Object> bookItem(Long userId, BookingCreateDto requestDto) {
         return post("", userId, requestDto);
     }
 
+    public ResponseEntity<Object> bookItems(Long userId, List<BookingCreateDto> requestDtos) {
+        return post("/batch", userId, requestDtos);
+    }
+
     public ResponseEntity<Object> getBooking(Long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
@@ -51,12 +74,12 @@ public class BookingClient extends BaseClient {
         return patch(path, userId, null, null);
     }
 
-    public ResponseEntity<Object> getOwnerBookings(Long userId, BookingState state, Integer from, Integer size) {
+    public ResponseEntity<Object> getOwnerBookings(Long userId, BookingState state, String pageToken, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
-                "from", from,
+                "pageToken", pageToken == null ? "" : pageToken,
                 "size", size
         );
-        return get("/owner", userId, parameters);
+        return get("/owner?state={state}&pageToken={pageToken}&size={size}", userId, parameters);
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.booking;
 
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -7,6 +8,9 @@ import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 
+import java.io.IOException;
+import java.util.List;
+
 @RestController
 @RequestMapping("/bookings")
 @RequiredArgsConstructor
@@ -23,6 +27,14 @@ public class BookingController {
         return bookingClient.bookItem(userId, bookingDto);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<Object> createBookings(@RequestHeader(value = "X-Sharer-User-Id", required = false) Long userId,
+                                                 @RequestBody List<BookingCreateDto> bookingDtos) {
+        log.info("Получен POST-запрос на /bookings/batch от пользователя id={}: {} записей",
+                userId, bookingDtos.size());
+        return bookingClient.bookItems(userId, bookingDtos);
+    }
+
     @PatchMapping("/{bookingId}")
     public ResponseEntity<Object> approveBooking(@RequestHeader(value = "X-Sharer-User-Id", required = false) Long userId,
                                                  @PathVariable Long bookingId,
@@ -41,15 +53,45 @@ public class BookingController {
 
     @GetMapping
     public ResponseEntity<Object> getUserBookings(@RequestHeader(value = "X-Sharer-User-Id", required = false) Long userId,
-                                                  @RequestParam(defaultValue = "ALL") BookingState state) {
+                                                  @RequestParam(defaultValue = "ALL") BookingState state,
+                                                  @RequestParam(required = false) String pageToken,
+                                                  @RequestParam(defaultValue = "20") Integer size) {
         log.info("Получен GET-запрос на /bookings от пользователя id={} с параметром state={}", userId, state);
-        return bookingClient.getBookings(userId, state, 0, 20);
+        return bookingClient.getBookings(userId, state, pageToken, size);
     }
 
     @GetMapping("/owner")
     public ResponseEntity<Object> getOwnerBookings(@RequestHeader(value = "X-Sharer-User-Id", required = false) Long userId,
-                                                   @RequestParam(defaultValue = "ALL") BookingState state) {
+                                                   @RequestParam(defaultValue = "ALL") BookingState state,
+                                                   @RequestParam(required = false) String pageToken,
+                                                   @RequestParam(defaultValue = "20") Integer size) {
         log.info("Получен GET-запрос на /bookings/owner от пользователя id={} с параметром state={}", userId, state);
-        return bookingClient.getOwnerBookings(userId, state, 0, 20);
+        return bookingClient.getOwnerBookings(userId, state, pageToken, size);
+    }
+
+    @GetMapping("/summary")
+    public ResponseEntity<Object> getUserSummary(@RequestHeader(value = "X-Sharer-User-Id", required = false) Long userId) {
+        log.info("Получен GET-запрос на /bookings/summary от пользователя id={}", userId);
+        return bookingClient.getSummary(userId);
+    }
+
+    @GetMapping("/owner/summary")
+    public ResponseEntity<Object> getOwnerSummary(@RequestHeader(value = "X-Sharer-User-Id", required = false) Long userId) {
+        log.info("Получен GET-запрос на /bookings/owner/summary от пользователя id={}", userId);
+        return bookingClient.getOwnerSummary(userId);
+    }
+
+    @GetMapping("/export")
+    public void exportUserBookings(@RequestHeader(value = "X-Sharer-User-Id", required = false) Long userId,
+                                   HttpServletResponse response) throws IOException {
+        log.info("Получен GET-запрос на /bookings/export от пользователя id={}", userId);
+        bookingClient.exportBookings(userId, response);
+    }
+
+    @GetMapping("/owner/export")
+    public void exportOwnerBookings(@RequestHeader(value = "X-Sharer-User-Id", required = false) Long userId,
+                                    HttpServletResponse response) throws IOException {
+        log.info("Получен GET-запрос на /bookings/owner/export от пользователя id={}", userId);
+        bookingClient.exportOwnerBookings(userId, response);
     }
-}
\ No newline at end of file
+}
@@ -1,8 +1,10 @@
 package ru.practicum.shareit.client;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
@@ -10,6 +12,7 @@ import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
@@ -78,6 +81,33 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
+    /**
+     * Передаёт тело ответа сервера клиенту по мере получения, не загружая его целиком в память.
+     */
+    protected void stream(String path, Long userId, HttpServletResponse response) throws IOException {
+        log.info("Выполняется потоковый запрос: GET {}", path);
+        try {
+            rest.execute(path, HttpMethod.GET, request -> {
+                if (userId != null) {
+                    request.getHeaders().set("X-Sharer-User-Id", String.valueOf(userId));
+                }
+            }, serverResponse -> {
+                response.setStatus(serverResponse.getStatusCode().value());
+                MediaType contentType = serverResponse.getHeaders().getContentType();
+                if (contentType != null) {
+                    response.setContentType(contentType.toString());
+                }
+                StreamUtils.copy(serverResponse.getBody(), response.getOutputStream());
+                response.flushBuffer();
+                return null;
+            });
+        } catch (HttpStatusCodeException e) {
+            response.setStatus(e.getStatusCode().value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getOutputStream().write(e.getResponseBodyAsByteArray());
+        }
+    }
+
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
         log.info("Выполняется запрос: {} {}", method, path);
         HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
@@ -10,6 +10,7 @@ import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
 import java.util.Map;
 
 @Service
@@ -42,8 +43,42 @@ public class ItemClient extends BaseClient {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> search(String text) {
-        return get("/search?text=" + text, null);
+    public ResponseEntity<Object> search(String text, LocalDateTime from, LocalDateTime to,
+                                         Integer offset, String pageToken, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "text", text,
+                "from", from == null ? "" : from,
+                "to", to == null ? "" : to,
+                "offset", offset,
+                "pageToken", pageToken == null ? "" : pageToken,
+                "size", size
+        );
+        return get("/search?text={text}&from={from}&to={to}&offset={offset}&pageToken={pageToken}&size={size}",
+                null, parameters);
+    }
+
+    public ResponseEntity<Object> suggest(String prefix, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "prefix", prefix,
+                "size", size
+        );
+        return get("/suggest?prefix={prefix}&size={size}", null, parameters);
+    }
+
+    public ResponseEntity<Object> getAvailability(Long userId, Long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
+        );
+        return get("/" + itemId + "/availability?from={from}&to={to}", userId, parameters);
+    }
+
+    public ResponseEntity<Object> getComments(Long userId, Long itemId, String pageToken, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "pageToken", pageToken == null ? "" : pageToken,
+                "size", size
+        );
+        return get("/" + itemId + "/comments?pageToken={pageToken}&size={size}", userId, parameters);
     }
 
     public ResponseEntity<Object> addComment(Long userId, Long itemId, String text) {
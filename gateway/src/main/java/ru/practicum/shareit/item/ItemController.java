@@ -2,10 +2,12 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
 import java.util.Map;
 
 @RestController
@@ -46,10 +48,43 @@ public class ItemController {
         return itemClient.getItems(userId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<Object> getAvailability(
+            @RequestHeader(value = USER_ID_HEADER, required = false) Long userId,
+            @PathVariable Long itemId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Получен GET-запрос на /items/{}/availability с {} по {}", itemId, from, to);
+        return itemClient.getAvailability(userId, itemId, from, to);
+    }
+
     @GetMapping("/search")
-    public ResponseEntity<Object> search(@RequestParam String text) {
-        log.info("Получен GET-запрос на /items/search с text='{}'", text);
-        return itemClient.search(text);
+    public ResponseEntity<Object> search(
+            @RequestParam String text,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "0") Integer offset,
+            @RequestParam(required = false) String pageToken,
+            @RequestParam(defaultValue = "20") Integer size) {
+        log.info("Получен GET-запрос на /items/search с text='{}', from={}, to={}, offset={}, size={}",
+                text, from, to, offset, size);
+        return itemClient.search(text, from, to, offset, pageToken, size);
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<Object> suggest(@RequestParam String prefix,
+                                          @RequestParam(defaultValue = "10") Integer size) {
+        log.debug("Получен GET-запрос на /items/suggest с prefix='{}', size={}", prefix, size);
+        return itemClient.suggest(prefix, size);
+    }
+
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<Object> getComments(@RequestHeader(value = USER_ID_HEADER, required = false) Long userId,
+                                              @PathVariable Long itemId,
+                                              @RequestParam(required = false) String pageToken,
+                                              @RequestParam(defaultValue = "20") Integer size) {
+        log.info("Получен GET-запрос на /items/{}/comments с size={}", itemId, size);
+        return itemClient.getComments(userId, itemId, pageToken, size);
     }
 
     @PostMapping("/{itemId}/comment")
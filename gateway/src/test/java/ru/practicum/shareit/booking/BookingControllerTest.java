@@ -1,6 +1,7 @@
 package ru.practicum.shareit.booking;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -15,8 +16,10 @@ import ru.practicum.shareit.booking.dto.BookingStatus;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -54,6 +57,50 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.id").value(1L));
     }
 
+    @Test
+    void createBookings_ShouldPassBatchToServer() throws Exception {
+        BookingCreateDto inputDto = new BookingCreateDto();
+        inputDto.setStart(LocalDateTime.now().plusHours(1));
+        inputDto.setEnd(LocalDateTime.now().plusHours(2));
+        inputDto.setItemId(1L);
+
+        when(bookingClient.bookItems(eq(1L), anyList()))
+                .thenReturn(ResponseEntity.ok(List.of(Map.of("index", 0, "error", "Item not found"))));
+
+        mockMvc.perform(post("/bookings/batch")
+                        .header("X-Sharer-User-Id", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(inputDto, inputDto))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].error").value("Item not found"));
+    }
+
+    @Test
+    void getUserSummary_ShouldReturnClientResponse() throws Exception {
+        when(bookingClient.getSummary(1L)).thenReturn(ResponseEntity.ok(Map.of("all", 4)));
+
+        mockMvc.perform(get("/bookings/summary")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.all").value(4));
+    }
+
+    @Test
+    void exportUserBookings_ShouldPassServerStreamThrough() throws Exception {
+        doAnswer(invocation -> {
+            HttpServletResponse response = invocation.getArgument(1);
+            response.setContentType("application/x-ndjson");
+            response.getOutputStream().write("{\"id\":1}\n{\"id\":2}\n".getBytes());
+            return null;
+        }).when(bookingClient).exportBookings(eq(1L), any(HttpServletResponse.class));
+
+        mockMvc.perform(get("/bookings/export")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string("{\"id\":1}\n{\"id\":2}\n"));
+    }
+
     @Test
     void approveBooking_ShouldReturnBookingDto() throws Exception {
         Long bookingId = 1L;
@@ -101,7 +148,7 @@ class BookingControllerTest {
         booking2.setId(2L);
         booking2.setStart(LocalDateTime.now().plusHours(2));
 
-        when(bookingClient.getBookings(eq(userId), any(BookingState.class), any(Integer.class), any(Integer.class)))
+        when(bookingClient.getBookings(eq(userId), any(BookingState.class), isNull(), any(Integer.class)))
                 .thenReturn(ResponseEntity.ok(List.of(booking1, booking2)));
 
         mockMvc.perform(get("/bookings")
@@ -123,7 +170,7 @@ class BookingControllerTest {
         booking2.setId(2L);
         booking2.setStart(LocalDateTime.now().plusHours(2));
 
-        when(bookingClient.getOwnerBookings(eq(userId), any(BookingState.class), any(Integer.class), any(Integer.class)))
+        when(bookingClient.getOwnerBookings(eq(userId), any(BookingState.class), isNull(), any(Integer.class)))
                 .thenReturn(ResponseEntity.ok(List.of(booking1, booking2)));
 
         mockMvc.perform(get("/bookings/owner")
@@ -11,7 +11,9 @@ import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
@@ -52,6 +54,21 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.name").value("Item Name"));
     }
 
+    @Test
+    void getAvailability_ShouldPassPeriodToClient() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 5, 10, 8, 0);
+        LocalDateTime to = LocalDateTime.of(2030, 5, 10, 16, 0);
+
+        when(itemClient.getAvailability(1L, 1L, from, to)).thenReturn(ResponseEntity.ok(Map.of("itemId", 1)));
+
+        mockMvc.perform(get("/items/{itemId}/availability", 1L)
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("from", "2030-05-10T08:00:00")
+                        .param("to", "2030-05-10T16:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itemId").value(1));
+    }
+
     @Test
     void update_ShouldReturnUpdatedItemDto() throws Exception {
         Long itemId = 1L;
@@ -125,7 +142,7 @@ class ItemControllerTest {
         item2.setId(2L);
         item2.setName("Search Item 2");
 
-        when(itemClient.search(eq(text))).thenReturn(ResponseEntity.ok(List.of(item1, item2)));
+        when(itemClient.search(text, null, null, 0, null, 20)).thenReturn(ResponseEntity.ok(List.of(item1, item2)));
 
         mockMvc.perform(get("/items/search")
                         .param("text", text))
@@ -134,6 +151,57 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$[1].id").value(2L));
     }
 
+    @Test
+    void search_ShouldPassPeriodToClient_WhenPeriodIsPassed() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 5, 10, 18, 0);
+        LocalDateTime to = LocalDateTime.of(2030, 5, 12, 20, 0);
+        ItemDto item = new ItemDto();
+        item.setId(3L);
+
+        when(itemClient.search("free", from, to, 0, null, 20)).thenReturn(ResponseEntity.ok(List.of(item)));
+
+        mockMvc.perform(get("/items/search")
+                        .param("text", "free")
+                        .param("from", "2030-05-10T18:00:00")
+                        .param("to", "2030-05-12T20:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(3L));
+    }
+
+    @Test
+    void search_ShouldPassPagingToClient() throws Exception {
+        when(itemClient.search("дрель & bosch", null, null, 40, "token", 10))
+                .thenReturn(ResponseEntity.ok(List.of()));
+
+        mockMvc.perform(get("/items/search")
+                        .param("text", "дрель & bosch")
+                        .param("offset", "40")
+                        .param("pageToken", "token")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isEmpty());
+    }
+
+    @Test
+    void suggest_ShouldPassPrefixAndDefaultSizeToClient() throws Exception {
+        when(itemClient.suggest("дре", 10)).thenReturn(ResponseEntity.ok(List.of("Дрель")));
+
+        mockMvc.perform(get("/items/suggest")
+                        .param("prefix", "дре"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]").value("Дрель"));
+    }
+
+    @Test
+    void getComments_ShouldPassPageTokenAndDefaultSizeToClient() throws Exception {
+        when(itemClient.getComments(1L, 2L, "token", 20)).thenReturn(ResponseEntity.ok(List.of()));
+
+        mockMvc.perform(get("/items/2/comments")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("pageToken", "token"))
+                .andExpect(status().isOk());
+    }
+
     @Test
     void addComment_ShouldReturnCommentDto() throws Exception {
         Long itemId = 1L;
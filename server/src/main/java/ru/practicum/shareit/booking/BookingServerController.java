@@ -1,19 +1,34 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.service.BookingService;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.function.Consumer;
 
 @RestController
 @RequestMapping("/server/bookings")
 @RequiredArgsConstructor
 public class BookingServerController {
 
+    private static final String NEXT_PAGE_TOKEN_HEADER = "X-Next-Page-Token";
+    private static final String NDJSON = "application/x-ndjson";
+
     private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public BookingDto create(@RequestBody BookingCreateDto bookingDto,
@@ -21,6 +36,12 @@ public class BookingServerController {
         return bookingService.create(bookingDto, userId);
     }
 
+    @PostMapping("/batch")
+    public List<BookingBatchResultDto> createAll(@RequestBody List<BookingCreateDto> bookingDtos,
+                                                 @RequestHeader("X-Sharer-User-Id") Long userId) {
+        return bookingService.createAll(bookingDtos, userId);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingDto approve(@PathVariable Long bookingId,
                               @RequestHeader("X-Sharer-User-Id") Long userId,
@@ -35,14 +56,73 @@ public class BookingServerController {
     }
 
     @GetMapping
-    public List<BookingDto> getUserBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                            @RequestParam(defaultValue = "ALL") String state) {
-        return bookingService.getUserBookings(userId, state);
+    public ResponseEntity<List<BookingDto>> getUserBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                            @RequestParam(defaultValue = "ALL") String state,
+                                                            @RequestParam(required = false) String pageToken,
+                                                            @RequestParam(defaultValue = "20") Integer size) {
+        return toPageResponse(bookingService.getUserBookings(userId, state, pageToken, size));
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getOwnerBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                             @RequestParam(defaultValue = "ALL") String state) {
-        return bookingService.getOwnerBookings(userId, state);
+    public ResponseEntity<List<BookingDto>> getOwnerBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                             @RequestParam(defaultValue = "ALL") String state,
+                                                             @RequestParam(required = false) String pageToken,
+                                                             @RequestParam(defaultValue = "20") Integer size) {
+        return toPageResponse(bookingService.getOwnerBookings(userId, state, pageToken, size));
+    }
+
+    @GetMapping("/summary")
+    public BookingSummaryDto getUserSummary(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        return bookingService.getUserSummary(userId);
+    }
+
+    @GetMapping("/owner/summary")
+    public BookingSummaryDto getOwnerSummary(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        return bookingService.getOwnerSummary(userId);
+    }
+
+    @GetMapping("/export")
+    public void exportUserBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                   HttpServletResponse response) throws IOException {
+        export(response, out -> bookingService.exportUserBookings(userId, booking -> writeLine(out, booking)));
+    }
+
+    @GetMapping("/owner/export")
+    public void exportOwnerBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                    HttpServletResponse response) throws IOException {
+        export(response, out -> bookingService.exportOwnerBookings(userId, booking -> writeLine(out, booking)));
+    }
+
+    /**
+     * Если выгрузка упала до отправки первых байт, ответ сбрасывается, чтобы ErrorHandler вернул обычную JSON-ошибку.
+     */
+    private void export(HttpServletResponse response, Consumer<OutputStream> writer) throws IOException {
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        try {
+            writer.accept(response.getOutputStream());
+        } catch (RuntimeException e) {
+            if (!response.isCommitted()) {
+                response.reset();
+            }
+            throw e;
+        }
+    }
+
+    private void writeLine(OutputStream out, BookingDto booking) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(booking));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ResponseEntity<List<BookingDto>> toPageResponse(BookingPageDto page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextPageToken() != null) {
+            response.header(NEXT_PAGE_TOKEN_HEADER, page.getNextPageToken());
+        }
+        return response.body(page.getBookings());
     }
 }
\ No newline at end of file
@@ -2,20 +2,26 @@ package ru.practicum.shareit.booking.mapper;
 
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingExportRow;
+import ru.practicum.shareit.booking.model.BookingStateCounts;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 
 public class BookingMapper {
 
-    public static Booking toBooking(BookingCreateDto dto, Long bookerId) {
+    public static Booking toBooking(BookingCreateDto dto, Long bookerId, Long ownerId) {
         Booking booking = new Booking();
         booking.setStart(dto.getStart());
         booking.setEnd(dto.getEnd());
         booking.setItemId(dto.getItemId());
         booking.setBookerId(bookerId);
+        booking.setOwnerId(ownerId);
         booking.setStatus(ru.practicum.shareit.booking.model.Status.WAITING);
         return booking;
     }
@@ -32,4 +38,27 @@ public class BookingMapper {
 
         return dto;
     }
-}
\ No newline at end of file
+
+    public static BookingDto toBookingDto(BookingExportRow row) {
+        BookingDto dto = new BookingDto();
+        dto.setId(row.getId());
+        dto.setStart(row.getStart());
+        dto.setEnd(row.getEnd());
+        dto.setStatus(row.getStatus());
+
+        ItemDto item = new ItemDto();
+        item.setId(row.getItemId());
+        item.setName(row.getItemName());
+        item.setDescription(row.getItemDescription());
+        item.setAvailable(row.getItemAvailable());
+        dto.setItem(item);
+        dto.setBooker(new UserDto(row.getBookerId(), row.getBookerName(), row.getBookerEmail()));
+
+        return dto;
+    }
+
+    public static BookingSummaryDto toBookingSummaryDto(BookingStateCounts counts) {
+        return new BookingSummaryDto(counts.getTotal(), counts.getOngoing(), counts.getPast(),
+                counts.getFuture(), counts.getWaiting(), counts.getRejected());
+    }
+}
@@ -8,12 +8,57 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "bookings")
+@NamedNativeQuery(
+        name = "Booking.streamExportRowsByBookerId",
+        query = Booking.EXPORT_ROWS_SELECT +
+                "SELECT " + Booking.EXPORT_COLUMNS + " FROM bookings WHERE booker_id = :bookerId " +
+                "UNION ALL " +
+                "SELECT " + Booking.EXPORT_COLUMNS + " FROM bookings_archive WHERE booker_id = :bookerId" +
+                Booking.EXPORT_ROWS_JOIN,
+        resultSetMapping = "BookingExportRow")
+@NamedNativeQuery(
+        name = "Booking.streamExportRowsByOwnerId",
+        query = Booking.EXPORT_ROWS_SELECT +
+                "SELECT " + Booking.EXPORT_COLUMNS + " FROM bookings WHERE owner_id = :ownerId " +
+                "UNION ALL " +
+                "SELECT " + Booking.EXPORT_COLUMNS + " FROM bookings_archive WHERE owner_id = :ownerId" +
+                Booking.EXPORT_ROWS_JOIN,
+        resultSetMapping = "BookingExportRow")
+@SqlResultSetMapping(
+        name = "BookingExportRow",
+        classes = @ConstructorResult(targetClass = BookingExportRow.class, columns = {
+                @ColumnResult(name = "id", type = Long.class),
+                @ColumnResult(name = "start_date", type = LocalDateTime.class),
+                @ColumnResult(name = "end_date", type = LocalDateTime.class),
+                @ColumnResult(name = "status", type = String.class),
+                @ColumnResult(name = "item_id", type = Long.class),
+                @ColumnResult(name = "item_name", type = String.class),
+                @ColumnResult(name = "item_description", type = String.class),
+                @ColumnResult(name = "item_available", type = Boolean.class),
+                @ColumnResult(name = "booker_id", type = Long.class),
+                @ColumnResult(name = "booker_name", type = String.class),
+                @ColumnResult(name = "booker_email", type = String.class)
+        }))
 @Getter
 @Setter
 public class Booking {
 
+    /**
+     * Выгрузка полной истории: строки горячей таблицы и архива вместе с вещью и автором.
+     */
+    static final String EXPORT_COLUMNS = "id, start_date, end_date, status, item_id, booker_id";
+
+    static final String EXPORT_ROWS_SELECT = "SELECT b.id, b.start_date, b.end_date, b.status, " +
+            "i.id AS item_id, i.name AS item_name, i.description AS item_description, " +
+            "i.is_available AS item_available, u.id AS booker_id, u.name AS booker_name, u.email AS booker_email " +
+            "FROM (";
+
+    static final String EXPORT_ROWS_JOIN = ") b JOIN items i ON i.id = b.item_id " +
+            "JOIN users u ON u.id = b.booker_id ORDER BY b.id";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "start_date", nullable = false)
@@ -28,7 +73,17 @@ public class Booking {
     @Column(name = "booker_id", nullable = false)
     private Long bookerId;
 
+    /**
+     * Владелец вещи на момент бронирования. Дублирует items.owner_id, чтобы выборки владельца обходились без join.
+     */
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "status", nullable = false)
     private Status status;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
 }
\ No newline at end of file
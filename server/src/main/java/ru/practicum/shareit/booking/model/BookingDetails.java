@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+/**
+ * Бронирование вместе с вещью и автором, загруженные одним запросом.
+ */
+@Getter
+@AllArgsConstructor
+public class BookingDetails {
+    private Booking booking;
+    private Item item;
+    private User booker;
+}
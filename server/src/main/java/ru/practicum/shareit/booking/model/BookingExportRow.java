@@ -0,0 +1,36 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Плоская строка выгрузки бронирований. Не является сущностью, поэтому при потоковом чтении
+ * не накапливается в контексте персистентности.
+ */
+@Getter
+@AllArgsConstructor
+public class BookingExportRow {
+    private Long id;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private Status status;
+    private Long itemId;
+    private String itemName;
+    private String itemDescription;
+    private Boolean itemAvailable;
+    private Long bookerId;
+    private String bookerName;
+    private String bookerEmail;
+
+    /**
+     * Для выгрузки нативным запросом: статус приходит строкой.
+     */
+    public BookingExportRow(Long id, LocalDateTime start, LocalDateTime end, String status,
+                            Long itemId, String itemName, String itemDescription, Boolean itemAvailable,
+                            Long bookerId, String bookerName, String bookerEmail) {
+        this(id, start, end, Status.valueOf(status), itemId, itemName, itemDescription, itemAvailable,
+                bookerId, bookerName, bookerEmail);
+    }
+}
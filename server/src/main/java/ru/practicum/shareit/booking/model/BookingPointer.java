@@ -0,0 +1,38 @@
+package ru.practicum.shareit.booking.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Копия полей бронирования, нужных для lastBooking/nextBooking. Хранится вместе с указателем,
+ * чтобы чтение не зависело от того, лежит бронирование в bookings или уже в архиве.
+ */
+@Embeddable
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingPointer {
+
+    @Column(name = "booking_id")
+    private Long bookingId;
+
+    @Column(name = "start_date")
+    private LocalDateTime start;
+
+    @Column(name = "end_date")
+    private LocalDateTime end;
+
+    @Column(name = "booker_id")
+    private Long bookerId;
+
+    public static BookingPointer of(Booking booking) {
+        return new BookingPointer(booking.getId(), booking.getStart(), booking.getEnd(), booking.getBookerId());
+    }
+}
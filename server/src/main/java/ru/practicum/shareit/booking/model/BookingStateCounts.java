@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.model;
+
+/**
+ * Число бронирований в каждом состоянии, посчитанное одним агрегирующим запросом.
+ */
+public interface BookingStateCounts {
+    long getTotal();
+
+    long getOngoing();
+
+    long getPast();
+
+    long getFuture();
+
+    long getWaiting();
+
+    long getRejected();
+}
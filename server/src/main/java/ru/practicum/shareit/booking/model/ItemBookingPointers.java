@@ -0,0 +1,49 @@
+package ru.practicum.shareit.booking.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Последнее и следующее подтверждённые бронирования вещи. Значения верны до validUntil —
+ * ближайшего момента, когда следующее бронирование начнётся или одно из подтверждённых закончится.
+ */
+@Entity
+@Table(name = "item_booking_pointers")
+@Getter
+@Setter
+@NoArgsConstructor
+public class ItemBookingPointers {
+
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name = "bookingId", column = @Column(name = "last_booking_id")),
+            @AttributeOverride(name = "start", column = @Column(name = "last_start")),
+            @AttributeOverride(name = "end", column = @Column(name = "last_end")),
+            @AttributeOverride(name = "bookerId", column = @Column(name = "last_booker_id"))
+    })
+    private BookingPointer last;
+
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name = "bookingId", column = @Column(name = "next_booking_id")),
+            @AttributeOverride(name = "start", column = @Column(name = "next_start")),
+            @AttributeOverride(name = "end", column = @Column(name = "next_end")),
+            @AttributeOverride(name = "bookerId", column = @Column(name = "next_booker_id"))
+    })
+    private BookingPointer next;
+
+    @Column(name = "valid_until", nullable = false)
+    private LocalDateTime validUntil;
+
+    public ItemBookingPointers(Long itemId) {
+        this.itemId = itemId;
+    }
+}
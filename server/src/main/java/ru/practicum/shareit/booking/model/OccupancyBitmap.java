@@ -0,0 +1,80 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Разреженная битовая карта занятости вещи с точностью до часа. Бит с номером h соответствует часу
+ * [h, h + 1) от начала эпохи; биты хранятся 64-битными словами, пустые слова не хранятся.
+ */
+public class OccupancyBitmap {
+
+    private static final int WORD_BITS = Long.SIZE;
+
+    private final Map<Long, Long> words = new TreeMap<>();
+
+    /**
+     * Помечает занятыми часы [fromHour, toHour).
+     */
+    public synchronized void mark(long fromHour, long toHour) {
+        for (long hour = fromHour; hour < toHour; ) {
+            long wordIndex = Math.floorDiv(hour, WORD_BITS);
+            int fromBit = (int) Math.floorMod(hour, WORD_BITS);
+            long wordEnd = (wordIndex + 1) * WORD_BITS;
+            int toBit = (int) (Math.min(toHour, wordEnd) - wordIndex * WORD_BITS);
+            long mask = (toBit == WORD_BITS ? -1L : (1L << toBit) - 1) & (-1L << fromBit);
+            words.merge(wordIndex, mask, (current, added) -> current | added);
+            hour = wordEnd;
+        }
+    }
+
+    /**
+     * Разбивает часы [fromHour, toHour) на чередующиеся свободные и занятые отрезки.
+     */
+    public synchronized List<Interval> intervals(long fromHour, long toHour) {
+        List<Interval> intervals = new ArrayList<>();
+        long start = fromHour;
+        while (start < toHour) {
+            boolean busy = isBusy(start);
+            long end = nextChange(start, toHour, busy);
+            intervals.add(new Interval(start, end, busy));
+            start = end;
+        }
+        return intervals;
+    }
+
+    public synchronized boolean isBusy(long hour) {
+        long word = words.getOrDefault(Math.floorDiv(hour, WORD_BITS), 0L);
+        return (word & (1L << Math.floorMod(hour, WORD_BITS))) != 0;
+    }
+
+    /**
+     * Первый час из [hour, limit), состояние которого отличается от busy, либо limit.
+     */
+    private long nextChange(long hour, long limit, boolean busy) {
+        long current = hour;
+        while (current < limit) {
+            long wordIndex = Math.floorDiv(current, WORD_BITS);
+            long word = words.getOrDefault(wordIndex, 0L);
+            long differing = (busy ? ~word : word) & (-1L << Math.floorMod(current, WORD_BITS));
+            if (differing != 0) {
+                return Math.min(wordIndex * WORD_BITS + Long.numberOfTrailingZeros(differing), limit);
+            }
+            current = (wordIndex + 1) * WORD_BITS;
+        }
+        return limit;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Interval {
+        private final long fromHour;
+        private final long toHour;
+        private final boolean busy;
+    }
+}
@@ -1,24 +1,75 @@
 package ru.practicum.shareit.booking.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingDetails;
+import ru.practicum.shareit.booking.model.BookingExportRow;
+import ru.practicum.shareit.booking.model.BookingStateCounts;
 import ru.practicum.shareit.booking.model.Status;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
-    @Query("SELECT b FROM Booking b " +
-            "WHERE b.itemId = :itemId " +
-            "AND b.status = :status " +
-            "AND b.end < :now " +
-            "ORDER BY b.end DESC")
+    String EXPORT_FETCH_SIZE = "1000";
+
+    String BOOKING_COLUMNS = "id, start_date, end_date, item_id, booker_id, owner_id, status, version";
+
+    /**
+     * Счётчики для сводки. Читают горячую таблицу и архив, как и списки, которые они подписывают,
+     * иначе число на значке разойдётся с длиной списка.
+     */
+    String STATE_COUNTS = "SELECT COUNT(*) AS total, " +
+            "COALESCE(SUM(CASE WHEN start_date <= :now AND end_date > :now THEN 1 ELSE 0 END), 0) AS ongoing, " +
+            "COALESCE(SUM(CASE WHEN end_date < :now THEN 1 ELSE 0 END), 0) AS past, " +
+            "COALESCE(SUM(CASE WHEN start_date > :now THEN 1 ELSE 0 END), 0) AS future, " +
+            "COALESCE(SUM(CASE WHEN status = 'WAITING' THEN 1 ELSE 0 END), 0) AS waiting, " +
+            "COALESCE(SUM(CASE WHEN status = 'REJECTED' THEN 1 ELSE 0 END), 0) AS rejected ";
+
+    String KEYSET_BEFORE_CURSOR = "(end_date < :cursorEnd OR (end_date = :cursorEnd AND id < :cursorId))";
+
+    @Query("SELECT new ru.practicum.shareit.booking.model.BookingDetails(b, i, u) " +
+            "FROM Booking b, Item i, User u " +
+            "WHERE b.id = :bookingId AND i.id = b.itemId AND u.id = b.bookerId")
+    Optional<BookingDetails> findDetailsById(Long bookingId);
+
+    /**
+     * Бронирование, перенесённое в архив. Вызывается, только если в горячей таблице его уже нет.
+     */
+    @Query(value = "SELECT " + BOOKING_COLUMNS + " FROM bookings_archive WHERE id = :bookingId", nativeQuery = true)
+    Optional<Booking> findArchivedById(Long bookingId);
+
+    /**
+     * Меняет статус бронирования, только если оно ещё ожидает подтверждения и вещь принадлежит владельцу.
+     * Возвращает число изменённых строк: 0 означает, что одно из условий не выполнено.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :status, b.version = b.version + 1 " +
+            "WHERE b.id = :bookingId AND b.status = :expected AND b.ownerId = :ownerId")
+    int updateStatusIfOwnedAndInStatus(Long bookingId, Long ownerId, Status expected, Status status);
+
+    @Query(value = "SELECT * FROM (" +
+            "SELECT " + BOOKING_COLUMNS + " FROM bookings " +
+            "WHERE item_id = :itemId AND status = :#{#status.name()} AND end_date < :now " +
+            "UNION ALL " +
+            "SELECT " + BOOKING_COLUMNS + " FROM bookings_archive " +
+            "WHERE item_id = :itemId AND status = :#{#status.name()} AND end_date < :now" +
+            ") b ORDER BY b.end_date DESC", nativeQuery = true)
     List<Booking> findLastBookingsByItemIdAndStatus(
-            Long itemId, Status status, LocalDateTime now);
+            Long itemId, Status status, LocalDateTime now, Limit limit);
 
     @Query("SELECT b FROM Booking b " +
             "WHERE b.itemId = :itemId " +
@@ -26,66 +77,170 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             "AND b.start > :now " +
             "ORDER BY b.start ASC")
     List<Booking> findNextBookingsByItemIdAndStatus(
-            Long itemId, Status status, LocalDateTime now);
-
-    List<Booking> findByBookerIdOrderByIdDesc(Long bookerId);
-
-    List<Booking> findByBookerIdAndStatus(Long bookerId, Status status);
-
-    List<Booking> findByBookerIdAndItemId(Long bookerId, Long itemId);
-
-    boolean existsByBookerIdAndItemIdAndStatusAndEndBefore(
-            Long bookerId, Long itemId, Status status, LocalDateTime endBefore);
+            Long itemId, Status status, LocalDateTime now, Limit limit);
+
+    /**
+     * Последнее завершившееся и ближайшее будущее бронирование для каждой вещи из списка одним запросом.
+     * Отличить их можно по датам: у последнего end < now, у следующего start > now.
+     */
+    @Query(value = "SELECT " + BOOKING_COLUMNS + " FROM (" +
+            "SELECT " + BOOKING_COLUMNS + ", ROW_NUMBER() OVER (" +
+            "PARTITION BY item_id, CASE WHEN end_date < :now THEN 0 ELSE 1 END " +
+            "ORDER BY CASE WHEN end_date < :now THEN end_date END DESC, start_date ASC) AS rn " +
+            "FROM (" +
+            "SELECT " + BOOKING_COLUMNS + " FROM bookings " +
+            "WHERE item_id IN (:itemIds) AND status = :#{#status.name()} " +
+            "AND (end_date < :now OR start_date > :now) " +
+            "UNION ALL " +
+            "SELECT " + BOOKING_COLUMNS + " FROM bookings_archive " +
+            "WHERE item_id IN (:itemIds) AND status = :#{#status.name()} AND end_date < :now" +
+            ") b) ranked WHERE rn = 1", nativeQuery = true)
+    List<Booking> findLastAndNextByItemIdsAndStatus(Collection<Long> itemIds, Status status, LocalDateTime now);
+
+    Optional<Booking> findFirstByItemIdAndStatusAndEndAfterOrderByEndAsc(
+            Long itemId, Status status, LocalDateTime endAfter);
+
+    /**
+     * Полная история, включая архив: запрос объявлен на сущности Booking.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query(name = "Booking.streamExportRowsByBookerId", nativeQuery = true)
+    Stream<BookingExportRow> streamExportRowsByBookerId(@Param("bookerId") Long bookerId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query(name = "Booking.streamExportRowsByOwnerId", nativeQuery = true)
+    Stream<BookingExportRow> streamExportRowsByOwnerId(@Param("ownerId") Long ownerId);
 
     @Query("SELECT b FROM Booking b " +
-            "WHERE b.bookerId = :userId " +
-            "AND b.start <= :now AND b.end > :now " +
-            "ORDER BY b.end DESC")
-    List<Booking> findCurrentBookingsByBooker(Long userId, LocalDateTime now);
+            "WHERE b.itemId IN :itemIds AND b.status IN :statuses " +
+            "AND b.start < :to AND b.end > :from")
+    List<Booking> findByItemIdsAndStatusesIntersecting(
+            Collection<Long> itemIds, Collection<Status> statuses, LocalDateTime from, LocalDateTime to);
+
+    @Query(value = "SELECT * FROM (" +
+            "SELECT " + BOOKING_COLUMNS + " FROM bookings WHERE booker_id = :bookerId AND id < :cursorId " +
+            "UNION ALL " +
+            "SELECT " + BOOKING_COLUMNS + " FROM bookings_archive WHERE booker_id = :bookerId AND id < :cursorId" +
+            ") b ORDER BY b.id DESC", nativeQuery = true)
+    List<Booking> findByBookerIdAndIdLessThanOrderByIdDesc(Long bookerId, Long cursorId, Limit limit);
+
+    @Query(value = "SELECT * FROM (" +
+            "SELECT " + BOOKING_COLUMNS + " FROM bookings " +
+            "WHERE booker_id = :bookerId AND status = :#{#status.name()} AND " + KEYSET_BEFORE_CURSOR + " " +
+            "UNION ALL " +
+            "SELECT " + BOOKING_COLUMNS + " FROM bookings_archive " +
+            "WHERE booker_id = :bookerId AND status = :#{#status.name()} AND " + KEYSET_BEFORE_CURSOR +
+            ") b ORDER BY b.end_date DESC, b.id DESC", nativeQuery = true)
+    List<Booking> findByBookerIdAndStatus(Long bookerId, Status status,
+                                          LocalDateTime cursorEnd, Long cursorId, Limit limit);
 
     @Query("SELECT b FROM Booking b " +
             "WHERE b.bookerId = :userId " +
-            "AND b.end < :now " +
-            "ORDER BY b.end DESC")
-    List<Booking> findPastBookingsByBooker(Long userId, LocalDateTime now);
+            "AND b.start <= :now AND b.end > :now " +
+            "AND (b.end < :cursorEnd OR (b.end = :cursorEnd AND b.id < :cursorId)) " +
+            "ORDER BY b.end DESC, b.id DESC")
+    List<Booking> findCurrentBookingsByBooker(Long userId, LocalDateTime now,
+                                              LocalDateTime cursorEnd, Long cursorId, Limit limit);
+
+    @Query(value = "SELECT * FROM (" +
+            "SELECT " + BOOKING_COLUMNS + " FROM bookings " +
+            "WHERE booker_id = :userId AND end_date < :now AND " + KEYSET_BEFORE_CURSOR + " " +
+            "UNION ALL " +
+            "SELECT " + BOOKING_COLUMNS + " FROM bookings_archive " +
+            "WHERE booker_id = :userId AND end_date < :now AND " + KEYSET_BEFORE_CURSOR +
+            ") b ORDER BY b.end_date DESC, b.id DESC", nativeQuery = true)
+    List<Booking> findPastBookingsByBooker(Long userId, LocalDateTime now,
+                                           LocalDateTime cursorEnd, Long cursorId, Limit limit);
 
     @Query("SELECT b FROM Booking b " +
             "WHERE b.bookerId = :userId " +
             "AND b.start > :now " +
-            "ORDER BY b.end DESC")
-    List<Booking> findFutureBookingsByBooker(Long userId, LocalDateTime now);
-
-    @Query("SELECT b FROM Booking b " +
-            "JOIN Item i ON b.itemId = i.id " +
-            "WHERE i.ownerId = :ownerId " +
-            "ORDER BY b.end DESC")
-    List<Booking> findByItemOwnerIdOrderByIdDesc(Long ownerId);
-
-    @Query("SELECT b FROM Booking b " +
-            "JOIN Item i ON b.itemId = i.id " +
-            "WHERE i.ownerId = :ownerId " +
-            "AND b.status = :status " +
-            "ORDER BY b.end DESC")
-    List<Booking> findByItemOwnerIdAndStatus(Long ownerId, Status status);
+            "AND (b.end < :cursorEnd OR (b.end = :cursorEnd AND b.id < :cursorId)) " +
+            "ORDER BY b.end DESC, b.id DESC")
+    List<Booking> findFutureBookingsByBooker(Long userId, LocalDateTime now,
+                                             LocalDateTime cursorEnd, Long cursorId, Limit limit);
+
+    @Query(value = "SELECT * FROM (" +
+            "SELECT " + BOOKING_COLUMNS + " FROM bookings " +
+            "WHERE owner_id = :ownerId AND " + KEYSET_BEFORE_CURSOR + " " +
+            "UNION ALL " +
+            "SELECT " + BOOKING_COLUMNS + " FROM bookings_archive " +
+            "WHERE owner_id = :ownerId AND " + KEYSET_BEFORE_CURSOR +
+            ") b ORDER BY b.end_date DESC, b.id DESC", nativeQuery = true)
+    List<Booking> findByItemOwnerIdOrderByIdDesc(Long ownerId,
+                                                 LocalDateTime cursorEnd, Long cursorId, Limit limit);
+
+    @Query(value = "SELECT * FROM (" +
+            "SELECT " + BOOKING_COLUMNS + " FROM bookings " +
+            "WHERE owner_id = :ownerId AND status = :#{#status.name()} AND " + KEYSET_BEFORE_CURSOR + " " +
+            "UNION ALL " +
+            "SELECT " + BOOKING_COLUMNS + " FROM bookings_archive " +
+            "WHERE owner_id = :ownerId AND status = :#{#status.name()} AND " + KEYSET_BEFORE_CURSOR +
+            ") b ORDER BY b.end_date DESC, b.id DESC", nativeQuery = true)
+    List<Booking> findByItemOwnerIdAndStatus(Long ownerId, Status status,
+                                             LocalDateTime cursorEnd, Long cursorId, Limit limit);
 
     @Query("SELECT b FROM Booking b " +
-            "JOIN Item i ON b.itemId = i.id " +
-            "WHERE i.ownerId = :userId " +
+            "WHERE b.ownerId = :userId " +
             "AND b.start <= :now AND b.end > :now " +
-            "ORDER BY b.end DESC")
-    List<Booking> findCurrentBookingsByOwner(Long userId, LocalDateTime now);
-
-    @Query("SELECT b FROM Booking b " +
-            "JOIN Item i ON b.itemId = i.id " +
-            "WHERE i.ownerId = :userId " +
-            "AND b.end < :now " +
-            "ORDER BY b.end DESC")
-    List<Booking> findPastBookingsByOwner(Long userId, LocalDateTime now);
+            "AND (b.end < :cursorEnd OR (b.end = :cursorEnd AND b.id < :cursorId)) " +
+            "ORDER BY b.end DESC, b.id DESC")
+    List<Booking> findCurrentBookingsByOwner(Long userId, LocalDateTime now,
+                                             LocalDateTime cursorEnd, Long cursorId, Limit limit);
+
+    @Query(value = "SELECT * FROM (" +
+            "SELECT " + BOOKING_COLUMNS + " FROM bookings " +
+            "WHERE owner_id = :userId AND end_date < :now AND " + KEYSET_BEFORE_CURSOR + " " +
+            "UNION ALL " +
+            "SELECT " + BOOKING_COLUMNS + " FROM bookings_archive " +
+            "WHERE owner_id = :userId AND end_date < :now AND " + KEYSET_BEFORE_CURSOR +
+            ") b ORDER BY b.end_date DESC, b.id DESC", nativeQuery = true)
+    List<Booking> findPastBookingsByOwner(Long userId, LocalDateTime now,
+                                          LocalDateTime cursorEnd, Long cursorId, Limit limit);
 
     @Query("SELECT b FROM Booking b " +
-            "JOIN Item i ON b.itemId = i.id " +
-            "WHERE i.ownerId = :userId " +
+            "WHERE b.ownerId = :userId " +
             "AND b.start > :now " +
-            "ORDER BY b.end DESC")
-    List<Booking> findFutureBookingsByOwner(Long userId, LocalDateTime now);
-}
\ No newline at end of file
+            "AND (b.end < :cursorEnd OR (b.end = :cursorEnd AND b.id < :cursorId)) " +
+            "ORDER BY b.end DESC, b.id DESC")
+    List<Booking> findFutureBookingsByOwner(Long userId, LocalDateTime now,
+                                            LocalDateTime cursorEnd, Long cursorId, Limit limit);
+
+    @Query(value = STATE_COUNTS + "FROM (" +
+            "SELECT start_date, end_date, status FROM bookings WHERE booker_id = :bookerId " +
+            "UNION ALL " +
+            "SELECT start_date, end_date, status FROM bookings_archive WHERE booker_id = :bookerId" +
+            ") b", nativeQuery = true)
+    BookingStateCounts countStatesByBookerId(Long bookerId, LocalDateTime now);
+
+    @Query(value = STATE_COUNTS + "FROM (" +
+            "SELECT start_date, end_date, status FROM bookings WHERE owner_id = :ownerId " +
+            "UNION ALL " +
+            "SELECT start_date, end_date, status FROM bookings_archive WHERE owner_id = :ownerId" +
+            ") b", nativeQuery = true)
+    BookingStateCounts countStatesByOwnerId(Long ownerId, LocalDateTime now);
+
+    List<Booking> findByStatusAndStartBeforeOrderByStartAsc(Status status, LocalDateTime startBefore, Limit limit);
+
+    @Query("SELECT MIN(b.start) FROM Booking b WHERE b.status = :status AND b.start < :startBefore")
+    Optional<LocalDateTime> findMinStartByStatusAndStartBefore(Status status, LocalDateTime startBefore);
+
+    /**
+     * Массово меняет статус, пропуская бронирования, статус которых успел измениться после выборки.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :status, b.version = b.version + 1 " +
+            "WHERE b.id IN :ids AND b.status = :expected")
+    int updateStatusIfInStatus(Collection<Long> ids, Status expected, Status status);
+
+    @Query("SELECT b.id FROM Booking b WHERE b.end < :horizon ORDER BY b.end")
+    List<Long> findIdsEndedBefore(LocalDateTime horizon, Limit limit);
+
+    @Modifying
+    @Query(value = "INSERT INTO bookings_archive (" + BOOKING_COLUMNS + ") " +
+            "SELECT " + BOOKING_COLUMNS + " FROM bookings WHERE id IN :ids", nativeQuery = true)
+    int copyToArchive(Collection<Long> ids);
+
+    @Query("SELECT MIN(b.end) FROM Booking b")
+    Optional<LocalDateTime> findMinEnd();
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.booking.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.model.ItemBookingPointers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ItemBookingPointersRepository extends JpaRepository<ItemBookingPointers, Long> {
+
+    /**
+     * Значение подсказки lock.timeout, при котором Hibernate добавляет SKIP LOCKED.
+     */
+    String SKIP_LOCKED = "-2";
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM ItemBookingPointers p WHERE p.itemId = :itemId")
+    Optional<ItemBookingPointers> findByIdForUpdate(Long itemId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = SKIP_LOCKED))
+    @Query("SELECT p FROM ItemBookingPointers p WHERE p.validUntil <= :now ORDER BY p.validUntil")
+    List<ItemBookingPointers> findStaleForUpdate(LocalDateTime now, Limit limit);
+}
@@ -0,0 +1,105 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Переносит бронирования, завершившиеся раньше горизонта, из bookings в bookings_archive.
+ * Запросы истории в BookingRepository читают обе таблицы, поэтому перенос не заметен клиентам.
+ */
+@Service
+@Slf4j
+public class BookingArchiveServiceImpl implements BookingArchiveService {
+
+    private static final String POSTGRESQL = "postgresql";
+    private static final int PARTITIONS_AHEAD = 2;
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final BookingRepository bookingRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int horizonDays;
+    private final int batchSize;
+    private final String platform;
+
+    public BookingArchiveServiceImpl(BookingRepository bookingRepository,
+                                     JdbcTemplate jdbcTemplate,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${shareit.bookings.archive.horizon-days:365}") int horizonDays,
+                                     @Value("${shareit.bookings.archive.batch-size:1000}") int batchSize,
+                                     @Value("${spring.sql.init.platform:}") String platform) {
+        this.bookingRepository = bookingRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.horizonDays = horizonDays;
+        this.batchSize = batchSize;
+        this.platform = platform;
+    }
+
+    @Override
+    @Scheduled(cron = "${shareit.bookings.archive.cron:0 30 3 * * *}")
+    public int archiveFinishedBookings() {
+        LocalDateTime horizon = LocalDateTime.now().minusDays(horizonDays);
+        log.info("Архивация бронирований, завершившихся до {}", horizon);
+        createPartitions(horizon);
+
+        int total = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> archiveBatch(horizon));
+            total += moved;
+        } while (moved == batchSize);
+
+        log.info("В архив перенесено бронирований: {}", total);
+        return total;
+    }
+
+    private int archiveBatch(LocalDateTime horizon) {
+        List<Long> ids = bookingRepository.findIdsEndedBefore(horizon, Limit.of(batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        bookingRepository.copyToArchive(ids);
+        bookingRepository.deleteAllByIdInBatch(ids);
+        return ids.size();
+    }
+
+    /**
+     * На Postgres заранее создаёт месячные секции архива: от самого старого бронирования до горизонта
+     * и ещё на несколько месяцев вперёд, чтобы следующие запуски не писали в DEFAULT-секцию.
+     */
+    private void createPartitions(LocalDateTime horizon) {
+        if (!POSTGRESQL.equals(platform)) {
+            return;
+        }
+        LocalDate last = horizon.toLocalDate().withDayOfMonth(1).plusMonths(PARTITIONS_AHEAD);
+        LocalDate month = bookingRepository.findMinEnd()
+                .map(LocalDateTime::toLocalDate)
+                .filter(first -> first.isBefore(horizon.toLocalDate()))
+                .orElse(horizon.toLocalDate())
+                .withDayOfMonth(1);
+
+        for (; !month.isAfter(last); month = month.plusMonths(1)) {
+            String sql = String.format("CREATE TABLE IF NOT EXISTS bookings_archive_%s PARTITION OF bookings_archive " +
+                    "FOR VALUES FROM ('%s') TO ('%s')", month.format(PARTITION_SUFFIX), month, month.plusMonths(1));
+            try {
+                jdbcTemplate.execute(sql);
+            } catch (DataAccessException e) {
+                log.warn("Не удалось создать секцию архива за {}: {}", month, e.getMessage());
+            }
+        }
+    }
+}
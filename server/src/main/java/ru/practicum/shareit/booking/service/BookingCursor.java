@@ -0,0 +1,54 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Позиция в списке бронирований, отсортированном по (end, id) по убыванию.
+ * Передаётся клиенту в виде непрозрачного токена страницы.
+ */
+@Getter
+@RequiredArgsConstructor
+class BookingCursor {
+
+    private static final LocalDateTime MAX_END = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    private static final String SEPARATOR = "|";
+
+    static final BookingCursor FIRST = new BookingCursor(MAX_END, Long.MAX_VALUE);
+
+    private final LocalDateTime end;
+    private final Long id;
+
+    static BookingCursor after(Booking booking) {
+        return new BookingCursor(booking.getEnd(), booking.getId());
+    }
+
+    static BookingCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new ValidationException("Invalid page token");
+            }
+            return new BookingCursor(LocalDateTime.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ValidationException("Invalid page token");
+        }
+    }
+
+    String encode() {
+        String value = end + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,5 @@
+package ru.practicum.shareit.booking.service;
+
+public interface BookingExpiryService {
+    int expireStaleBookings();
+}
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Переводит в EXPIRED бронирования, начало которых наступило, а владелец так и не ответил.
+ * Каждая пачка обновляется в своей короткой транзакции по первичным ключам, поэтому блокировки
+ * держатся только на строках пачки и только на время одного UPDATE.
+ */
+@Service
+@Slf4j
+public class BookingExpiryServiceImpl implements BookingExpiryService {
+
+    private final BookingRepository bookingRepository;
+    private final ItemOccupancyIndex occupancyIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Counter expiredCounter;
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    public BookingExpiryServiceImpl(BookingRepository bookingRepository,
+                                    ItemOccupancyIndex occupancyIndex,
+                                    PlatformTransactionManager transactionManager,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${shareit.bookings.expiry.batch-size:500}") int batchSize) {
+        this.bookingRepository = bookingRepository;
+        this.occupancyIndex = occupancyIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.expiredCounter = Counter.builder("shareit.bookings.expired")
+                .description("Бронирования, переведённые в EXPIRED")
+                .register(meterRegistry);
+        Gauge.builder("shareit.bookings.expiry.lag", lagSeconds, AtomicLong::get)
+                .description("Сколько секунд самое старое просроченное бронирование ждало перевода в EXPIRED")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Override
+    @Scheduled(cron = "${shareit.bookings.expiry.cron:0 */5 * * * *}")
+    public int expireStaleBookings() {
+        LocalDateTime now = LocalDateTime.now();
+        lagSeconds.set(bookingRepository.findMinStartByStatusAndStartBefore(Status.WAITING, now)
+                .map(oldest -> Duration.between(oldest, now).toSeconds())
+                .orElse(0L));
+
+        int total = 0;
+        int expired;
+        do {
+            expired = transactionTemplate.execute(status -> expireBatch(now));
+            total += expired;
+        } while (expired == batchSize);
+
+        if (total > 0) {
+            log.info("Просрочено неподтверждённых бронирований: {}, задержка {} с", total, lagSeconds.get());
+        }
+        return total;
+    }
+
+    private int expireBatch(LocalDateTime now) {
+        List<Booking> stale = bookingRepository.findByStatusAndStartBeforeOrderByStartAsc(
+                Status.WAITING, now, Limit.of(batchSize));
+        if (stale.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = stale.stream().map(Booking::getId).toList();
+        int updated = bookingRepository.updateStatusIfInStatus(ids, Status.WAITING, Status.EXPIRED);
+        expiredCounter.increment(updated);
+        stale.stream().map(Booking::getItemId).distinct().forEach(occupancyIndex::bookingReleased);
+        return stale.size();
+    }
+}
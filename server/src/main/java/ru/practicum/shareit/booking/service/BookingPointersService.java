@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.service;
+
+import ru.practicum.shareit.booking.model.ItemBookingPointers;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+
+public interface BookingPointersService {
+    ItemBookingPointers get(Long itemId, LocalDateTime now);
+
+    Map<Long, ItemBookingPointers> getAll(Collection<Long> itemIds, LocalDateTime now);
+
+    void refresh(Long itemId);
+
+    int rollover();
+}
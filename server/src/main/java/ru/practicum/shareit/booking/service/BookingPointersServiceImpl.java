@@ -0,0 +1,161 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingPointer;
+import ru.practicum.shareit.booking.model.ItemBookingPointers;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingPointersRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Хранит для каждой вещи готовые lastBooking/nextBooking, чтобы карточка вещи не выполняла
+ * два запроса с сортировкой по бронированиям. Строка пересчитывается при подтверждении
+ * бронирования и фоновой задачей, когда наступает её validUntil.
+ */
+@Service
+@Slf4j
+public class BookingPointersServiceImpl implements BookingPointersService {
+
+    private static final LocalDateTime NEVER = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    private final ItemBookingPointersRepository pointersRepository;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public BookingPointersServiceImpl(ItemBookingPointersRepository pointersRepository,
+                                      BookingRepository bookingRepository,
+                                      ItemRepository itemRepository,
+                                      PlatformTransactionManager transactionManager,
+                                      @Value("${shareit.bookings.pointers.batch-size:500}") int batchSize) {
+        this.pointersRepository = pointersRepository;
+        this.bookingRepository = bookingRepository;
+        this.itemRepository = itemRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Возвращает указатели вещи. Если строки ещё нет или она устарела и фоновая задача до неё
+     * не добралась, значения вычисляются запросом и не сохраняются: чтение идёт в read-only транзакции.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ItemBookingPointers get(Long itemId, LocalDateTime now) {
+        return pointersRepository.findById(itemId)
+                .filter(pointers -> now.isBefore(pointers.getValidUntil()))
+                .orElseGet(() -> compute(new ItemBookingPointers(itemId), now));
+    }
+
+    /**
+     * То же, что get, для списка вещей: сохранённые строки читаются одним запросом, а для вещей
+     * без актуальной строки последнее и следующее бронирования вычисляются одним оконным запросом.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, ItemBookingPointers> getAll(Collection<Long> itemIds, LocalDateTime now) {
+        Map<Long, ItemBookingPointers> result = new HashMap<>();
+        if (itemIds.isEmpty()) {
+            return result;
+        }
+        pointersRepository.findAllById(itemIds).stream()
+                .filter(pointers -> now.isBefore(pointers.getValidUntil()))
+                .forEach(pointers -> result.put(pointers.getItemId(), pointers));
+
+        List<Long> missing = itemIds.stream()
+                .filter(itemId -> !result.containsKey(itemId))
+                .toList();
+        if (missing.isEmpty()) {
+            return result;
+        }
+        missing.forEach(itemId -> result.put(itemId, new ItemBookingPointers(itemId)));
+        for (Booking booking : bookingRepository.findLastAndNextByItemIdsAndStatus(missing, Status.APPROVED, now)) {
+            ItemBookingPointers pointers = result.get(booking.getItemId());
+            if (booking.getEnd().isBefore(now)) {
+                pointers.setLast(BookingPointer.of(booking));
+            } else {
+                pointers.setNext(BookingPointer.of(booking));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Пересчитывает указатели в транзакции подтверждения. Блокировка вещи упорядочивает
+     * конкурентные подтверждения и создание строки для одной вещи.
+     */
+    @Override
+    @Transactional
+    public void refresh(Long itemId) {
+        itemRepository.findByIdForUpdate(itemId);
+        ItemBookingPointers pointers = pointersRepository.findByIdForUpdate(itemId)
+                .orElseGet(() -> new ItemBookingPointers(itemId));
+        pointersRepository.save(compute(pointers, LocalDateTime.now()));
+        log.debug("Указатели бронирований вещи id={} пересчитаны", itemId);
+    }
+
+    @Override
+    @Scheduled(cron = "${shareit.bookings.pointers.cron:0 * * * * *}")
+    public int rollover() {
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        int refreshed;
+        do {
+            refreshed = transactionTemplate.execute(status -> rolloverBatch(now));
+            total += refreshed;
+        } while (refreshed == batchSize);
+
+        if (total > 0) {
+            log.info("Пересчитано устаревших указателей бронирований: {}", total);
+        }
+        return total;
+    }
+
+    private int rolloverBatch(LocalDateTime now) {
+        List<ItemBookingPointers> stale = pointersRepository.findStaleForUpdate(now, Limit.of(batchSize));
+        stale.forEach(pointers -> compute(pointers, now));
+        pointersRepository.saveAll(stale);
+        return stale.size();
+    }
+
+    private ItemBookingPointers compute(ItemBookingPointers pointers, LocalDateTime now) {
+        Long itemId = pointers.getItemId();
+        Optional<Booking> last = bookingRepository
+                .findLastBookingsByItemIdAndStatus(itemId, Status.APPROVED, now, Limit.of(1))
+                .stream().findFirst();
+        Optional<Booking> next = bookingRepository
+                .findNextBookingsByItemIdAndStatus(itemId, Status.APPROVED, now, Limit.of(1))
+                .stream().findFirst();
+
+        // Указатели меняются, когда следующее бронирование начинается или любое текущее заканчивается
+        LocalDateTime validUntil = bookingRepository
+                .findFirstByItemIdAndStatusAndEndAfterOrderByEndAsc(itemId, Status.APPROVED, now)
+                .map(Booking::getEnd)
+                .orElse(NEVER);
+        if (next.isPresent() && next.get().getStart().isBefore(validUntil)) {
+            validUntil = next.get().getStart();
+        }
+
+        pointers.setLast(last.map(BookingPointer::of).orElse(null));
+        pointers.setNext(next.map(BookingPointer::of).orElse(null));
+        pointers.setValidUntil(validUntil);
+        return pointers;
+    }
+}
@@ -1,18 +1,32 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookingService {
     BookingDto create(BookingCreateDto bookingDto, Long userId);
 
+    List<BookingBatchResultDto> createAll(List<BookingCreateDto> bookingDtos, Long userId);
+
     BookingDto approve(Long bookingId, Long userId, Boolean approved);
 
     BookingDto getById(Long bookingId, Long userId);
 
-    List<BookingDto> getUserBookings(Long userId, String state);
+    BookingPageDto getUserBookings(Long userId, String state, String pageToken, Integer size);
+
+    BookingPageDto getOwnerBookings(Long userId, String state, String pageToken, Integer size);
+
+    BookingSummaryDto getUserSummary(Long userId);
+
+    BookingSummaryDto getOwnerSummary(Long userId);
+
+    void exportUserBookings(Long userId, Consumer<BookingDto> sink);
 
-    List<BookingDto> getOwnerBookings(Long userId, String state);
+    void exportOwnerBookings(Long userId, Consumer<BookingDto> sink);
 }
\ No newline at end of file
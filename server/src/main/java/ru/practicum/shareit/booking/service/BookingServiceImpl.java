@@ -2,12 +2,18 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingDetails;
+import ru.practicum.shareit.booking.model.BookingExportRow;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.AccessDeniedException;
@@ -15,12 +21,25 @@ import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemStatsService;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -28,9 +47,16 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class BookingServiceImpl implements BookingService {
 
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_BATCH_SIZE = 5000;
+    private static final List<Status> ACTIVE_STATUSES = List.of(Status.WAITING, Status.APPROVED);
+
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final ItemOccupancyIndex occupancyIndex;
+    private final BookingPointersService bookingPointersService;
+    private final ItemStatsService itemStatsService;
 
     @Override
     @Transactional
@@ -45,7 +71,7 @@ public class BookingServiceImpl implements BookingService {
                     return new NotFoundException("User not found");
                 });
 
-        Item item = itemRepository.findById(bookingDto.getItemId())
+        Item item = itemRepository.findByIdForUpdate(bookingDto.getItemId())
                 .orElseThrow(() -> {
                     log.warn("Попытка бронирования несуществующей вещи id={}", bookingDto.getItemId());
                     return new NotFoundException("Item not found");
@@ -61,76 +87,123 @@ public class BookingServiceImpl implements BookingService {
             throw new ValidationException("Cannot book own item");
         }
 
-        Booking booking = BookingMapper.toBooking(bookingDto, userId);
+        if (hasOverlappingBooking(item.getId(), bookingDto.getStart(), bookingDto.getEnd())) {
+            log.warn("Вещь id={} уже забронирована на период {} - {}",
+                    item.getId(), bookingDto.getStart(), bookingDto.getEnd());
+            throw new ValidationException("Item is already booked for the requested period");
+        }
+
+        Booking booking = BookingMapper.toBooking(bookingDto, userId, item.getOwnerId());
         booking.setStatus(Status.WAITING);
         Booking savedBooking = bookingRepository.save(booking);
+        occupancyIndex.bookingCreated(savedBooking);
         log.info("Бронирование id={} создано", savedBooking.getId());
 
         return BookingMapper.toBookingDto(savedBooking, item, booker);
     }
 
+    @Override
+    @Transactional
+    public List<BookingBatchResultDto> createAll(List<BookingCreateDto> bookingDtos, Long userId) {
+        log.info("Пакетное создание бронирований пользователем id={}: {} шт.", userId, bookingDtos.size());
+        if (bookingDtos.size() > MAX_BATCH_SIZE) {
+            throw new ValidationException("Batch size must not exceed " + MAX_BATCH_SIZE);
+        }
+
+        User booker = userRepository.findById(userId)
+                .orElseThrow(() -> {
+                    log.warn("Попытка создания бронирований несуществующим пользователем id={}", userId);
+                    return new NotFoundException("User not found");
+                });
+
+        Set<Long> itemIds = bookingDtos.stream()
+                .map(BookingCreateDto::getItemId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Item> items = itemIds.isEmpty() ? Map.of() : itemRepository.findAllByIdForUpdate(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        Map<Long, NavigableMap<LocalDateTime, LocalDateTime>> busyPeriods = loadBusyPeriods(items.keySet(), bookingDtos);
+
+        List<BookingBatchResultDto> results = new ArrayList<>(bookingDtos.size());
+        List<Booking> accepted = new ArrayList<>();
+        for (int i = 0; i < bookingDtos.size(); i++) {
+            BookingCreateDto bookingDto = bookingDtos.get(i);
+            String error = rejectReason(bookingDto, userId, items, busyPeriods);
+            results.add(new BookingBatchResultDto(i, null, error));
+            if (error == null) {
+                busyPeriods.computeIfAbsent(bookingDto.getItemId(), itemId -> new TreeMap<>())
+                        .put(bookingDto.getStart(), bookingDto.getEnd());
+                accepted.add(BookingMapper.toBooking(bookingDto, userId, items.get(bookingDto.getItemId()).getOwnerId()));
+            }
+        }
+
+        bookingRepository.saveAll(accepted);
+        accepted.forEach(occupancyIndex::bookingCreated);
+        Iterator<Booking> saved = accepted.iterator();
+        for (BookingBatchResultDto result : results) {
+            if (result.getError() == null) {
+                Booking booking = saved.next();
+                result.setBooking(BookingMapper.toBookingDto(booking, items.get(booking.getItemId()), booker));
+            }
+        }
+        log.info("Пакет бронирований пользователя id={}: создано {}, отклонено {}",
+                userId, accepted.size(), bookingDtos.size() - accepted.size());
+        return results;
+    }
+
     @Override
     @Transactional
     public BookingDto approve(Long bookingId, Long userId, Boolean approved) {
         log.info("Подтверждение бронирования id={} пользователем id={}", bookingId, userId);
 
-        Booking booking = bookingRepository.findById(bookingId)
+        Status status = approved ? Status.APPROVED : Status.REJECTED;
+        int updated = bookingRepository.updateStatusIfOwnedAndInStatus(bookingId, userId, Status.WAITING, status);
+
+        BookingDetails details = findDetails(bookingId)
                 .orElseThrow(() -> {
                     log.warn("Попытка подтверждения несуществующего бронирования id={}", bookingId);
                     return new NotFoundException("Booking not found");
                 });
 
-        Item item = itemRepository.findById(booking.getItemId())
-                .orElseThrow(() -> {
-                    log.warn("Вещь бронирования id={} не найдена", bookingId);
-                    return new NotFoundException("Item not found");
-                });
-
-        if (!item.getOwnerId().equals(userId)) {
-            log.warn("Попытка подтверждения бронирования не владельцем вещи id={}", bookingId);
-            throw new AccessDeniedException("Only owner can approve booking");
-        }
-
-        if (!booking.getStatus().equals(Status.WAITING)) {
-            log.warn("Попытка подтверждения бронирования с уже установленным статусом: {}", booking.getStatus());
+        if (updated == 0) {
+            if (!details.getItem().getOwnerId().equals(userId)) {
+                log.warn("Попытка подтверждения бронирования не владельцем вещи id={}", bookingId);
+                throw new AccessDeniedException("Only owner can approve booking");
+            }
+            log.warn("Попытка подтверждения бронирования с уже установленным статусом: {}",
+                    details.getBooking().getStatus());
             throw new ValidationException("Booking status is not WAITING");
         }
 
-        booking.setStatus(approved ? Status.APPROVED : Status.REJECTED);
-        Booking updatedBooking = bookingRepository.save(booking);
-        log.info("Статус бронирования id={} изменен на {}", bookingId, booking.getStatus());
-
-        User booker = userRepository.findById(booking.getBookerId())
-                .orElseThrow(() -> new NotFoundException("Booker not found"));
-
-        return BookingMapper.toBookingDto(updatedBooking, item, booker);
+        if (status == Status.REJECTED) {
+            occupancyIndex.bookingReleased(details.getBooking().getItemId());
+        } else {
+            bookingPointersService.refresh(details.getBooking().getItemId());
+            itemStatsService.bookingApproved(details.getBooking().getItemId(), details.getBooking().getEnd());
+        }
+        log.info("Статус бронирования id={} изменен на {}", bookingId, status);
+        return BookingMapper.toBookingDto(details.getBooking(), details.getItem(), details.getBooker());
     }
 
     @Override
     public BookingDto getById(Long bookingId, Long userId) {
         log.info("Получение бронирования id={} пользователем id={}", bookingId, userId);
-        Booking booking = bookingRepository.findById(bookingId)
+        BookingDetails details = findDetails(bookingId)
                 .orElseThrow(() -> {
                     log.warn("Попытка получения несуществующего бронирования id={}", bookingId);
                     return new NotFoundException("Booking not found");
                 });
 
-        Item item = itemRepository.findById(booking.getItemId())
-                .orElseThrow(() -> new NotFoundException("Item not found"));
-
-        if (!booking.getBookerId().equals(userId) && !item.getOwnerId().equals(userId)) {
+        if (!details.getBooking().getBookerId().equals(userId) && !details.getItem().getOwnerId().equals(userId)) {
             log.warn("Попытка получения чужого бронирования id={} пользователем id={}", bookingId, userId);
             throw new AccessDeniedException("Access denied");
         }
 
-        User booker = userRepository.findById(booking.getBookerId())
-                .orElseThrow(() -> new NotFoundException("Booker not found"));
-
-        return BookingMapper.toBookingDto(booking, item, booker);
+        return BookingMapper.toBookingDto(details.getBooking(), details.getItem(), details.getBooker());
     }
 
     @Override
-    public List<BookingDto> getUserBookings(Long userId, String state) {
+    public BookingPageDto getUserBookings(Long userId, String state, String pageToken, Integer size) {
         log.info("Получение бронирований пользователя id={} с состоянием {}", userId, state);
         userRepository.findById(userId)
                 .orElseThrow(() -> {
@@ -142,40 +215,46 @@ public class BookingServiceImpl implements BookingService {
             state = "ALL";
         }
 
+        BookingCursor cursor = BookingCursor.decode(pageToken);
+        Limit limit = pageLimit(size);
         LocalDateTime now = LocalDateTime.now();
         List<Booking> bookings;
 
         switch (state.toUpperCase()) {
             case "ALL":
-                bookings = bookingRepository.findByBookerIdOrderByIdDesc(userId);
+                bookings = bookingRepository.findByBookerIdAndIdLessThanOrderByIdDesc(
+                        userId, cursor.getId(), limit);
                 break;
             case "CURRENT":
-                bookings = bookingRepository.findCurrentBookingsByBooker(userId, now);
+                bookings = bookingRepository.findCurrentBookingsByBooker(
+                        userId, now, cursor.getEnd(), cursor.getId(), limit);
                 break;
             case "PAST":
-                bookings = bookingRepository.findPastBookingsByBooker(userId, now);
+                bookings = bookingRepository.findPastBookingsByBooker(
+                        userId, now, cursor.getEnd(), cursor.getId(), limit);
                 break;
             case "FUTURE":
-                bookings = bookingRepository.findFutureBookingsByBooker(userId, now);
+                bookings = bookingRepository.findFutureBookingsByBooker(
+                        userId, now, cursor.getEnd(), cursor.getId(), limit);
                 break;
             case "WAITING":
-                bookings = bookingRepository.findByBookerIdAndStatus(userId, Status.WAITING);
+                bookings = bookingRepository.findByBookerIdAndStatus(
+                        userId, Status.WAITING, cursor.getEnd(), cursor.getId(), limit);
                 break;
             case "REJECTED":
-                bookings = bookingRepository.findByBookerIdAndStatus(userId, Status.REJECTED);
+                bookings = bookingRepository.findByBookerIdAndStatus(
+                        userId, Status.REJECTED, cursor.getEnd(), cursor.getId(), limit);
                 break;
             default:
                 log.warn("Некорректное состояние бронирования: {}", state);
                 throw new ValidationException("Unknown state: " + state);
         }
 
-        return bookings.stream()
-                .map(this::toBookingDto)
-                .collect(Collectors.toList());
+        return toBookingPage(bookings, size);
     }
 
     @Override
-    public List<BookingDto> getOwnerBookings(Long userId, String state) {
+    public BookingPageDto getOwnerBookings(Long userId, String state, String pageToken, Integer size) {
         log.info("Получение бронирований вещей владельца id={} с состоянием {}", userId, state);
         userRepository.findById(userId)
                 .orElseThrow(() -> {
@@ -187,55 +266,235 @@ public class BookingServiceImpl implements BookingService {
             state = "ALL";
         }
 
+        BookingCursor cursor = BookingCursor.decode(pageToken);
+        Limit limit = pageLimit(size);
         LocalDateTime now = LocalDateTime.now();
         List<Booking> bookings;
 
         switch (state.toUpperCase()) {
             case "ALL":
-                bookings = bookingRepository.findByItemOwnerIdOrderByIdDesc(userId);
+                bookings = bookingRepository.findByItemOwnerIdOrderByIdDesc(
+                        userId, cursor.getEnd(), cursor.getId(), limit);
                 break;
             case "CURRENT":
-                bookings = bookingRepository.findCurrentBookingsByOwner(userId, now);
+                bookings = bookingRepository.findCurrentBookingsByOwner(
+                        userId, now, cursor.getEnd(), cursor.getId(), limit);
                 break;
             case "PAST":
-                bookings = bookingRepository.findPastBookingsByOwner(userId, now);
+                bookings = bookingRepository.findPastBookingsByOwner(
+                        userId, now, cursor.getEnd(), cursor.getId(), limit);
                 break;
             case "FUTURE":
-                bookings = bookingRepository.findFutureBookingsByOwner(userId, now);
+                bookings = bookingRepository.findFutureBookingsByOwner(
+                        userId, now, cursor.getEnd(), cursor.getId(), limit);
                 break;
             case "WAITING":
-                bookings = bookingRepository.findByItemOwnerIdAndStatus(userId, Status.WAITING);
+                bookings = bookingRepository.findByItemOwnerIdAndStatus(
+                        userId, Status.WAITING, cursor.getEnd(), cursor.getId(), limit);
                 break;
             case "REJECTED":
-                bookings = bookingRepository.findByItemOwnerIdAndStatus(userId, Status.REJECTED);
+                bookings = bookingRepository.findByItemOwnerIdAndStatus(
+                        userId, Status.REJECTED, cursor.getEnd(), cursor.getId(), limit);
                 break;
             default:
                 log.warn("Некорректное состояние бронирования: {}", state);
                 throw new ValidationException("Unknown state: " + state);
         }
 
+        return toBookingPage(bookings, size);
+    }
+
+    @Override
+    public BookingSummaryDto getUserSummary(Long userId) {
+        log.info("Получение сводки бронирований пользователя id={}", userId);
+        if (!userRepository.existsById(userId)) {
+            log.warn("Попытка получения сводки бронирований несуществующим пользователем id={}", userId);
+            throw new NotFoundException("User not found");
+        }
+        return BookingMapper.toBookingSummaryDto(
+                bookingRepository.countStatesByBookerId(userId, LocalDateTime.now()));
+    }
+
+    @Override
+    public BookingSummaryDto getOwnerSummary(Long userId) {
+        log.info("Получение сводки бронирований вещей владельца id={}", userId);
+        if (!userRepository.existsById(userId)) {
+            log.warn("Попытка получения сводки бронирований несуществующим владельцем id={}", userId);
+            throw new NotFoundException("User not found");
+        }
+        return BookingMapper.toBookingSummaryDto(
+                bookingRepository.countStatesByOwnerId(userId, LocalDateTime.now()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportUserBookings(Long userId, Consumer<BookingDto> sink) {
+        log.info("Выгрузка всех бронирований пользователя id={}", userId);
+        if (!userRepository.existsById(userId)) {
+            log.warn("Попытка выгрузки бронирований несуществующим пользователем id={}", userId);
+            throw new NotFoundException("User not found");
+        }
+        try (Stream<BookingExportRow> rows = bookingRepository.streamExportRowsByBookerId(userId)) {
+            rows.map(BookingMapper::toBookingDto).forEach(sink);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportOwnerBookings(Long userId, Consumer<BookingDto> sink) {
+        log.info("Выгрузка всех бронирований вещей владельца id={}", userId);
+        if (!userRepository.existsById(userId)) {
+            log.warn("Попытка выгрузки бронирований несуществующим пользователем id={}", userId);
+            throw new NotFoundException("User not found");
+        }
+        try (Stream<BookingExportRow> rows = bookingRepository.streamExportRowsByOwnerId(userId)) {
+            rows.map(BookingMapper::toBookingDto).forEach(sink);
+        }
+    }
+
+    /**
+     * Бронирование с вещью и автором; перенесённое в архив читается оттуда, чтобы карточка открывалась
+     * так же, как его строка в списках PAST и ALL.
+     */
+    private Optional<BookingDetails> findDetails(Long bookingId) {
+        return bookingRepository.findDetailsById(bookingId)
+                .or(() -> bookingRepository.findArchivedById(bookingId)
+                        .flatMap(booking -> itemRepository.findById(booking.getItemId())
+                                .flatMap(item -> userRepository.findById(booking.getBookerId())
+                                        .map(booker -> new BookingDetails(booking, item, booker)))));
+    }
+
+    /**
+     * Активные бронирования одной вещи не пересекаются: это гарантирует сама проверка, выполняемая
+     * под блокировкой строки вещи. Поэтому конфликт возможен только с первым бронированием,
+     * заканчивающимся после начала запрошенного периода, и его достаточно найти по индексу.
+     */
+    private boolean hasOverlappingBooking(Long itemId, LocalDateTime start, LocalDateTime end) {
+        for (Status status : ACTIVE_STATUSES) {
+            Optional<Booking> following = bookingRepository
+                    .findFirstByItemIdAndStatusAndEndAfterOrderByEndAsc(itemId, status, start);
+            if (following.isPresent() && following.get().getStart().isBefore(end)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Limit pageLimit(Integer size) {
+        if (size == null || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ValidationException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        // Запрашиваем на одну запись больше, чтобы понять, есть ли следующая страница
+        return Limit.of(size + 1);
+    }
+
+    private BookingPageDto toBookingPage(List<Booking> bookings, Integer size) {
+        if (bookings.size() <= size) {
+            return new BookingPageDto(toBookingDtos(bookings), null);
+        }
+        List<Booking> page = bookings.subList(0, size);
+        String nextPageToken = BookingCursor.after(page.get(size - 1)).encode();
+        return new BookingPageDto(toBookingDtos(page), nextPageToken);
+    }
+
+    private List<BookingDto> toBookingDtos(List<Booking> bookings) {
+        if (bookings.isEmpty()) {
+            return List.of();
+        }
+
+        Set<Long> itemIds = bookings.stream()
+                .map(Booking::getItemId)
+                .collect(Collectors.toSet());
+        Set<Long> bookerIds = bookings.stream()
+                .map(Booking::getBookerId)
+                .collect(Collectors.toSet());
+
+        Map<Long, Item> items = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        Map<Long, User> bookers = userRepository.findAllById(bookerIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
         return bookings.stream()
-                .map(this::toBookingDto)
+                .map(booking -> {
+                    Item item = items.get(booking.getItemId());
+                    if (item == null) {
+                        throw new NotFoundException("Item not found");
+                    }
+                    User booker = bookers.get(booking.getBookerId());
+                    if (booker == null) {
+                        throw new NotFoundException("Booker not found");
+                    }
+                    return BookingMapper.toBookingDto(booking, item, booker);
+                })
                 .collect(Collectors.toList());
     }
 
-    private BookingDto toBookingDto(Booking booking) {
-        Item item = itemRepository.findById(booking.getItemId())
-                .orElseThrow(() -> new NotFoundException("Item not found"));
-        User booker = userRepository.findById(booking.getBookerId())
-                .orElseThrow(() -> new NotFoundException("Booker not found"));
-        return BookingMapper.toBookingDto(booking, item, booker);
+    private void validateBookingDates(LocalDateTime start, LocalDateTime end) {
+        String error = datesError(start, end);
+        if (error != null) {
+            throw new ValidationException(error);
+        }
     }
 
-    private void validateBookingDates(LocalDateTime start, LocalDateTime end) {
+    private String datesError(LocalDateTime start, LocalDateTime end) {
         if (start == null || end == null) {
-            throw new ValidationException("Start and end dates must be specified");
+            return "Start and end dates must be specified";
         }
         if (!start.isBefore(end)) {
-            throw new ValidationException("End date must be after start date");
+            return "End date must be after start date";
         }
         if (start.isBefore(LocalDateTime.now().minusMinutes(1))) {
-            throw new ValidationException("Start date must be in the future");
+            return "Start date must be in the future";
+        }
+        return null;
+    }
+
+    /**
+     * Загружает одним запросом активные бронирования вещей пакета, пересекающие общий период всех записей,
+     * и раскладывает их по вещам в виде «начало -> конец».
+     */
+    private Map<Long, NavigableMap<LocalDateTime, LocalDateTime>> loadBusyPeriods(
+            Set<Long> itemIds, List<BookingCreateDto> bookingDtos) {
+        Map<Long, NavigableMap<LocalDateTime, LocalDateTime>> busyPeriods = new HashMap<>();
+        List<BookingCreateDto> dated = bookingDtos.stream()
+                .filter(dto -> datesError(dto.getStart(), dto.getEnd()) == null)
+                .toList();
+        if (itemIds.isEmpty() || dated.isEmpty()) {
+            return busyPeriods;
+        }
+        LocalDateTime from = dated.stream().map(BookingCreateDto::getStart).min(LocalDateTime::compareTo).get();
+        LocalDateTime to = dated.stream().map(BookingCreateDto::getEnd).max(LocalDateTime::compareTo).get();
+        for (Booking booking : bookingRepository.findByItemIdsAndStatusesIntersecting(
+                itemIds, ACTIVE_STATUSES, from, to)) {
+            busyPeriods.computeIfAbsent(booking.getItemId(), itemId -> new TreeMap<>())
+                    .merge(booking.getStart(), booking.getEnd(), (a, b) -> a.isAfter(b) ? a : b);
+        }
+        return busyPeriods;
+    }
+
+    private String rejectReason(BookingCreateDto bookingDto, Long userId, Map<Long, Item> items,
+                                Map<Long, NavigableMap<LocalDateTime, LocalDateTime>> busyPeriods) {
+        String datesError = datesError(bookingDto.getStart(), bookingDto.getEnd());
+        if (datesError != null) {
+            return datesError;
+        }
+        // Map.of() не допускает get(null): пакет может состоять только из записей без itemId
+        Item item = bookingDto.getItemId() == null ? null : items.get(bookingDto.getItemId());
+        if (item == null) {
+            return "Item not found";
+        }
+        if (!item.getAvailable()) {
+            return "Item is not available for booking";
+        }
+        if (item.getOwnerId().equals(userId)) {
+            return "Cannot book own item";
+        }
+        NavigableMap<LocalDateTime, LocalDateTime> periods = busyPeriods.get(item.getId());
+        Map.Entry<LocalDateTime, LocalDateTime> previous = periods == null ? null
+                : periods.lowerEntry(bookingDto.getEnd());
+        if (previous != null && previous.getValue().isAfter(bookingDto.getStart())) {
+            return "Item is already booked for the requested period";
         }
+        return null;
     }
 }
\ No newline at end of file
@@ -0,0 +1,159 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.OccupancyBitmap;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Кэш битовых карт занятости вещей. Карта вещи строится из базы при первом обращении и затем
+ * поддерживается BookingServiceImpl: новые бронирования помечаются после коммита, а отказ
+ * сбрасывает карту, и она перестраивается при следующем чтении.
+ * Занятыми считаются часы, пересекающиеся хотя бы с одним бронированием в статусе WAITING или APPROVED.
+ * <p>
+ * Кэш локален для экземпляра приложения: бронирования, созданные другими экземплярами, сюда не попадают.
+ * Поэтому карта живёт не дольше shareit.bookings.occupancy.ttl-seconds, а число карт ограничено
+ * shareit.bookings.occupancy.max-items (вытесняются давно не читавшиеся, 0 отключает кэш).
+ * Решение о бронировании всё равно принимается по базе под блокировкой вещи, карта нужна только для показа.
+ */
+@Component
+@Slf4j
+public class ItemOccupancyIndex {
+
+    private static final long SECONDS_PER_HOUR = 3600;
+    private static final List<Status> ACTIVE_STATUSES = List.of(Status.WAITING, Status.APPROVED);
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    private final BookingRepository bookingRepository;
+    private final int maxItems;
+    private final long ttlNanos;
+    private final LinkedHashMap<Long, Entry> bitmaps = new LinkedHashMap<>(16, 0.75f, true);
+    private long generation;
+
+    public ItemOccupancyIndex(BookingRepository bookingRepository,
+                              @Value("${shareit.bookings.occupancy.max-items:10000}") int maxItems,
+                              @Value("${shareit.bookings.occupancy.ttl-seconds:300}") long ttlSeconds) {
+        this.bookingRepository = bookingRepository;
+        this.maxItems = maxItems;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+    }
+
+    public List<OccupancyBitmap.Interval> intervals(Long itemId, LocalDateTime from, LocalDateTime to) {
+        return bitmap(itemId).intervals(floorHour(from), ceilHour(to));
+    }
+
+    public void bookingCreated(Booking booking) {
+        afterCommit(() -> {
+            synchronized (this) {
+                generation++;
+                Entry entry = bitmaps.get(booking.getItemId());
+                if (entry != null) {
+                    entry.getBitmap().mark(floorHour(booking.getStart()), ceilHour(booking.getEnd()));
+                }
+            }
+        });
+    }
+
+    public void bookingReleased(Long itemId) {
+        afterCommit(() -> {
+            synchronized (this) {
+                generation++;
+                bitmaps.remove(itemId);
+            }
+        });
+    }
+
+    public static long floorHour(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), SECONDS_PER_HOUR);
+    }
+
+    public static long ceilHour(LocalDateTime time) {
+        return -Math.floorDiv(-time.toEpochSecond(ZoneOffset.UTC), SECONDS_PER_HOUR);
+    }
+
+    public static LocalDateTime toTime(long hour) {
+        return LocalDateTime.ofEpochSecond(hour * SECONDS_PER_HOUR, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * База читается без блокировки кэша, чтобы загрузка одной вещи не задерживала остальные.
+     * Карта, при загрузке которой бронирования менялись, возвращается, но в кэш не кладётся:
+     * пометка могла разминуться с чтением.
+     */
+    private OccupancyBitmap bitmap(Long itemId) {
+        long readGeneration;
+        synchronized (this) {
+            Entry entry = bitmaps.get(itemId);
+            if (entry != null && System.nanoTime() - entry.getLoadedAt() < ttlNanos) {
+                return entry.getBitmap();
+            }
+            bitmaps.remove(itemId);
+            readGeneration = generation;
+        }
+        OccupancyBitmap bitmap = load(itemId);
+        synchronized (this) {
+            if (maxItems <= 0 || readGeneration != generation) {
+                return bitmap;
+            }
+            Entry existing = bitmaps.putIfAbsent(itemId, new Entry(bitmap, System.nanoTime()));
+            if (existing != null) {
+                return existing.getBitmap();
+            }
+            Iterator<Map.Entry<Long, Entry>> eldest = bitmaps.entrySet().iterator();
+            while (bitmaps.size() > maxItems && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+            }
+        }
+        return bitmap;
+    }
+
+    private OccupancyBitmap load(Long itemId) {
+        List<Booking> bookings = bookingRepository.findByItemIdsAndStatusesIntersecting(
+                List.of(itemId), ACTIVE_STATUSES, EARLIEST, LATEST);
+        OccupancyBitmap bitmap = new OccupancyBitmap();
+        bookings.forEach(booking -> bitmap.mark(floorHour(booking.getStart()), ceilHour(booking.getEnd())));
+        log.debug("Построена карта занятости вещи id={} по {} бронированиям", itemId, bookings.size());
+        return bitmap;
+    }
+
+    /**
+     * Изменения применяются только после коммита: откаченное бронирование не должно попасть в карту,
+     * а чтение, начавшееся до коммита, не должно затереть пометку.
+     */
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class Entry {
+        private final OccupancyBitmap bitmap;
+        private final long loadedAt;
+    }
+}
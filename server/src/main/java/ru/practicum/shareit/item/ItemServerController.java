@@ -1,11 +1,17 @@
 package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentPageDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemPageDto;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -14,6 +20,8 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class ItemServerController {
 
+    private static final String NEXT_PAGE_TOKEN_HEADER = "X-Next-Page-Token";
+
     private final ItemService itemService;
 
     @PostMapping
@@ -40,9 +48,40 @@ public class ItemServerController {
         return itemService.getOwnerItems(userId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto getAvailability(
+            @PathVariable Long itemId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return itemService.getAvailability(itemId, from, to);
+    }
+
     @GetMapping("/search")
-    public List<ItemDto> searchItems(@RequestParam String text) {
-        return itemService.search(text);
+    public ResponseEntity<List<ItemDto>> searchItems(
+            @RequestParam String text,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "0") Integer offset,
+            @RequestParam(required = false) String pageToken,
+            @RequestParam(defaultValue = "20") Integer size) {
+        if (from == null && to == null) {
+            return toPageResponse(itemService.search(text, offset, pageToken, size));
+        }
+        return toPageResponse(itemService.searchAvailable(text, from, to, offset, pageToken, size));
+    }
+
+    @GetMapping("/suggest")
+    public List<String> suggest(@RequestParam String prefix,
+                                @RequestParam(defaultValue = "10") Integer size) {
+        return itemService.suggest(prefix, size);
+    }
+
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<List<CommentDto>> getComments(@PathVariable Long itemId,
+                                                        @RequestParam(required = false) String pageToken,
+                                                        @RequestParam(defaultValue = "20") Integer size) {
+        CommentPageDto page = itemService.getComments(itemId, pageToken, size);
+        return toPageResponse(page.getComments(), page.getNextPageToken());
     }
 
     @PostMapping("/{itemId}/comment")
@@ -53,4 +92,16 @@ public class ItemServerController {
         String text = request.get("text");
         return itemService.addComment(itemId, userId, text);
     }
-}
\ No newline at end of file
+
+    private ResponseEntity<List<ItemDto>> toPageResponse(ItemPageDto page) {
+        return toPageResponse(page.getItems(), page.getNextPageToken());
+    }
+
+    private static <T> ResponseEntity<List<T>> toPageResponse(List<T> body, String nextPageToken) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (nextPageToken != null) {
+            response.header(NEXT_PAGE_TOKEN_HEADER, nextPageToken);
+        }
+        return response.body(body);
+    }
+}
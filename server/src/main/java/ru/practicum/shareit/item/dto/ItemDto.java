@@ -2,6 +2,7 @@ package ru.practicum.shareit.item.dto;
 
 import lombok.Data;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -14,5 +15,9 @@ public class ItemDto {
     private Long requestId;
     private BookingShortDto lastBooking;
     private BookingShortDto nextBooking;
+    private Long commentCount;
+    private LocalDateTime lastCommentAt;
+    private Long bookingCount;
+    private LocalDateTime lastBookingEnd;
     private List<CommentDto> comments = new ArrayList<>();
 }
\ No newline at end of file
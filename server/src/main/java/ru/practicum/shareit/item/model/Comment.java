@@ -8,12 +8,52 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "comments")
+@NamedNativeQuery(
+        name = "Comment.findCommentAuthor",
+        // Строки нет, если нет вещи; бронирования ищутся и в архиве, как в BookingRepository
+        query = "SELECT u.name AS author_name, CASE WHEN EXISTS (" +
+                "SELECT 1 FROM bookings WHERE booker_id = :userId AND item_id = i.id " +
+                "AND status = 'APPROVED' AND end_date < :now" +
+                ") OR EXISTS (" +
+                "SELECT 1 FROM bookings_archive WHERE booker_id = :userId AND item_id = i.id " +
+                "AND status = 'APPROVED' AND end_date < :now" +
+                ") THEN TRUE ELSE FALSE END AS finished_booking " +
+                "FROM items i LEFT JOIN users u ON u.id = :userId " +
+                "WHERE i.id = :itemId",
+        resultSetMapping = "CommentAuthor")
+@SqlResultSetMapping(
+        name = "CommentAuthor",
+        classes = @ConstructorResult(targetClass = CommentAuthor.class, columns = {
+                @ColumnResult(name = "author_name", type = String.class),
+                @ColumnResult(name = "finished_booking", type = Boolean.class)
+        }))
+@NamedNativeQuery(
+        name = "Comment.findNewestCommentRowsByItemIdIn",
+        // Нумерация идёт только по индексу (item_id, id), текст и автор читаются для первых limit строк
+        query = "SELECT c.item_id, c.id, c.text, u.name AS author_name, c.created " +
+                "FROM (SELECT id, ROW_NUMBER() OVER (PARTITION BY item_id ORDER BY id DESC) AS rn " +
+                "FROM comments WHERE item_id IN (:itemIds)) r " +
+                "JOIN comments c ON c.id = r.id " +
+                "JOIN users u ON u.id = c.author_id " +
+                "WHERE r.rn <= :limit " +
+                "ORDER BY c.item_id, c.id DESC",
+        resultSetMapping = "CommentRow")
+@SqlResultSetMapping(
+        name = "CommentRow",
+        classes = @ConstructorResult(targetClass = CommentRow.class, columns = {
+                @ColumnResult(name = "item_id", type = Long.class),
+                @ColumnResult(name = "id", type = Long.class),
+                @ColumnResult(name = "text", type = String.class),
+                @ColumnResult(name = "author_name", type = String.class),
+                @ColumnResult(name = "created", type = LocalDateTime.class)
+        }))
 @Getter
 @Setter
 public class Comment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "comments_seq")
+    @SequenceGenerator(name = "comments_seq", sequenceName = "comments_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "text", nullable = false)
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Всё, что нужно для добавления комментария, одной строкой: имя автора и есть ли у него
+ * завершившееся подтверждённое бронирование вещи.
+ */
+@Getter
+@AllArgsConstructor
+public class CommentAuthor {
+    private final String name;
+    private final Boolean finishedBooking;
+}
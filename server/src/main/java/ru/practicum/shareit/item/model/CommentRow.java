@@ -0,0 +1,24 @@
+package ru.practicum.shareit.item.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.item.dto.CommentDto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Комментарий вместе с id вещи — для выборки комментариев сразу по нескольким вещам.
+ */
+@Getter
+@AllArgsConstructor
+public class CommentRow {
+    private final Long itemId;
+    private final Long id;
+    private final String text;
+    private final String authorName;
+    private final LocalDateTime created;
+
+    public CommentDto toCommentDto() {
+        return new CommentDto(id, text, authorName, created);
+    }
+}
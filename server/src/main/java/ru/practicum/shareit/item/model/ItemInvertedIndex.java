@@ -0,0 +1,145 @@
+package ru.practicum.shareit.item.model;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * Инвертированный индекс по названию и описанию вещей: слово -> отсортированный массив id вещей.
+ * Массивы не изменяются после публикации, запись заменяет их целиком, поэтому поиск идёт без блокировок.
+ * Каждое слово запроса ищется как префикс, результаты по словам пересекаются (AND).
+ */
+public class ItemInvertedIndex {
+
+    private final ConcurrentSkipListMap<String, long[]> postings;
+    private final Map<Long, String[]> tokensByItem;
+
+    public ItemInvertedIndex() {
+        this(new ConcurrentSkipListMap<>(), new HashMap<>());
+    }
+
+    private ItemInvertedIndex(ConcurrentSkipListMap<String, long[]> postings, Map<Long, String[]> tokensByItem) {
+        this.postings = postings;
+        this.tokensByItem = tokensByItem;
+    }
+
+    public static List<String> tokenize(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .toList();
+    }
+
+    /**
+     * Добавляет вещь или заменяет её слова.
+     */
+    public synchronized void put(long itemId, String name, String description) {
+        remove(itemId);
+        String[] tokens = tokensOf(name, description);
+        for (String token : tokens) {
+            postings.compute(token, (key, ids) -> PostingLists.insert(ids == null ? PostingLists.EMPTY : ids,
+                    itemId));
+        }
+        tokensByItem.put(itemId, tokens);
+    }
+
+    public synchronized void remove(long itemId) {
+        String[] tokens = tokensByItem.remove(itemId);
+        if (tokens == null) {
+            return;
+        }
+        for (String token : tokens) {
+            postings.computeIfPresent(token, (key, ids) -> {
+                long[] rest = PostingLists.delete(ids, itemId);
+                return rest.length == 0 ? null : rest;
+            });
+        }
+    }
+
+    public synchronized int size() {
+        return tokensByItem.size();
+    }
+
+    /**
+     * Возвращает отсортированные по возрастанию id вещей, содержащих все слова запроса (как префиксы).
+     */
+    public long[] search(String text) {
+        List<String> words = tokenize(text);
+        if (words.isEmpty()) {
+            return PostingLists.EMPTY;
+        }
+        long[][] candidates = new long[words.size()][];
+        for (int i = 0; i < candidates.length; i++) {
+            candidates[i] = prefixPostings(words.get(i));
+            if (candidates[i].length == 0) {
+                return PostingLists.EMPTY;
+            }
+        }
+        // Начинаем с самого короткого списка, остальные проверяем двоичным поиском
+        Arrays.sort(candidates, Comparator.comparingInt(ids -> ids.length));
+        long[] result = candidates[0];
+        for (int i = 1; i < candidates.length && result.length > 0; i++) {
+            result = PostingLists.intersect(result, candidates[i]);
+        }
+        return result;
+    }
+
+    private long[] prefixPostings(String prefix) {
+        NavigableMap<String, long[]> range = postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        if (range.isEmpty()) {
+            return PostingLists.EMPTY;
+        }
+        if (range.size() == 1) {
+            return range.firstEntry().getValue();
+        }
+        int total = 0;
+        for (long[] ids : range.values()) {
+            total += ids.length;
+        }
+        return PostingLists.union(range.values(), total);
+    }
+
+    private static String[] tokensOf(String name, String description) {
+        return Stream.concat(tokenize(name).stream(), tokenize(description).stream())
+                .distinct()
+                .toArray(String[]::new);
+    }
+
+    /**
+     * Построение индекса с нуля: вещи должны добавляться в порядке возрастания id,
+     * тогда списки собираются дописыванием в конец без сортировки.
+     */
+    public static class Builder {
+
+        private final Map<String, PostingLists.Builder> postings = new HashMap<>();
+        private final Map<Long, String[]> tokensByItem = new HashMap<>();
+        private long lastId = Long.MIN_VALUE;
+
+        public Builder add(long itemId, String name, String description) {
+            if (itemId <= lastId) {
+                throw new IllegalArgumentException("Items must be added in ascending id order");
+            }
+            lastId = itemId;
+            String[] tokens = tokensOf(name, description);
+            for (String token : tokens) {
+                postings.computeIfAbsent(token, key -> new PostingLists.Builder()).add(itemId);
+            }
+            tokensByItem.put(itemId, tokens);
+            return this;
+        }
+
+        public ItemInvertedIndex build() {
+            ConcurrentSkipListMap<String, long[]> frozen = new ConcurrentSkipListMap<>();
+            postings.forEach((token, ids) -> frozen.put(token, ids.build()));
+            return new ItemInvertedIndex(frozen, tokensByItem);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.item.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Счётчики вещи: число комментариев и время последнего, число подтверждённых бронирований
+ * и самое позднее их окончание. Обновляются в транзакциях добавления комментария и подтверждения
+ * бронирования, целиком пересчитываются фоновой задачей.
+ */
+@Entity
+@Table(name = "item_stats")
+@Getter
+@Setter
+@NoArgsConstructor
+public class ItemStats {
+
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @Column(name = "comment_count", nullable = false)
+    private long commentCount;
+
+    @Column(name = "last_comment_at")
+    private LocalDateTime lastCommentAt;
+
+    @Column(name = "booking_count", nullable = false)
+    private long bookingCount;
+
+    @Column(name = "last_booking_end")
+    private LocalDateTime lastBookingEnd;
+
+    public ItemStats(Long itemId) {
+        this.itemId = itemId;
+    }
+}
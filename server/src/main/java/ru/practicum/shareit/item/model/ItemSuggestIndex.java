@@ -0,0 +1,87 @@
+package ru.practicum.shareit.item.model;
+
+import lombok.AllArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Подсказки названий вещей по началу ввода: отсортированный словарь нормализованных названий
+ * (слова в нижнем регистре через пробел) -> название для показа и число вещей с таким названием.
+ * Одинаковые названия хранятся один раз; подсказка — это диапазон словаря, начинающийся с префикса,
+ * поэтому чтение идёт без блокировок и стоит O(log n + limit).
+ */
+public class ItemSuggestIndex {
+
+    private final ConcurrentSkipListMap<String, Term> terms = new ConcurrentSkipListMap<>();
+    private final Map<Long, String> termByItem = new HashMap<>();
+
+    /**
+     * Добавляет вещь или заменяет её название.
+     */
+    public synchronized void put(long itemId, String name) {
+        String key = normalize(name);
+        String previous = termByItem.get(itemId);
+        if (key.equals(previous)) {
+            return;
+        }
+        remove(itemId);
+        if (key.isEmpty()) {
+            return;
+        }
+        Term term = terms.compute(key, (k, current) -> current == null
+                ? new Term(k, name.trim(), 1)
+                : new Term(current.key, current.label, current.count + 1));
+        // Ключ словаря переиспользуется, чтобы не хранить строку названия дважды
+        termByItem.put(itemId, term.key);
+    }
+
+    public synchronized void remove(long itemId) {
+        String key = termByItem.remove(itemId);
+        if (key == null) {
+            return;
+        }
+        terms.computeIfPresent(key, (k, current) -> current.count == 1
+                ? null
+                : new Term(current.key, current.label, current.count - 1));
+    }
+
+    /**
+     * Число различных названий в словаре.
+     */
+    public int size() {
+        return terms.size();
+    }
+
+    /**
+     * Не более limit названий, начинающихся с prefix, в алфавитном порядке.
+     */
+    public List<String> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        List<String> result = new ArrayList<>(limit);
+        for (Term term : terms.subMap(key, true, key + Character.MAX_VALUE, false).values()) {
+            result.add(term.label);
+            if (result.size() == limit) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    private static String normalize(String name) {
+        return String.join(" ", ItemInvertedIndex.tokenize(name));
+    }
+
+    @AllArgsConstructor
+    private static class Term {
+        private final String key;
+        private final String label;
+        private final int count;
+    }
+}
@@ -0,0 +1,251 @@
+package ru.practicum.shareit.item.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Триграммный индекс по названию и описанию вещей для поиска по фрагменту слова и с опечатками.
+ * Триграммы строятся как в pg_trgm: каждое слово дополняется двумя пробелами слева и одним справа.
+ * <p>
+ * Поиск по подстроке пересекает списки триграмм запроса и проверяет кандидатов по тексту.
+ * Нечёткий поиск считает долю триграмм запроса, найденных у вещи; кандидатов берёт только из самых
+ * коротких списков: вещь с долей не ниже порога обязана встретиться хотя бы в одном из них.
+ */
+public class ItemTrigramIndex {
+
+    private static final Comparator<Match> BEST_FIRST = Comparator.comparingDouble(Match::getScore).reversed()
+            .thenComparingLong(Match::getItemId);
+
+    private final Map<Long, long[]> postings;
+    private final Map<Long, String> documents;
+
+    public ItemTrigramIndex() {
+        this(new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+    }
+
+    private ItemTrigramIndex(Map<Long, long[]> postings, Map<Long, String> documents) {
+        this.postings = postings;
+        this.documents = documents;
+    }
+
+    public synchronized void put(long itemId, String name, String description) {
+        remove(itemId);
+        String document = normalize(name, description);
+        for (long trigram : paddedTrigrams(document)) {
+            postings.compute(trigram, (key, ids) -> PostingLists.insert(ids == null ? PostingLists.EMPTY : ids,
+                    itemId));
+        }
+        documents.put(itemId, document);
+    }
+
+    public synchronized void remove(long itemId) {
+        String document = documents.remove(itemId);
+        if (document == null) {
+            return;
+        }
+        for (long trigram : paddedTrigrams(document)) {
+            postings.computeIfPresent(trigram, (key, ids) -> {
+                long[] rest = PostingLists.delete(ids, itemId);
+                return rest.length == 0 ? null : rest;
+            });
+        }
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    /**
+     * Вещи, текст которых содержит запрос как подстроку (score = 1), и вещи, похожие на запрос
+     * с долей общих триграмм не ниже threshold. Не более limit лучших, по убыванию score, затем по id.
+     * Лучшие отбираются кучей размера limit, все совпадения целиком не сортируются.
+     */
+    public List<Match> search(String text, double threshold, int limit) {
+        String query = normalize(text, null);
+        if (query.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        PriorityQueue<Match> top = new PriorityQueue<>(limit + 1, BEST_FIRST.reversed());
+        PostingLists.Builder substringMatches = new PostingLists.Builder();
+        for (long itemId : substringCandidates(query)) {
+            String document = documents.get(itemId);
+            if (document != null && document.contains(query)) {
+                substringMatches.add(itemId);
+                offer(top, new Match(itemId, 1.0), limit);
+            }
+        }
+        fuzzyMatches(query, threshold, substringMatches.build(), top, limit);
+
+        List<Match> matches = new ArrayList<>(top);
+        matches.sort(BEST_FIRST);
+        return matches;
+    }
+
+    /**
+     * Попала бы вещь с таким названием и описанием в результат search с тем же порогом.
+     */
+    public static boolean matches(String text, String name, String description, double threshold) {
+        String query = normalize(text, null);
+        if (query.isEmpty()) {
+            return false;
+        }
+        String document = normalize(name, description);
+        if (document.contains(query)) {
+            return true;
+        }
+        Set<Long> queryTrigrams = paddedTrigrams(query);
+        Set<Long> documentTrigrams = paddedTrigrams(document);
+        int required = Math.max(1, (int) Math.ceil(threshold * queryTrigrams.size()));
+        int shared = 0;
+        for (long trigram : queryTrigrams) {
+            if (documentTrigrams.contains(trigram)) {
+                shared++;
+            }
+        }
+        return shared >= required;
+    }
+
+    private static void offer(PriorityQueue<Match> top, Match match, int limit) {
+        if (top.size() < limit) {
+            top.add(match);
+        } else if (BEST_FIRST.compare(match, top.peek()) < 0) {
+            top.poll();
+            top.add(match);
+        }
+    }
+
+    private long[] substringCandidates(String query) {
+        Set<Long> trigrams = new LinkedHashSet<>();
+        for (String word : query.split(" ")) {
+            for (int i = 0; i + 3 <= word.length(); i++) {
+                trigrams.add(pack(word, i));
+            }
+        }
+        if (trigrams.isEmpty()) {
+            return PostingLists.EMPTY;
+        }
+        long[][] lists = lists(trigrams);
+        long[] result = lists[0];
+        for (int i = 1; i < lists.length && result.length > 0; i++) {
+            result = PostingLists.intersect(result, lists[i]);
+        }
+        return result;
+    }
+
+    private void fuzzyMatches(String query, double threshold, long[] substringMatches, PriorityQueue<Match> top,
+                              int limit) {
+        Set<Long> trigrams = paddedTrigrams(query);
+        long[][] lists = lists(trigrams);
+        int required = Math.max(1, (int) Math.ceil(threshold * lists.length));
+        // Кандидат с required общими триграммами встречается хотя бы в одном из lists.length - required + 1
+        // самых коротких списков, остальные списки проверяются двоичным поиском
+        int prefix = lists.length - required + 1;
+        int total = 0;
+        for (int i = 0; i < prefix; i++) {
+            total += lists[i].length;
+        }
+        long[] candidates = PostingLists.union(Arrays.asList(lists).subList(0, prefix), total);
+        for (long itemId : candidates) {
+            if (Arrays.binarySearch(substringMatches, itemId) >= 0) {
+                continue;
+            }
+            int shared = 0;
+            for (long[] ids : lists) {
+                if (Arrays.binarySearch(ids, itemId) >= 0) {
+                    shared++;
+                }
+            }
+            if (shared >= required) {
+                offer(top, new Match(itemId, (double) shared / lists.length), limit);
+            }
+        }
+    }
+
+    private long[][] lists(Set<Long> trigrams) {
+        long[][] lists = new long[trigrams.size()][];
+        int i = 0;
+        for (long trigram : trigrams) {
+            lists[i++] = postings.getOrDefault(trigram, PostingLists.EMPTY);
+        }
+        Arrays.sort(lists, Comparator.comparingInt(ids -> ids.length));
+        return lists;
+    }
+
+    private static String normalize(String name, String description) {
+        List<String> words = new ArrayList<>(ItemInvertedIndex.tokenize(name));
+        words.addAll(ItemInvertedIndex.tokenize(description));
+        return String.join(" ", words);
+    }
+
+    private static Set<Long> paddedTrigrams(String document) {
+        Set<Long> trigrams = new LinkedHashSet<>();
+        for (String word : document.split(" ")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(pack(padded, i));
+            }
+        }
+        return trigrams;
+    }
+
+    private static long pack(String text, int from) {
+        return ((long) text.charAt(from) << 32) | ((long) text.charAt(from + 1) << 16) | text.charAt(from + 2);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Match {
+        private final long itemId;
+        private final double score;
+    }
+
+    /**
+     * Построение индекса с нуля: вещи должны добавляться в порядке возрастания id.
+     */
+    public static class Builder {
+
+        private final Map<Long, PostingLists.Builder> postings = new HashMap<>();
+        private final Map<Long, String> documents = new HashMap<>();
+        private long lastId = Long.MIN_VALUE;
+
+        public Builder add(long itemId, String name, String description) {
+            if (itemId <= lastId) {
+                throw new IllegalArgumentException("Items must be added in ascending id order");
+            }
+            lastId = itemId;
+            String document = normalize(name, description);
+            for (long trigram : paddedTrigrams(document)) {
+                postings.computeIfAbsent(trigram, key -> new PostingLists.Builder()).add(itemId);
+            }
+            documents.put(itemId, document);
+            return this;
+        }
+
+        public ItemTrigramIndex build() {
+            Map<Long, long[]> frozen = new ConcurrentHashMap<>(postings.size() * 2);
+            // Растущие массивы освобождаются по мере копирования, чтобы не держать в памяти две копии индекса
+            Iterator<Map.Entry<Long, PostingLists.Builder>> entries = postings.entrySet().iterator();
+            while (entries.hasNext()) {
+                Map.Entry<Long, PostingLists.Builder> entry = entries.next();
+                frozen.put(entry.getKey(), entry.getValue().build());
+                entries.remove();
+            }
+            return new ItemTrigramIndex(frozen, new ConcurrentHashMap<>(documents));
+        }
+    }
+}
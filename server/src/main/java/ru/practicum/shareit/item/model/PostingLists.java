@@ -0,0 +1,96 @@
+package ru.practicum.shareit.item.model;
+
+import java.util.Arrays;
+
+/**
+ * Операции над отсортированными по возрастанию массивами id, из которых состоят индексы поиска вещей.
+ * Массивы не изменяются: каждая операция возвращает новый массив или исходный, если менять нечего.
+ */
+final class PostingLists {
+
+    static final long[] EMPTY = new long[0];
+
+    private PostingLists() {
+    }
+
+    static long[] insert(long[] ids, long itemId) {
+        int position = Arrays.binarySearch(ids, itemId);
+        if (position >= 0) {
+            return ids;
+        }
+        position = -position - 1;
+        long[] result = new long[ids.length + 1];
+        System.arraycopy(ids, 0, result, 0, position);
+        result[position] = itemId;
+        System.arraycopy(ids, position, result, position + 1, ids.length - position);
+        return result;
+    }
+
+    static long[] delete(long[] ids, long itemId) {
+        int position = Arrays.binarySearch(ids, itemId);
+        if (position < 0) {
+            return ids;
+        }
+        long[] result = new long[ids.length - 1];
+        System.arraycopy(ids, 0, result, 0, position);
+        System.arraycopy(ids, position + 1, result, position, ids.length - position - 1);
+        return result;
+    }
+
+    static long[] intersect(long[] smaller, long[] larger) {
+        long[] result = new long[smaller.length];
+        int size = 0;
+        int from = 0;
+        for (long id : smaller) {
+            int found = Arrays.binarySearch(larger, from, larger.length, id);
+            if (found >= 0) {
+                result[size++] = id;
+                from = found + 1;
+            } else {
+                from = -found - 1;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    static long[] union(Iterable<long[]> lists, int total) {
+        long[] merged = new long[total];
+        int offset = 0;
+        for (long[] ids : lists) {
+            System.arraycopy(ids, 0, merged, offset, ids.length);
+            offset += ids.length;
+        }
+        Arrays.sort(merged);
+        return distinct(merged);
+    }
+
+    static long[] distinct(long[] sorted) {
+        int size = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[size++] = sorted[i];
+            }
+        }
+        return size == sorted.length ? sorted : Arrays.copyOf(sorted, size);
+    }
+
+    /**
+     * Растущий массив для построения списков: id добавляются по возрастанию.
+     */
+    static final class Builder {
+
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long itemId) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = itemId;
+        }
+
+        long[] build() {
+            return Arrays.copyOf(ids, size);
+        }
+    }
+}
@@ -1,23 +1,52 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.CommentAuthor;
+import ru.practicum.shareit.item.model.CommentRow;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> findByItemIdOrderById(Long itemId);
 
+    /**
+     * Комментарии к вещи с id меньше beforeId, от новых к старым.
+     */
     @Query("SELECT new ru.practicum.shareit.item.dto.CommentDto(" +
             "c.id, c.text, u.name, c.created) " +
             "FROM Comment c " +
             "JOIN User u ON c.authorId = u.id " +
-            "WHERE c.itemId = :itemId " +
-            "ORDER BY c.id")
-    List<CommentDto> findCommentDtosByItemId(@Param("itemId") Long itemId);
+            "WHERE c.itemId = :itemId AND c.id < :beforeId " +
+            "ORDER BY c.id DESC")
+    List<CommentDto> findCommentDtosByItemIdBefore(@Param("itemId") Long itemId,
+                                                   @Param("beforeId") Long beforeId,
+                                                   Limit limit);
+
+    /**
+     * Не более limit последних комментариев к каждой вещи из списка одним запросом
+     * (именованный запрос в Comment).
+     */
+    @Query(name = "Comment.findNewestCommentRowsByItemIdIn", nativeQuery = true)
+    List<CommentRow> findNewestCommentRowsByItemIdIn(@Param("itemIds") Collection<Long> itemIds,
+                                                     @Param("limit") int limit);
+
+    /**
+     * Проверка перед добавлением комментария одним запросом: существует ли вещь, есть ли у пользователя
+     * завершившееся к now подтверждённое бронирование и как его зовут (именованный запрос в Comment).
+     * Пустой результат — вещи нет.
+     */
+    @Query(name = "Comment.findCommentAuthor", nativeQuery = true)
+    Optional<CommentAuthor> findCommentAuthor(@Param("itemId") Long itemId,
+                                              @Param("userId") Long userId,
+                                              @Param("now") LocalDateTime now);
 }
\ No newline at end of file
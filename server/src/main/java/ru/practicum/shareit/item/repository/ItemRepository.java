@@ -1,21 +1,82 @@
 package ru.practicum.shareit.item.repository;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
     List<Item> findByOwnerIdOrderById(Long ownerId);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id = :itemId")
+    Optional<Item> findByIdForUpdate(Long itemId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id IN :itemIds ORDER BY i.id")
+    List<Item> findAllByIdForUpdate(Collection<Long> itemIds);
+
+    @Query(value = "SELECT id FROM items WHERE id BETWEEN :fromId AND :toId ORDER BY id FOR UPDATE",
+            nativeQuery = true)
+    List<Long> lockIdsBetween(Long fromId, Long toId);
+
+    @Query("SELECT MIN(i.id) FROM Item i")
+    Optional<Long> findMinId();
+
+    @Query("SELECT MAX(i.id) FROM Item i")
+    Optional<Long> findMaxId();
+
     @Query("SELECT i FROM Item i WHERE i.available = true AND " +
             "(LOWER(i.name) LIKE LOWER(CONCAT('%', :text, '%')) OR " +
-            "LOWER(i.description) LIKE LOWER(CONCAT('%', :text, '%')))")
-    List<Item> searchByText(String text);
+            "LOWER(i.description) LIKE LOWER(CONCAT('%', :text, '%'))) " +
+            "ORDER BY i.id")
+    List<Item> searchByText(String text, Limit limit);
+
+    /**
+     * Поиск по тексту среди вещей, свободных в периоде [from, to): вещи с пересекающимися бронированиями
+     * в переданных статусах отсекаются антиджойном по индексу (item_id, status, end_date).
+     */
+    @Query("SELECT i FROM Item i WHERE i.available = true AND " +
+            "(LOWER(i.name) LIKE LOWER(CONCAT('%', :text, '%')) OR " +
+            "LOWER(i.description) LIKE LOWER(CONCAT('%', :text, '%'))) AND " +
+            "NOT EXISTS (SELECT b.id FROM Booking b WHERE b.itemId = i.id AND b.status IN :statuses " +
+            "AND b.end > :from AND b.start < :to) " +
+            "ORDER BY i.id")
+    List<Item> searchByTextAvailableBetween(String text, Collection<Status> statuses,
+                                            LocalDateTime from, LocalDateTime to, Limit limit);
+
+    /**
+     * Поиск только на Postgres: совпадения по словам через GIN-индекс items.search_vector, по подстроке
+     * (pattern) и по похожести (оператор <% pg_trgm) через триграммный GIN-индекс items.search_text.
+     * Выше — совпадения по словам, затем по убыванию word_similarity.
+     */
+    @Query(value = "SELECT i.* FROM items i, to_tsquery('simple', :query) q " +
+            "WHERE i.is_available = true AND " +
+            "(i.search_vector @@ q OR i.search_text LIKE :pattern OR :text <% i.search_text) " +
+            "ORDER BY ts_rank(i.search_vector, q) DESC, word_similarity(:text, i.search_text) DESC, i.id",
+            nativeQuery = true)
+    List<Item> searchByFullTextOrTrigram(String query, String text, String pattern, Limit limit);
+
+    @Query(value = "SELECT i.* FROM items i, to_tsquery('simple', :query) q " +
+            "WHERE i.is_available = true AND i.search_vector @@ q AND " +
+            "NOT EXISTS (SELECT 1 FROM bookings b WHERE b.item_id = i.id AND b.status IN (:statuses) " +
+            "AND b.end_date > :from AND b.start_date < :to) " +
+            "ORDER BY ts_rank(i.search_vector, q) DESC, i.id", nativeQuery = true)
+    List<Item> searchByFullTextAvailableBetween(String query, Collection<String> statuses,
+                                                LocalDateTime from, LocalDateTime to, Limit limit);
 
     List<Item> findByRequestIdOrderById(Long requestId);
+
+    List<Item> findByAvailableTrueAndIdGreaterThanOrderById(Long id, Limit limit);
 }
\ No newline at end of file
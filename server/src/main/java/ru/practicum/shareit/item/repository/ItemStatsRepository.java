@@ -0,0 +1,61 @@
+package ru.practicum.shareit.item.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.model.ItemStats;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@Repository
+public interface ItemStatsRepository extends JpaRepository<ItemStats, Long> {
+
+    String APPROVED = "WHERE item_id = i.id AND status = 'APPROVED')";
+    String APPROVED_COUNT = "(SELECT COUNT(*) FROM bookings " + APPROVED;
+    String ARCHIVED_COUNT = "(SELECT COUNT(*) FROM bookings_archive " + APPROVED;
+    String LAST_END = "(SELECT MAX(end_date) FROM bookings " + APPROVED;
+    String LAST_ARCHIVED_END = "(SELECT MAX(end_date) FROM bookings_archive " + APPROVED;
+
+    /**
+     * Счётчики, посчитанные заново по comments, bookings и bookings_archive. Подзапросы коррелированы
+     * с вещью и идут по индексам (item_id, ...), поэтому стоимость зависит только от выбранных вещей.
+     * GREATEST в H2 и Postgres по-разному обращается с NULL, поэтому он дополнен COALESCE.
+     */
+    String INSERT_COMPUTED = "INSERT INTO item_stats " +
+            "(item_id, comment_count, last_comment_at, booking_count, last_booking_end) " +
+            "SELECT i.id, " +
+            "(SELECT COUNT(*) FROM comments WHERE item_id = i.id), " +
+            "(SELECT MAX(created) FROM comments WHERE item_id = i.id), " +
+            APPROVED_COUNT + " + " + ARCHIVED_COUNT + ", " +
+            "COALESCE(GREATEST(" + LAST_END + ", " + LAST_ARCHIVED_END + "), " +
+            LAST_END + ", " + LAST_ARCHIVED_END + ") " +
+            "FROM items i ";
+
+    @Modifying
+    @Query("UPDATE ItemStats s SET s.commentCount = s.commentCount + 1, " +
+            "s.lastCommentAt = CASE WHEN s.lastCommentAt IS NULL OR s.lastCommentAt < :created " +
+            "THEN :created ELSE s.lastCommentAt END " +
+            "WHERE s.itemId = :itemId")
+    int incrementComments(Long itemId, LocalDateTime created);
+
+    @Modifying
+    @Query("UPDATE ItemStats s SET s.bookingCount = s.bookingCount + 1, " +
+            "s.lastBookingEnd = CASE WHEN s.lastBookingEnd IS NULL OR s.lastBookingEnd < :end " +
+            "THEN :end ELSE s.lastBookingEnd END " +
+            "WHERE s.itemId = :itemId")
+    int incrementBookings(Long itemId, LocalDateTime end);
+
+    @Modifying
+    @Query(value = INSERT_COMPUTED + "WHERE i.id IN (:itemIds)", nativeQuery = true)
+    int insertComputed(Collection<Long> itemIds);
+
+    @Modifying
+    @Query(value = INSERT_COMPUTED + "WHERE i.id BETWEEN :fromId AND :toId", nativeQuery = true)
+    int insertComputedBetween(Long fromId, Long toId);
+
+    @Modifying
+    @Query("DELETE FROM ItemStats s WHERE s.itemId BETWEEN :fromId AND :toId")
+    int deleteByItemIdBetween(Long fromId, Long toId);
+}
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.item.service;
+
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Позиция в списке комментариев к вещи, отсортированном по id по убыванию: id последнего показанного
+ * комментария. Передаётся клиенту в виде непрозрачного токена страницы.
+ */
+final class CommentCursor {
+
+    private static final String PREFIX = "comment:";
+
+    private CommentCursor() {
+    }
+
+    /**
+     * id, с которого начинается страница (не включая его).
+     */
+    static long decode(String token) {
+        if (token == null || token.isBlank()) {
+            return Long.MAX_VALUE;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            if (!value.startsWith(PREFIX)) {
+                throw new ValidationException("Invalid page token");
+            }
+            return Long.parseLong(value.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Invalid page token");
+        }
+    }
+
+    static String encode(long lastId) {
+        String value = PREFIX + lastId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
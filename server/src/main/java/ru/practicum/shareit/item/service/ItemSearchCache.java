@@ -0,0 +1,199 @@
+package ru.practicum.shareit.item.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.common.TransactionCallbacks;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Кэш результатов поиска вещей: нормализованный текст запроса и страница -> id найденных вещей.
+ * Размер ограничен суммарным числом хранимых id (shareit.items.search.cache.max-ids), при переполнении
+ * вытесняются давно не читавшиеся страницы. 0 отключает кэш.
+ * <p>
+ * После коммита изменения вещи сбрасываются все страницы тех запросов, в закэшированных страницах которых
+ * вещь уже есть или в результат которых она может попасть теперь (ItemSearchEngine.mayMatch).
+ * Страницы, прочитанные из базы до сброса, но записываемые после него, в кэш не попадают.
+ */
+@Component
+@Slf4j
+public class ItemSearchCache {
+
+    private final ItemSearchEngine itemSearchEngine;
+    private final long maxIds;
+    private final LinkedHashMap<Key, List<Long>> pages = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Set<Key>> keysByText = new HashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter invalidations;
+    private long storedIds;
+    private long generation;
+
+    public ItemSearchCache(ItemSearchEngine itemSearchEngine,
+                           MeterRegistry meterRegistry,
+                           @Value("${shareit.items.search.cache.max-ids:100000}") long maxIds) {
+        this.itemSearchEngine = itemSearchEngine;
+        this.maxIds = maxIds;
+        this.hits = Counter.builder("shareit.items.search.cache.requests")
+                .tag("result", "hit")
+                .description("Запросы поиска вещей, обслуженные из кэша")
+                .register(meterRegistry);
+        this.misses = Counter.builder("shareit.items.search.cache.requests")
+                .tag("result", "miss")
+                .description("Запросы поиска вещей, выполненные в обход кэша")
+                .register(meterRegistry);
+        this.sizeEvictions = Counter.builder("shareit.items.search.cache.evictions")
+                .tag("cause", "size")
+                .description("Страницы, вытесненные из кэша поиска из-за ограничения размера")
+                .register(meterRegistry);
+        this.invalidations = Counter.builder("shareit.items.search.cache.evictions")
+                .tag("cause", "invalidation")
+                .description("Страницы, сброшенные из кэша поиска после изменения вещи")
+                .register(meterRegistry);
+        Gauge.builder("shareit.items.search.cache.hit.ratio", this, ItemSearchCache::hitRatio)
+                .description("Доля запросов поиска вещей, обслуженных из кэша")
+                .register(meterRegistry);
+        Gauge.builder("shareit.items.search.cache.size", this, ItemSearchCache::storedIds)
+                .description("Число id вещей, хранимых в кэше поиска")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ключ кэша для текста запроса: без пробелов по краям и в нижнем регистре.
+     */
+    public static String normalize(String text) {
+        return text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Поколение кэша; передаётся в put, чтобы не записать результат, прочитанный до сброса.
+     */
+    public synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * id вещей страницы или null, если страницы в кэше нет.
+     */
+    public List<Long> get(String text, int offset, int limit) {
+        List<Long> ids;
+        synchronized (this) {
+            ids = pages.get(new Key(text, offset, limit));
+        }
+        (ids == null ? misses : hits).increment();
+        return ids;
+    }
+
+    public synchronized void put(String text, int offset, int limit, List<Long> ids, long readGeneration) {
+        if (maxIds <= 0 || readGeneration != generation || ids.size() + 1 > maxIds) {
+            return;
+        }
+        Key key = new Key(text, offset, limit);
+        List<Long> previous = pages.put(key, List.copyOf(ids));
+        storedIds += weight(ids) - (previous == null ? 0 : weight(previous));
+        keysByText.computeIfAbsent(text, t -> new HashSet<>()).add(key);
+        Iterator<Map.Entry<Key, List<Long>>> eldest = pages.entrySet().iterator();
+        while (storedIds > maxIds && eldest.hasNext()) {
+            Map.Entry<Key, List<Long>> entry = eldest.next();
+            eldest.remove();
+            forget(entry.getKey(), entry.getValue());
+            sizeEvictions.increment();
+        }
+    }
+
+    /**
+     * Сбрасывает после коммита страницы запросов, на результат которых могло повлиять изменение вещи:
+     * её текста или доступности.
+     */
+    public void itemChanged(Item item) {
+        TransactionCallbacks.afterCommit(() -> invalidate(item));
+    }
+
+    private void invalidate(Item item) {
+        List<String> texts;
+        Set<String> affected = new HashSet<>();
+        synchronized (this) {
+            generation++;
+            texts = new ArrayList<>(keysByText.keySet());
+            pages.forEach((key, ids) -> {
+                if (ids.contains(item.getId())) {
+                    affected.add(key.getText());
+                }
+            });
+        }
+        // Совпадение с текстом вещи проверяется без блокировки: чтение кэша в это время не ждёт
+        for (String text : texts) {
+            if (!affected.contains(text) && itemSearchEngine.mayMatch(text, item)) {
+                affected.add(text);
+            }
+        }
+        if (affected.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            for (String text : affected) {
+                Set<Key> keys = keysByText.get(text);
+                if (keys == null) {
+                    continue;
+                }
+                for (Key key : List.copyOf(keys)) {
+                    forget(key, pages.remove(key));
+                    invalidations.increment();
+                }
+            }
+        }
+        log.debug("Сброшены результаты поиска по {} запросам после изменения вещи id={}", affected.size(),
+                item.getId());
+    }
+
+    private void forget(Key key, List<Long> ids) {
+        storedIds -= weight(ids);
+        Set<Key> keys = keysByText.get(key.getText());
+        keys.remove(key);
+        if (keys.isEmpty()) {
+            keysByText.remove(key.getText());
+        }
+    }
+
+    private synchronized long storedIds() {
+        return storedIds;
+    }
+
+    private double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+
+    /**
+     * Пустой результат тоже занимает место: учитывается как один id.
+     */
+    private static long weight(List<Long> ids) {
+        return ids.size() + 1L;
+    }
+
+    @Getter
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static class Key {
+        private final String text;
+        private final int offset;
+        private final int limit;
+    }
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.item.service;
+
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Позиция в упорядоченном по релевантности результате поиска вещей.
+ * Передаётся клиенту в виде непрозрачного токена страницы.
+ */
+final class ItemSearchCursor {
+
+    private static final String PREFIX = "offset:";
+
+    private ItemSearchCursor() {
+    }
+
+    static int decode(String token) {
+        if (token == null || token.isBlank()) {
+            return 0;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            if (!value.startsWith(PREFIX)) {
+                throw new ValidationException("Invalid page token");
+            }
+            int offset = Integer.parseInt(value.substring(PREFIX.length()));
+            if (offset < 0) {
+                throw new ValidationException("Invalid page token");
+            }
+            return offset;
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Invalid page token");
+        }
+    }
+
+    static String encode(int offset) {
+        String value = PREFIX + offset;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
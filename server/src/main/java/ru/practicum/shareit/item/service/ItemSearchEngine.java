@@ -0,0 +1,304 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemInvertedIndex;
+import ru.practicum.shareit.item.model.ItemSuggestIndex;
+import ru.practicum.shareit.item.model.ItemTrigramIndex;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Поиск доступных вещей по тексту. В режиме database (по умолчанию) на Postgres используется
+ * полнотекстовый индекс по items.search_vector и триграммный индекс pg_trgm по items.search_text
+ * (фрагменты слов и опечатки), на остальных платформах (H2 в тестах) — поиск подстроки через LIKE.
+ * В режиме memory те же уровни совпадений считаются по встроенным индексам, а из базы вещи читаются
+ * только по первичному ключу. Результат упорядочен по релевантности; страницы выдаются не глубже
+ * max-results первых совпадений, поэтому и база, и индексы отбирают не более max-results лучших.
+ * Подсказки названий при вводе в любом режиме отдаются из словаря в памяти, без обращения к базе.
+ */
+@Component
+@Slf4j
+public class ItemSearchEngine {
+
+    public static final String MODE_DATABASE = "database";
+    public static final String MODE_MEMORY = "memory";
+
+    private static final String POSTGRESQL = "postgresql";
+    private static final int LOAD_BATCH_SIZE = 10_000;
+    private static final double SIMILARITY_THRESHOLD = 0.6;
+
+    private final ItemRepository itemRepository;
+    private final boolean fullText;
+    private final boolean inMemory;
+    private final int maxResults;
+    private final Set<Long> changedDuringLoad = ConcurrentHashMap.newKeySet();
+    private volatile ItemInvertedIndex index;
+    private volatile ItemTrigramIndex trigramIndex;
+    private volatile ItemSuggestIndex suggestIndex;
+    private volatile boolean loading;
+
+    public ItemSearchEngine(ItemRepository itemRepository,
+                            @Value("${spring.sql.init.platform:}") String platform,
+                            @Value("${shareit.items.search.mode:database}") String mode,
+                            @Value("${shareit.items.search.max-results:1000}") int maxResults) {
+        this.itemRepository = itemRepository;
+        this.fullText = POSTGRESQL.equals(platform);
+        this.inMemory = MODE_MEMORY.equals(mode);
+        this.maxResults = maxResults;
+    }
+
+    /**
+     * Не более limit вещей начиная с позиции offset в упорядоченном по релевантности результате.
+     */
+    public List<Item> search(String text, int offset, int limit) {
+        int end = Math.min(offset + limit, maxResults);
+        if (offset >= end) {
+            return List.of();
+        }
+        ItemInvertedIndex words = index;
+        ItemTrigramIndex trigrams = trigramIndex;
+        if (words != null && trigrams != null) {
+            List<Long> ranked = rank(words.search(text), trigrams.search(text, SIMILARITY_THRESHOLD, end), end);
+            return findAvailableByIds(skip(ranked, offset));
+        }
+        if (!fullText) {
+            return skip(itemRepository.searchByText(text, Limit.of(end)), offset);
+        }
+        String query = toPrefixQuery(text);
+        if (query.isEmpty()) {
+            return List.of();
+        }
+        String lowerText = text.trim().toLowerCase(Locale.ROOT);
+        return skip(itemRepository.searchByFullTextOrTrigram(query, lowerText, toContainsPattern(lowerText),
+                Limit.of(end)), offset);
+    }
+
+    /**
+     * Может ли вещь оказаться в результате search(text). Для LIKE проверка точная с точностью до шаблонов
+     * % и _, для полнотекстового и триграммного поиска — с запасом: доля общих триграмм считается по всему
+     * тексту вещи и поэтому не меньше word_similarity на Postgres.
+     */
+    public boolean mayMatch(String text, Item item) {
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            return false;
+        }
+        String lowerText = text.trim().toLowerCase(Locale.ROOT);
+        if (!fullText && (lowerText.indexOf('%') >= 0 || lowerText.indexOf('_') >= 0)) {
+            return true;
+        }
+        String name = item.getName() == null ? "" : item.getName().toLowerCase(Locale.ROOT);
+        String description = item.getDescription() == null ? "" : item.getDescription().toLowerCase(Locale.ROOT);
+        if (name.contains(lowerText) || description.contains(lowerText)
+                || (name + " " + description).contains(lowerText)) {
+            return true;
+        }
+        if (!fullText && !inMemory) {
+            return false;
+        }
+        List<String> words = ItemInvertedIndex.tokenize(name + " " + description);
+        boolean allPrefixes = ItemInvertedIndex.tokenize(lowerText).stream()
+                .allMatch(prefix -> words.stream().anyMatch(word -> word.startsWith(prefix)));
+        return allPrefixes
+                || ItemTrigramIndex.matches(lowerText, item.getName(), item.getDescription(), SIMILARITY_THRESHOLD);
+    }
+
+    /**
+     * Названия доступных вещей, начинающиеся с prefix. До построения словаря после старта — пустой список.
+     */
+    public List<String> suggest(String prefix, int limit) {
+        ItemSuggestIndex names = suggestIndex;
+        return names == null ? List.of() : names.suggest(prefix, limit);
+    }
+
+    /**
+     * Поиск со свободным окном всегда идёт в базу: занятость вещей хранится в bookings.
+     */
+    public List<Item> searchAvailable(String text, Collection<Status> statuses,
+                                      LocalDateTime from, LocalDateTime to, int offset, int limit) {
+        int end = Math.min(offset + limit, maxResults);
+        if (offset >= end) {
+            return List.of();
+        }
+        if (!fullText) {
+            return skip(itemRepository.searchByTextAvailableBetween(text, statuses, from, to, Limit.of(end)), offset);
+        }
+        String query = toPrefixQuery(text);
+        if (query.isEmpty()) {
+            return List.of();
+        }
+        List<String> statusNames = statuses.stream().map(Status::name).toList();
+        return skip(itemRepository.searchByFullTextAvailableBetween(query, statusNames, from, to, Limit.of(end)),
+                offset);
+    }
+
+    /**
+     * Обновляет индексы в памяти после коммита транзакции, в которой вещь была создана или изменена.
+     */
+    public void itemSaved(Item item) {
+        afterCommit(() -> {
+            if (loading) {
+                changedDuringLoad.add(item.getId());
+            }
+            apply(item);
+        });
+    }
+
+    /**
+     * Строит индексы по таблице items после старта приложения: словарь подсказок всегда, индексы поиска —
+     * в режиме memory. Пока индекс строится, поиск идёт в базу; вещи, изменённые во время построения,
+     * перечитываются после публикации индексов.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIndex() {
+        loading = true;
+        long started = System.nanoTime();
+        ItemSuggestIndex names = new ItemSuggestIndex();
+        ItemInvertedIndex.Builder wordsBuilder = new ItemInvertedIndex.Builder();
+        ItemTrigramIndex.Builder trigramsBuilder = new ItemTrigramIndex.Builder();
+        long lastId = 0;
+        int loaded = 0;
+        List<Item> batch;
+        do {
+            batch = itemRepository.findByAvailableTrueAndIdGreaterThanOrderById(lastId, Limit.of(LOAD_BATCH_SIZE));
+            for (Item item : batch) {
+                names.put(item.getId(), item.getName());
+                if (inMemory) {
+                    wordsBuilder.add(item.getId(), item.getName(), item.getDescription());
+                    trigramsBuilder.add(item.getId(), item.getName(), item.getDescription());
+                }
+                lastId = item.getId();
+            }
+            loaded += batch.size();
+        } while (batch.size() == LOAD_BATCH_SIZE);
+
+        suggestIndex = names;
+        if (inMemory) {
+            trigramIndex = trigramsBuilder.build();
+            index = wordsBuilder.build();
+        }
+        loading = false;
+        List<Long> changed = List.copyOf(changedDuringLoad);
+        changedDuringLoad.clear();
+        if (!changed.isEmpty()) {
+            changed.forEach(this::remove);
+            itemRepository.findAllById(changed).forEach(this::apply);
+        }
+        log.info("Индексы вещей построены: {} вещей, {} различных названий за {} мс", loaded, names.size(),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Превращает пользовательский текст в tsquery вида "дрел:* & аккум:*": каждое слово ищется как префикс,
+     * а спецсимволы tsquery не попадают в запрос.
+     */
+    public static String toPrefixQuery(String text) {
+        return ItemInvertedIndex.tokenize(text).stream()
+                .map(word -> word + ":*")
+                .collect(Collectors.joining(" & "));
+    }
+
+    /**
+     * Экранирует спецсимволы LIKE и оборачивает текст в %...%.
+     */
+    public static String toContainsPattern(String text) {
+        return "%" + text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
+    /**
+     * Сначала вещи, содержащие все слова запроса как префиксы, затем совпадения по подстроке и похожие
+     * по триграммам — так же, как ts_rank и word_similarity упорядочивают результат на Postgres.
+     */
+    private static List<Long> rank(long[] wordMatches, List<ItemTrigramIndex.Match> trigramMatches, int limit) {
+        Set<Long> ranked = new LinkedHashSet<>();
+        for (int i = 0; i < wordMatches.length && ranked.size() < limit; i++) {
+            ranked.add(wordMatches[i]);
+        }
+        for (int i = 0; i < trigramMatches.size() && ranked.size() < limit; i++) {
+            ranked.add(trigramMatches.get(i).getItemId());
+        }
+        return List.copyOf(ranked);
+    }
+
+    private static <T> List<T> skip(List<T> list, int offset) {
+        return offset == 0 ? list : list.subList(Math.min(offset, list.size()), list.size());
+    }
+
+    /**
+     * Доступные вещи по списку id в порядке этого списка.
+     */
+    List<Item> findAvailableByIds(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Item> items = itemRepository.findAllById(ids).stream()
+                .filter(Item::getAvailable)
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return ids.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private void apply(Item item) {
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            remove(item.getId());
+            return;
+        }
+        ItemSuggestIndex names = suggestIndex;
+        ItemInvertedIndex words = index;
+        ItemTrigramIndex trigrams = trigramIndex;
+        if (names != null) {
+            names.put(item.getId(), item.getName());
+        }
+        if (words != null && trigrams != null) {
+            words.put(item.getId(), item.getName(), item.getDescription());
+            trigrams.put(item.getId(), item.getName(), item.getDescription());
+        }
+    }
+
+    private void remove(Long itemId) {
+        ItemSuggestIndex names = suggestIndex;
+        ItemInvertedIndex words = index;
+        ItemTrigramIndex trigrams = trigramIndex;
+        if (names != null) {
+            names.remove(itemId);
+        }
+        if (words != null && trigrams != null) {
+            words.remove(itemId);
+            trigrams.remove(itemId);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
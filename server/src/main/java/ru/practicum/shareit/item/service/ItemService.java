@@ -1,20 +1,35 @@
 package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentPageDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemPageDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
     ItemDto create(ItemDto itemDto, Long userId);
 
+    List<ItemDto> createAll(List<ItemDto> itemDtos, Long userId);
+
     ItemDto update(Long itemId, ItemDto itemDto, Long userId);
 
     ItemDto findById(Long itemId, Long userId);
 
     List<ItemDto> getOwnerItems(Long userId);
 
-    List<ItemDto> search(String text);
+    ItemPageDto search(String text, Integer offset, String pageToken, Integer size);
+
+    List<String> suggest(String prefix, Integer size);
+
+    ItemPageDto searchAvailable(String text, LocalDateTime from, LocalDateTime to,
+                                Integer offset, String pageToken, Integer size);
+
+    CommentPageDto getComments(Long itemId, String pageToken, Integer size);
 
     CommentDto addComment(Long itemId, Long userId, String text);
+
+    ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
 }
\ No newline at end of file
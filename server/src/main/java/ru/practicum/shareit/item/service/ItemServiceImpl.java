@@ -1,40 +1,85 @@
 package ru.practicum.shareit.item.service;
 
-import lombok.RequiredArgsConstructor;
+import jakarta.persistence.EntityManager;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingPointer;
+import ru.practicum.shareit.booking.model.ItemBookingPointers;
 import ru.practicum.shareit.booking.model.Status;
-import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingPointersService;
+import ru.practicum.shareit.booking.service.ItemOccupancyIndex;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
 import ru.practicum.shareit.item.dto.BookingShortDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentPageDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemPageDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.CommentAuthor;
+import ru.practicum.shareit.item.model.CommentRow;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemStats;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
-import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class ItemServiceImpl implements ItemService {
 
+    private static final int MAX_AVAILABILITY_DAYS = 366;
+    private static final int MAX_SUGGESTIONS = 50;
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+    private static final int MAX_COMMENT_PAGE_SIZE = 100;
+    // Карточка вещи содержит только последние комментарии, остальные доступны постранично
+    private static final int ITEM_CARD_COMMENTS = 10;
+    private static final List<Status> ACTIVE_STATUSES = List.of(Status.WAITING, Status.APPROVED);
+
     private final ItemRepository itemRepository;
     private final UserService userService;
-    private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
-    private final UserRepository userRepository;
+    private final ItemOccupancyIndex occupancyIndex;
+    private final BookingPointersService bookingPointersService;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemSearchCache itemSearchCache;
+    private final ItemStatsService itemStatsService;
+    private final EntityManager entityManager;
+    private final int batchSize;
+
+    public ItemServiceImpl(ItemRepository itemRepository,
+                           UserService userService,
+                           CommentRepository commentRepository,
+                           ItemOccupancyIndex occupancyIndex,
+                           BookingPointersService bookingPointersService,
+                           ItemSearchEngine itemSearchEngine,
+                           ItemSearchCache itemSearchCache,
+                           ItemStatsService itemStatsService,
+                           EntityManager entityManager,
+                           @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize) {
+        this.itemRepository = itemRepository;
+        this.userService = userService;
+        this.commentRepository = commentRepository;
+        this.occupancyIndex = occupancyIndex;
+        this.bookingPointersService = bookingPointersService;
+        this.itemSearchEngine = itemSearchEngine;
+        this.itemSearchCache = itemSearchCache;
+        this.itemStatsService = itemStatsService;
+        this.entityManager = entityManager;
+        this.batchSize = batchSize;
+    }
 
     @Override
     @Transactional
@@ -49,10 +94,42 @@ public class ItemServiceImpl implements ItemService {
 
         Item item = ItemMapper.toItem(itemDto, userId);
         Item savedItem = itemRepository.save(item);
+        itemSearchEngine.itemSaved(savedItem);
+        itemSearchCache.itemChanged(savedItem);
         log.info("Вещь создана с id={} для пользователя id={}", savedItem.getId(), userId);
         return ItemMapper.toItemDto(savedItem);
     }
 
+    @Override
+    @Transactional
+    public List<ItemDto> createAll(List<ItemDto> itemDtos, Long userId) {
+        log.info("Пакетное создание вещей для пользователя id={}: {} шт.", userId, itemDtos.size());
+        itemDtos.forEach(this::validateItem);
+
+        if (!userService.userExists(userId)) {
+            log.warn("Попытка создания вещей для несуществующего пользователя id={}", userId);
+            throw new NotFoundException("User not found");
+        }
+
+        // Пачками по размеру JDBC-пакета, чтобы контекст персистентности не рос вместе с размером импорта
+        List<ItemDto> result = new ArrayList<>(itemDtos.size());
+        for (int from = 0; from < itemDtos.size(); from += batchSize) {
+            List<Item> savedItems = itemRepository.saveAll(itemDtos.subList(from, Math.min(from + batchSize,
+                            itemDtos.size())).stream()
+                    .map(itemDto -> ItemMapper.toItem(itemDto, userId))
+                    .collect(Collectors.toList()));
+            entityManager.flush();
+            entityManager.clear();
+            for (Item item : savedItems) {
+                itemSearchEngine.itemSaved(item);
+                itemSearchCache.itemChanged(item);
+                result.add(ItemMapper.toItemDto(item));
+            }
+        }
+        log.info("Создано вещей: {} для пользователя id={}", result.size(), userId);
+        return result;
+    }
+
     @Override
     @Transactional
     public ItemDto update(Long itemId, ItemDto itemDto, Long userId) {
@@ -68,17 +145,26 @@ public class ItemServiceImpl implements ItemService {
             throw new NotFoundException("Item not found");
         }
 
+        // Результаты поиска зависят только от названия, описания и доступности
+        boolean searchableChanged = false;
         if (itemDto.getName() != null) {
+            searchableChanged = !itemDto.getName().equals(existingItem.getName());
             existingItem.setName(itemDto.getName());
         }
         if (itemDto.getDescription() != null) {
+            searchableChanged |= !itemDto.getDescription().equals(existingItem.getDescription());
             existingItem.setDescription(itemDto.getDescription());
         }
         if (itemDto.getAvailable() != null) {
+            searchableChanged |= !itemDto.getAvailable().equals(existingItem.getAvailable());
             existingItem.setAvailable(itemDto.getAvailable());
         }
 
         Item updatedItem = itemRepository.save(existingItem);
+        itemSearchEngine.itemSaved(updatedItem);
+        if (searchableChanged) {
+            itemSearchCache.itemChanged(updatedItem);
+        }
         log.info("Вещь id={} обновлена", itemId);
         return ItemMapper.toItemDto(updatedItem);
     }
@@ -93,14 +179,49 @@ public class ItemServiceImpl implements ItemService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<ItemDto> search(String text) {
+    public ItemPageDto search(String text, Integer offset, String pageToken, Integer size) {
         log.info("Поиск вещей по тексту: '{}'", text);
+        int start = searchOffset(offset, pageToken, size);
         if (text == null || text.isBlank()) {
+            return new ItemPageDto(List.of(), null);
+        }
+        String query = ItemSearchCache.normalize(text);
+        // Запрашиваем на одну вещь больше, чтобы понять, есть ли следующая страница
+        int limit = size + 1;
+        List<Long> cachedIds = itemSearchCache.get(query, start, limit);
+        if (cachedIds != null) {
+            return toItemPage(itemSearchEngine.findAvailableByIds(cachedIds), start, size);
+        }
+        long generation = itemSearchCache.generation();
+        List<Item> items = itemSearchEngine.search(query, start, limit);
+        itemSearchCache.put(query, start, limit, items.stream().map(Item::getId).toList(), generation);
+        return toItemPage(items, start, size);
+    }
+
+    @Override
+    public List<String> suggest(String prefix, Integer size) {
+        if (size == null || size < 1 || size > MAX_SUGGESTIONS) {
+            throw new ValidationException("Suggestions size must be between 1 and " + MAX_SUGGESTIONS);
+        }
+        if (prefix == null || prefix.isBlank()) {
             return List.of();
         }
-        return itemRepository.searchByText(text).stream()
-                .map(ItemMapper::toItemDto)
-                .collect(Collectors.toList());
+        return itemSearchEngine.suggest(prefix, size);
+    }
+
+    @Override
+    public ItemPageDto searchAvailable(String text, LocalDateTime from, LocalDateTime to,
+                                       Integer offset, String pageToken, Integer size) {
+        log.info("Поиск вещей по тексту '{}', свободных с {} по {}", text, from, to);
+        if (from == null || to == null || !to.isAfter(from)) {
+            throw new ValidationException("Period end must be after period start");
+        }
+        int start = searchOffset(offset, pageToken, size);
+        if (text == null || text.isBlank()) {
+            return new ItemPageDto(List.of(), null);
+        }
+        return toItemPage(itemSearchEngine.searchAvailable(text, ACTIVE_STATUSES, from, to, start, size + 1),
+                start, size);
     }
 
     @Override
@@ -108,41 +229,60 @@ public class ItemServiceImpl implements ItemService {
     public List<ItemDto> getOwnerItems(Long userId) {
         log.info("Получение списка вещей владельца с id={}", userId);
         List<Item> items = itemRepository.findByOwnerIdOrderById(userId);
+        if (items.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> itemIds = items.stream().map(Item::getId).toList();
+        Map<Long, ItemBookingPointers> pointers = bookingPointersService.getAll(itemIds, LocalDateTime.now());
+        Map<Long, ItemStats> stats = itemStatsService.getAll(itemIds);
+        Map<Long, List<CommentDto>> comments = commentRepository
+                .findNewestCommentRowsByItemIdIn(itemIds, ITEM_CARD_COMMENTS).stream()
+                .collect(Collectors.groupingBy(CommentRow::getItemId,
+                        Collectors.mapping(CommentRow::toCommentDto, Collectors.toList())));
+
         return items.stream()
-                .map(item -> toItemDtoWithBookings(item, userId))
+                .map(item -> toItemDto(item, pointers.get(item.getId()), stats.get(item.getId()),
+                        comments.getOrDefault(item.getId(), List.of())))
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CommentPageDto getComments(Long itemId, String pageToken, Integer size) {
+        log.info("Получение комментариев к вещи id={}", itemId);
+        if (size == null || size < 1 || size > MAX_COMMENT_PAGE_SIZE) {
+            throw new ValidationException("Page size must be between 1 and " + MAX_COMMENT_PAGE_SIZE);
+        }
+        long beforeId = CommentCursor.decode(pageToken);
+        if (!itemRepository.existsById(itemId)) {
+            throw new NotFoundException("Item not found");
+        }
+
+        // Запрашиваем на один комментарий больше, чтобы понять, есть ли следующая страница
+        List<CommentDto> comments = commentRepository.findCommentDtosByItemIdBefore(itemId, beforeId,
+                Limit.of(size + 1));
+        if (comments.size() <= size) {
+            return new CommentPageDto(comments, null);
+        }
+        List<CommentDto> page = comments.subList(0, size);
+        return new CommentPageDto(page, CommentCursor.encode(page.get(size - 1).getId()));
+    }
+
     @Override
     @Transactional
     public CommentDto addComment(Long itemId, Long userId, String text) {
-        log.info("Добавление комментария к вещи id={} пользователем id={}: text='{}'", itemId, userId, text);
-        LocalDateTime now = LocalDateTime.now();
-        log.info("Текущее время: {}", now);
-
+        log.info("Добавление комментария к вещи id={} пользователем id={}", itemId, userId);
         if (text == null || text.isBlank()) {
             log.warn("Попытка добавить комментарий с пустым текстом");
             throw new ValidationException("Comment text cannot be empty");
         }
 
-        Item item = itemRepository.findById(itemId)
+        LocalDateTime now = LocalDateTime.now();
+        CommentAuthor author = commentRepository.findCommentAuthor(itemId, userId, now)
                 .orElseThrow(() -> new NotFoundException("Item not found"));
-
-        log.info("Проверка завершенного бронирования для пользователя id={} и вещи id={}", userId, itemId);
-        boolean hasFinishedBooking = hasUserBookedAndFinishedItem(userId, itemId, now);
-        log.info("Результат проверки завершенного бронирования: {}", hasFinishedBooking);
-
-        if (!hasFinishedBooking) {
-            List<Booking> userBookings = bookingRepository.findByBookerIdAndItemId(userId, itemId);
-            log.info("Найдено бронирований пользователя {} для вещи {}: {}", userId, itemId, userBookings.size());
-
-            for (Booking booking : userBookings) {
-                log.info("Бронирование id={}, статус={}, start={}, end={}, now={}",
-                        booking.getId(), booking.getStatus(), booking.getStart(), booking.getEnd(), now);
-                log.info("Статус APPROVED: {}, Завершено: {}",
-                        booking.getStatus() == Status.APPROVED, booking.getEnd().isBefore(now));
-            }
-
+        if (!author.getFinishedBooking()) {
+            log.warn("У пользователя id={} нет завершённого бронирования вещи id={}", userId, itemId);
             throw new ValidationException("User has not booked this item or booking has not finished yet");
         }
 
@@ -151,57 +291,78 @@ public class ItemServiceImpl implements ItemService {
         comment.setItemId(itemId);
         comment.setAuthorId(userId);
         comment.setCreated(now);
+        // id берётся из заранее выделенного блока последовательности, INSERT уходит при коммите
+        commentRepository.save(comment);
+        itemStatsService.commentAdded(itemId, now);
 
-        Comment savedComment = commentRepository.save(comment);
-        log.info("Комментарий сохранен с id={}", savedComment.getId());
-
-        User author = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Author not found"));
+        CommentDto dto = new CommentDto(comment.getId(), text, author.getName(), now);
+        log.info("Комментарий id={} к вещи id={} создан", dto.getId(), itemId);
+        return dto;
+    }
 
-        CommentDto dto = new CommentDto();
-        dto.setId(savedComment.getId());
-        dto.setText(savedComment.getText());
-        dto.setAuthorName(author.getName());
-        dto.setCreated(savedComment.getCreated());
+    @Override
+    public ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        log.info("Получение календаря занятости вещи id={} с {} по {}", itemId, from, to);
+        if (from == null || to == null || !to.isAfter(from)) {
+            throw new ValidationException("Period end must be after period start");
+        }
+        if (from.plusDays(MAX_AVAILABILITY_DAYS).isBefore(to)) {
+            throw new ValidationException("Period must not exceed " + MAX_AVAILABILITY_DAYS + " days");
+        }
+        if (!itemRepository.existsById(itemId)) {
+            throw new NotFoundException("Item not found");
+        }
 
-        log.info("Комментарий успешно создан: id={}, text='{}', author='{}'",
-                dto.getId(), dto.getText(), dto.getAuthorName());
-        return dto;
+        List<AvailabilityIntervalDto> intervals = occupancyIndex.intervals(itemId, from, to).stream()
+                .map(interval -> new AvailabilityIntervalDto(
+                        ItemOccupancyIndex.toTime(interval.getFromHour()),
+                        ItemOccupancyIndex.toTime(interval.getToHour()),
+                        !interval.isBusy()))
+                .collect(Collectors.toList());
+        return new ItemAvailabilityDto(itemId,
+                ItemOccupancyIndex.toTime(ItemOccupancyIndex.floorHour(from)),
+                ItemOccupancyIndex.toTime(ItemOccupancyIndex.ceilHour(to)),
+                intervals);
     }
 
     private ItemDto toItemDtoWithBookings(Item item, Long requesterId) {
+        ItemBookingPointers pointers = requesterId != null && requesterId.equals(item.getOwnerId())
+                ? bookingPointersService.get(item.getId(), LocalDateTime.now())
+                : null;
+        return toItemDto(item, pointers, itemStatsService.get(item.getId()),
+                commentRepository.findCommentDtosByItemIdBefore(item.getId(), Long.MAX_VALUE,
+                        Limit.of(ITEM_CARD_COMMENTS)));
+    }
+
+    /**
+     * comments — последние комментарии к вещи от новых к старым; число всех комментариев берётся из stats.
+     */
+    private ItemDto toItemDto(Item item, ItemBookingPointers pointers, ItemStats stats, List<CommentDto> comments) {
         ItemDto dto = new ItemDto();
         dto.setId(item.getId());
         dto.setName(item.getName());
         dto.setDescription(item.getDescription());
         dto.setAvailable(item.getAvailable());
 
-        if (requesterId != null && requesterId.equals(item.getOwnerId())) {
-            LocalDateTime now = LocalDateTime.now();
-
-            Booking last = bookingRepository.findLastBookingsByItemIdAndStatus(item.getId(), Status.APPROVED, now)
-                    .stream().findFirst().orElse(null);
-            Booking next = bookingRepository.findNextBookingsByItemIdAndStatus(item.getId(), Status.APPROVED, now)
-                    .stream().findFirst().orElse(null);
-
-            dto.setLastBooking(last != null ? toBookingShortDto(last) : null);
-            dto.setNextBooking(next != null ? toBookingShortDto(next) : null);
-        } else {
-            dto.setLastBooking(null);
-            dto.setNextBooking(null);
+        if (pointers != null) {
+            dto.setLastBooking(pointers.getLast() != null ? toBookingShortDto(pointers.getLast()) : null);
+            dto.setNextBooking(pointers.getNext() != null ? toBookingShortDto(pointers.getNext()) : null);
         }
-
-        dto.setComments(commentRepository.findCommentDtosByItemId(item.getId()));
+        dto.setCommentCount(stats.getCommentCount());
+        dto.setLastCommentAt(stats.getLastCommentAt());
+        dto.setBookingCount(stats.getBookingCount());
+        dto.setLastBookingEnd(stats.getLastBookingEnd());
+        dto.setComments(comments);
 
         return dto;
     }
 
-    private BookingShortDto toBookingShortDto(Booking booking) {
+    private BookingShortDto toBookingShortDto(BookingPointer pointer) {
         BookingShortDto dto = new BookingShortDto();
-        dto.setId(booking.getId());
-        dto.setStart(booking.getStart());
-        dto.setEnd(booking.getEnd());
-        dto.setBookerId(booking.getBookerId());
+        dto.setId(pointer.getBookingId());
+        dto.setStart(pointer.getStart());
+        dto.setEnd(pointer.getEnd());
+        dto.setBookerId(pointer.getBookerId());
         return dto;
     }
 
@@ -217,9 +378,32 @@ public class ItemServiceImpl implements ItemService {
         }
     }
 
-    private boolean hasUserBookedAndFinishedItem(Long userId, Long itemId, LocalDateTime now) {
-        return bookingRepository.existsByBookerIdAndItemIdAndStatusAndEndBefore(
-                userId, itemId, Status.APPROVED, now
-        );
+    /**
+     * Позиция первой вещи страницы: из токена страницы, если он передан, иначе из offset.
+     */
+    private int searchOffset(Integer offset, String pageToken, Integer size) {
+        if (size == null || size < 1 || size > MAX_SEARCH_PAGE_SIZE) {
+            throw new ValidationException("Page size must be between 1 and " + MAX_SEARCH_PAGE_SIZE);
+        }
+        if (pageToken != null && !pageToken.isBlank()) {
+            return ItemSearchCursor.decode(pageToken);
+        }
+        if (offset == null || offset < 0) {
+            throw new ValidationException("Offset must not be negative");
+        }
+        return offset;
+    }
+
+    private ItemPageDto toItemPage(List<Item> items, int offset, int size) {
+        if (items.size() <= size) {
+            return new ItemPageDto(toItemDtos(items), null);
+        }
+        return new ItemPageDto(toItemDtos(items.subList(0, size)), ItemSearchCursor.encode(offset + size));
+    }
+
+    private static List<ItemDto> toItemDtos(List<Item> items) {
+        return items.stream()
+                .map(ItemMapper::toItemDto)
+                .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.service;
+
+import ru.practicum.shareit.item.model.ItemStats;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+
+public interface ItemStatsService {
+    ItemStats get(Long itemId);
+
+    Map<Long, ItemStats> getAll(Collection<Long> itemIds);
+
+    void commentAdded(Long itemId, LocalDateTime created);
+
+    void bookingApproved(Long itemId, LocalDateTime end);
+
+    int rebuild();
+}
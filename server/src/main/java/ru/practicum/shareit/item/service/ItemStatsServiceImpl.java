@@ -0,0 +1,167 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.model.ItemStats;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.ItemStatsRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntSupplier;
+
+/**
+ * Ведёт таблицу item_stats, чтобы карточка вещи читала счётчики комментариев и бронирований
+ * одной строкой вместо агрегации по comments и bookings. Счётчики увеличиваются атомарным UPDATE
+ * в транзакциях добавления комментария и подтверждения бронирования; строка, которой ещё нет,
+ * считается целиком. Пересчёт с нуля идёт частями по диапазонам id вещей в несколько потоков.
+ */
+@Service
+@Slf4j
+public class ItemStatsServiceImpl implements ItemStatsService {
+
+    private final ItemStatsRepository statsRepository;
+    private final ItemRepository itemRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int threads;
+
+    public ItemStatsServiceImpl(ItemStatsRepository statsRepository,
+                                ItemRepository itemRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${shareit.items.stats.rebuild.chunk-size:1000}") int chunkSize,
+                                @Value("${shareit.items.stats.rebuild.threads:4}") int threads) {
+        this.statsRepository = statsRepository;
+        this.itemRepository = itemRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.threads = threads;
+    }
+
+    /**
+     * Счётчики вещи. Строки нет, только если у вещи ещё не было ни комментариев, ни подтверждённых
+     * бронирований, — тогда счётчики нулевые.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ItemStats get(Long itemId) {
+        return statsRepository.findById(itemId)
+                .orElseGet(() -> new ItemStats(itemId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, ItemStats> getAll(Collection<Long> itemIds) {
+        Map<Long, ItemStats> result = new HashMap<>();
+        if (itemIds.isEmpty()) {
+            return result;
+        }
+        statsRepository.findAllById(itemIds).forEach(stats -> result.put(stats.getItemId(), stats));
+        itemIds.forEach(itemId -> result.computeIfAbsent(itemId, ItemStats::new));
+        return result;
+    }
+
+    @Override
+    @Transactional
+    public void commentAdded(Long itemId, LocalDateTime created) {
+        increment(itemId, () -> statsRepository.incrementComments(itemId, created));
+    }
+
+    @Override
+    @Transactional
+    public void bookingApproved(Long itemId, LocalDateTime end) {
+        increment(itemId, () -> statsRepository.incrementBookings(itemId, end));
+    }
+
+    /**
+     * Пересчитывает все строки с нуля. Каждая часть — блокировка вещей диапазона, удаление и вставка
+     * посчитанных строк в одной транзакции, поэтому инкремент, пришедший во время пересчёта, либо
+     * попадёт в пересчитанную строку, либо будет применён к ней после коммита части.
+     */
+    @Override
+    @Scheduled(cron = "${shareit.items.stats.rebuild.cron:0 0 4 * * *}")
+    public int rebuild() {
+        Optional<Long> first = itemRepository.findMinId();
+        Optional<Long> last = itemRepository.findMaxId();
+        if (first.isEmpty() || last.isEmpty()) {
+            return 0;
+        }
+        long started = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Integer>> chunks = new ArrayList<>();
+        for (long fromId = first.get(); fromId <= last.get(); fromId += chunkSize) {
+            long from = fromId;
+            long to = Math.min(fromId + chunkSize - 1, last.get());
+            chunks.add(executor.submit(() -> transactionTemplate.execute(status -> rebuildChunk(from, to))));
+        }
+        executor.shutdown();
+
+        int total = 0;
+        int failed = 0;
+        try {
+            for (Future<Integer> chunk : chunks) {
+                try {
+                    total += chunk.get();
+                } catch (ExecutionException e) {
+                    failed++;
+                    log.warn("Не удалось пересчитать часть статистики вещей: {}", e.getCause().getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+            log.warn("Пересчёт статистики вещей прерван");
+        }
+        log.info("Статистика вещей пересчитана: {} вещей, частей {}, с ошибкой {}, за {} мс", total,
+                chunks.size(), failed, (System.nanoTime() - started) / 1_000_000);
+        return total;
+    }
+
+    /**
+     * Заполняет таблицу при первом запуске с уже существующими вещами.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        if (statsRepository.count() == 0 && itemRepository.findMinId().isPresent()) {
+            rebuild();
+        }
+    }
+
+    private int rebuildChunk(long fromId, long toId) {
+        itemRepository.lockIdsBetween(fromId, toId);
+        statsRepository.deleteByItemIdBetween(fromId, toId);
+        return statsRepository.insertComputedBetween(fromId, toId);
+    }
+
+    /**
+     * Если строки нет, она вставляется уже посчитанной, включая изменение текущей транзакции.
+     * Блокировка вещи не даёт двум транзакциям вставить строку одновременно: вторая после ожидания
+     * найдёт строку и увеличит счётчик.
+     */
+    private void increment(Long itemId, IntSupplier update) {
+        if (update.getAsInt() > 0) {
+            return;
+        }
+        itemRepository.findByIdForUpdate(itemId);
+        if (update.getAsInt() == 0) {
+            statsRepository.insertComputed(List.of(itemId));
+            log.debug("Статистика вещи id={} посчитана заново", itemId);
+        }
+    }
+}
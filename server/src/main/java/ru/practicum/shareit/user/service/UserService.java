@@ -11,6 +11,8 @@ public interface UserService {
 
     UserDto createUser(UserDto userDto);
 
+    List<UserDto> createUsers(List<UserDto> userDtos);
+
     UserDto updateUser(Long id, UserDto userDto);
 
     void deleteUser(Long id);
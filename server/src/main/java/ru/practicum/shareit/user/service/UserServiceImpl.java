@@ -1,7 +1,8 @@
 package ru.practicum.shareit.user.service;
 
-import lombok.RequiredArgsConstructor;
+import jakarta.persistence.EntityManager;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
@@ -12,15 +13,27 @@ import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final EntityManager entityManager;
+    private final int batchSize;
+
+    public UserServiceImpl(UserRepository userRepository,
+                           EntityManager entityManager,
+                           @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize) {
+        this.userRepository = userRepository;
+        this.entityManager = entityManager;
+        this.batchSize = batchSize;
+    }
 
     @Override
     @Transactional(readOnly = true)
@@ -58,6 +71,41 @@ public class UserServiceImpl implements UserService {
         return UserMapper.toUserDto(savedUser);
     }
 
+    @Override
+    @Transactional
+    public List<UserDto> createUsers(List<UserDto> userDtos) {
+        log.info("Пакетное создание пользователей: {} шт.", userDtos.size());
+        Set<String> emails = new HashSet<>();
+        for (UserDto userDto : userDtos) {
+            validateEmail(userDto.getEmail());
+            if (!emails.add(userDto.getEmail())) {
+                log.warn("Email '{}' повторяется в пакете", userDto.getEmail());
+                throw new EmailAlreadyExistsException(userDto.getEmail());
+            }
+        }
+        // Пачками по размеру JDBC-пакета: список IN не упирается в лимит параметров,
+        // а контекст персистентности не растёт вместе с размером импорта
+        List<UserDto> result = new ArrayList<>(userDtos.size());
+        for (int from = 0; from < userDtos.size(); from += batchSize) {
+            List<UserDto> chunk = userDtos.subList(from, Math.min(from + batchSize, userDtos.size()));
+            List<String> existing = userRepository.findExistingEmails(chunk.stream()
+                    .map(UserDto::getEmail)
+                    .collect(Collectors.toList()));
+            if (!existing.isEmpty()) {
+                log.warn("Email '{}' уже существует", existing.get(0));
+                throw new EmailAlreadyExistsException(existing.get(0));
+            }
+            userRepository.saveAll(chunk.stream()
+                    .map(UserMapper::toUser)
+                    .collect(Collectors.toList()))
+                    .forEach(user -> result.add(UserMapper.toUserDto(user)));
+            entityManager.flush();
+            entityManager.clear();
+        }
+        log.info("Создано пользователей: {}", result.size());
+        return result;
+    }
+
     @Override
     @Transactional
     public UserDto updateUser(Long id, UserDto userDto) {
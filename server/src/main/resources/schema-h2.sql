@@ -0,0 +1,22 @@
+-- Архив завершённых бронирований. На Postgres таблица секционирована по end_date (см. schema-postgresql.sql),
+-- здесь — обычная таблица с той же структурой
+CREATE TABLE IF NOT EXISTS bookings_archive (
+    id BIGINT PRIMARY KEY,
+    start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    item_id BIGINT NOT NULL REFERENCES items (id) ON DELETE CASCADE,
+    booker_id BIGINT NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    owner_id BIGINT NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    status VARCHAR(20) NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0
+);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_booker_end ON bookings_archive (booker_id, end_date, id);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_booker_status_end ON bookings_archive (booker_id, status, end_date, id);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_owner_end ON bookings_archive (owner_id, end_date, id);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_owner_status_end ON bookings_archive (owner_id, status, end_date, id);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_item_status_end ON bookings_archive (item_id, status, end_date);
@@ -0,0 +1,60 @@
+-- Перевод таблиц, созданных с IDENTITY, на последовательности с шагом 50 (pooled-оптимизатор Hibernate)
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE users ALTER COLUMN id SET DEFAULT nextval('users_seq');
+SELECT setval('users_seq', GREATEST((SELECT COALESCE(MAX(id), 1) FROM users), (SELECT last_value FROM users_seq)));
+
+ALTER TABLE items ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE items ALTER COLUMN id SET DEFAULT nextval('items_seq');
+SELECT setval('items_seq', GREATEST((SELECT COALESCE(MAX(id), 1) FROM items), (SELECT last_value FROM items_seq)));
+
+ALTER TABLE bookings ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE bookings ALTER COLUMN id SET DEFAULT nextval('bookings_seq');
+SELECT setval('bookings_seq', GREATEST((SELECT COALESCE(MAX(id), 1) FROM bookings), (SELECT last_value FROM bookings_seq)));
+
+ALTER TABLE comments ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE comments ALTER COLUMN id SET DEFAULT nextval('comments_seq');
+SELECT setval('comments_seq', GREATEST((SELECT COALESCE(MAX(id), 1) FROM comments), (SELECT last_value FROM comments_seq)));
+
+-- Архив завершённых бронирований, секционированный по месяцам end_date.
+-- Секции на месяцы создаёт BookingArchiveService перед переносом, DEFAULT-секция страхует от пропусков
+CREATE TABLE IF NOT EXISTS bookings_archive (
+    id BIGINT NOT NULL,
+    start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    item_id BIGINT NOT NULL REFERENCES items (id) ON DELETE CASCADE,
+    booker_id BIGINT NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    owner_id BIGINT NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    status VARCHAR(20) NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (id, end_date)
+) PARTITION BY RANGE (end_date);
+
+CREATE TABLE IF NOT EXISTS bookings_archive_default PARTITION OF bookings_archive DEFAULT;
+
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_booker_end ON bookings_archive (booker_id, end_date, id);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_booker_status_end ON bookings_archive (booker_id, status, end_date, id);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_owner_end ON bookings_archive (owner_id, end_date, id);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_owner_status_end ON bookings_archive (owner_id, status, end_date, id);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_item_status_end ON bookings_archive (item_id, status, end_date);
+
+-- Полнотекстовый поиск вещей: колонка вычисляется самим Postgres при каждой вставке и обновлении,
+-- совпадения в названии весят больше, чем в описании
+ALTER TABLE items ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('simple', coalesce(name, '')), 'A') ||
+    setweight(to_tsvector('simple', coalesce(description, '')), 'B')
+) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_items_search_vector ON items USING GIN (search_vector);
+
+-- Поиск по фрагментам слов и с опечатками: триграммный индекс pg_trgm по тексту вещи в нижнем регистре
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE items ADD COLUMN IF NOT EXISTS search_text TEXT GENERATED ALWAYS AS (
+    lower(coalesce(name, '') || ' ' || coalesce(description, ''))
+) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_items_search_text_trgm ON items USING GIN (search_text gin_trgm_ops);
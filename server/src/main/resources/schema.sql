@@ -1,5 +1,10 @@
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS users (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id BIGINT DEFAULT nextval('users_seq') PRIMARY KEY,
     name VARCHAR(255) NOT NULL,
     email VARCHAR(512) NOT NULL,
     CONSTRAINT UQ_USER_EMAIL UNIQUE (email)
@@ -13,7 +18,7 @@ CREATE TABLE IF NOT EXISTS item_requests (
 );
 
 CREATE TABLE IF NOT EXISTS items (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id BIGINT DEFAULT nextval('items_seq') PRIMARY KEY,
     name VARCHAR(255) NOT NULL,
     description TEXT NOT NULL,
     is_available BOOLEAN NOT NULL DEFAULT TRUE,
@@ -22,18 +27,70 @@ CREATE TABLE IF NOT EXISTS items (
 );
 
 CREATE TABLE IF NOT EXISTS bookings (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id BIGINT DEFAULT nextval('bookings_seq') PRIMARY KEY,
     start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
     end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
     item_id BIGINT NOT NULL REFERENCES items (id) ON DELETE CASCADE,
     booker_id BIGINT NOT NULL REFERENCES users (id) ON DELETE CASCADE,
-    status VARCHAR(20) NOT NULL
+    owner_id BIGINT NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    status VARCHAR(20) NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0
 );
 
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- owner_id дублирует items.owner_id: выборки бронирований владельца идут по индексу bookings без join с items
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS owner_id BIGINT REFERENCES users (id) ON DELETE CASCADE;
+UPDATE bookings SET owner_id = (SELECT i.owner_id FROM items i WHERE i.id = bookings.item_id) WHERE owner_id IS NULL;
+ALTER TABLE bookings ALTER COLUMN owner_id SET NOT NULL;
+
 CREATE TABLE IF NOT EXISTS comments (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id BIGINT DEFAULT nextval('comments_seq') PRIMARY KEY,
     text TEXT NOT NULL,
     item_id BIGINT NOT NULL REFERENCES items (id) ON DELETE CASCADE,
     author_id BIGINT NOT NULL REFERENCES users (id) ON DELETE CASCADE,
     created TIMESTAMP WITHOUT TIME ZONE NOT NULL
-);
\ No newline at end of file
+);
+
+CREATE TABLE IF NOT EXISTS item_booking_pointers (
+    item_id BIGINT PRIMARY KEY REFERENCES items (id) ON DELETE CASCADE,
+    last_booking_id BIGINT,
+    last_start TIMESTAMP WITHOUT TIME ZONE,
+    last_end TIMESTAMP WITHOUT TIME ZONE,
+    last_booker_id BIGINT,
+    next_booking_id BIGINT,
+    next_start TIMESTAMP WITHOUT TIME ZONE,
+    next_end TIMESTAMP WITHOUT TIME ZONE,
+    next_booker_id BIGINT,
+    valid_until TIMESTAMP WITHOUT TIME ZONE NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS item_stats (
+    item_id BIGINT PRIMARY KEY REFERENCES items (id) ON DELETE CASCADE,
+    comment_count BIGINT NOT NULL DEFAULT 0,
+    last_comment_at TIMESTAMP WITHOUT TIME ZONE,
+    booking_count BIGINT NOT NULL DEFAULT 0,
+    last_booking_end TIMESTAMP WITHOUT TIME ZONE
+);
+
+CREATE INDEX IF NOT EXISTS idx_item_booking_pointers_valid_until ON item_booking_pointers (valid_until);
+
+CREATE INDEX IF NOT EXISTS idx_items_owner_id ON items (owner_id);
+
+CREATE INDEX IF NOT EXISTS idx_comments_item_id ON comments (item_id, id);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_end ON bookings (booker_id, end_date, id);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_status_end ON bookings (booker_id, status, end_date, id);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_end ON bookings (owner_id, end_date, id);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_status_end ON bookings (owner_id, status, end_date, id);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_end ON bookings (end_date);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_status_start ON bookings (status, start_date);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_end ON bookings (item_id, status, end_date);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_start ON bookings (item_id, status, start_date);
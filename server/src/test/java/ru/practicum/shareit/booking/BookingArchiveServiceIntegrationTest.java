@@ -0,0 +1,213 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingPointersRepository;
+import ru.practicum.shareit.booking.service.BookingArchiveServiceImpl;
+import ru.practicum.shareit.booking.service.BookingPointersServiceImpl;
+import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.booking.service.ItemOccupancyIndex;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.ItemStatsRepository;
+import ru.practicum.shareit.item.service.ItemStatsServiceImpl;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class BookingArchiveServiceIntegrationTest {
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemBookingPointersRepository pointersRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemStatsRepository statsRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private BookingArchiveServiceImpl archiveService;
+    private BookingServiceImpl bookingService;
+
+    private User booker;
+    private User owner;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        archiveService = new BookingArchiveServiceImpl(bookingRepository, jdbcTemplate, transactionManager, 365, 2, "h2");
+        bookingService = new BookingServiceImpl(bookingRepository, userRepository, itemRepository,
+                new ItemOccupancyIndex(bookingRepository, 10_000, 300),
+                new BookingPointersServiceImpl(pointersRepository, bookingRepository, itemRepository,
+                        transactionManager, 500),
+                new ItemStatsServiceImpl(statsRepository, itemRepository, transactionManager, 1000, 1));
+
+        booker = new User();
+        booker.setName("Booker");
+        booker.setEmail("booker@example.com");
+        booker = userRepository.save(booker);
+
+        owner = new User();
+        owner.setName("Owner");
+        owner.setEmail("owner@example.com");
+        owner = userRepository.save(owner);
+
+        item = new Item();
+        item.setName("Drill");
+        item.setDescription("Cordless drill");
+        item.setAvailable(true);
+        item.setOwnerId(owner.getId());
+        item = itemRepository.save(item);
+    }
+
+    @Test
+    void archiveFinishedBookings_ShouldMoveOnlyBookingsOlderThanHorizon() {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 5; i++) {
+            createBooking(now.minusYears(3).plusDays(i), Status.APPROVED);
+        }
+        createBooking(now.minusDays(10), Status.APPROVED);
+
+        int moved = archiveService.archiveFinishedBookings();
+
+        assertEquals(5, moved);
+        assertEquals(1, countRows("bookings"));
+        assertEquals(5, countRows("bookings_archive"));
+    }
+
+    @Test
+    void historyQueries_ShouldSpanHotAndArchivedBookings() {
+        LocalDateTime now = LocalDateTime.now();
+        Booking archived = createBooking(now.minusYears(2), Status.APPROVED);
+        Booking recent = createBooking(now.minusDays(3), Status.APPROVED);
+        archiveService.archiveFinishedBookings();
+        entityManager.clear();
+
+        List<Long> past = bookingService.getUserBookings(booker.getId(), "PAST", null, 10).getBookings().stream()
+                .map(BookingDto::getId)
+                .toList();
+        List<Long> ownerAll = bookingService.getOwnerBookings(owner.getId(), "ALL", null, 10).getBookings().stream()
+                .map(BookingDto::getId)
+                .toList();
+
+        assertEquals(List.of(recent.getId(), archived.getId()), past);
+        assertEquals(List.of(recent.getId(), archived.getId()), ownerAll);
+    }
+
+    @Test
+    void archivedBooking_ShouldStayReadableByIdInExportAndInStatusLists() {
+        LocalDateTime now = LocalDateTime.now();
+        Booking archived = createBooking(now.minusYears(2), Status.REJECTED);
+        Booking recent = createBooking(now.minusDays(3), Status.REJECTED);
+        archiveService.archiveFinishedBookings();
+        entityManager.clear();
+
+        BookingDto byId = bookingService.getById(archived.getId(), booker.getId());
+        List<Long> userExport = new ArrayList<>();
+        bookingService.exportUserBookings(booker.getId(), dto -> userExport.add(dto.getId()));
+        List<Long> ownerExport = new ArrayList<>();
+        bookingService.exportOwnerBookings(owner.getId(), dto -> ownerExport.add(dto.getId()));
+        List<Long> userRejected = bookingService.getUserBookings(booker.getId(), "REJECTED", null, 10)
+                .getBookings().stream()
+                .map(BookingDto::getId)
+                .toList();
+        List<Long> ownerRejected = bookingService.getOwnerBookings(owner.getId(), "REJECTED", null, 10)
+                .getBookings().stream()
+                .map(BookingDto::getId)
+                .toList();
+
+        assertEquals(1, countRows("bookings_archive"));
+        assertEquals(Status.REJECTED, byId.getStatus());
+        assertEquals("Drill", byId.getItem().getName());
+        assertEquals("Booker", byId.getBooker().getName());
+        assertEquals(List.of(archived.getId(), recent.getId()), userExport);
+        assertEquals(List.of(archived.getId(), recent.getId()), ownerExport);
+        assertEquals(List.of(recent.getId(), archived.getId()), userRejected);
+        assertEquals(List.of(recent.getId(), archived.getId()), ownerRejected);
+    }
+
+    @Test
+    void summary_ShouldMatchListLengthForEveryState_WhenBookingsAreArchived() {
+        LocalDateTime now = LocalDateTime.now();
+        createBooking(now.minusYears(3), Status.REJECTED);
+        createBooking(now.minusYears(2), Status.WAITING);
+        createBooking(now.minusDays(3), Status.REJECTED);
+        createBooking(now.minusDays(2), Status.APPROVED);
+        createBooking(now.plusDays(5), Status.WAITING);
+        archiveService.archiveFinishedBookings();
+        entityManager.clear();
+
+        BookingSummaryDto userSummary = bookingService.getUserSummary(booker.getId());
+        BookingSummaryDto ownerSummary = bookingService.getOwnerSummary(owner.getId());
+
+        assertEquals(2, countRows("bookings_archive"));
+        for (BookingSummaryDto summary : List.of(userSummary, ownerSummary)) {
+            assertEquals(5, summary.getAll());
+            assertEquals(2, summary.getWaiting());
+            assertEquals(2, summary.getRejected());
+        }
+        Map<String, Function<BookingSummaryDto, Long>> counters = Map.of(
+                "ALL", BookingSummaryDto::getAll,
+                "CURRENT", BookingSummaryDto::getCurrent,
+                "PAST", BookingSummaryDto::getPast,
+                "FUTURE", BookingSummaryDto::getFuture,
+                "WAITING", BookingSummaryDto::getWaiting,
+                "REJECTED", BookingSummaryDto::getRejected);
+        counters.forEach((state, counter) -> {
+            assertEquals(counter.apply(userSummary),
+                    bookingService.getUserBookings(booker.getId(), state, null, 10).getBookings().size(), state);
+            assertEquals(counter.apply(ownerSummary),
+                    bookingService.getOwnerBookings(owner.getId(), state, null, 10).getBookings().size(), state);
+        });
+    }
+
+    private Booking createBooking(LocalDateTime end, Status status) {
+        Booking booking = new Booking();
+        booking.setStart(end.minusDays(1));
+        booking.setEnd(end);
+        booking.setItemId(item.getId());
+        booking.setBookerId(booker.getId());
+        booking.setOwnerId(owner.getId());
+        booking.setStatus(status);
+        booking = bookingRepository.save(booking);
+        entityManager.flush();
+        return booking;
+    }
+
+    private long countRows(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    }
+}
@@ -0,0 +1,139 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingPointersRepository;
+import ru.practicum.shareit.booking.service.BookingPointersServiceImpl;
+import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.booking.service.ItemOccupancyIndex;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.ItemStatsRepository;
+import ru.practicum.shareit.item.service.ItemStatsServiceImpl;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BookingConcurrencyIntegrationTest {
+
+    private static final int THREADS = 4;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemBookingPointersRepository pointersRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemStatsRepository statsRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private BookingServiceImpl bookingService;
+    private TransactionTemplate transactionTemplate;
+
+    private final List<User> bookers = new ArrayList<>();
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        bookingService = new BookingServiceImpl(bookingRepository, userRepository, itemRepository,
+                new ItemOccupancyIndex(bookingRepository, 10_000, 300),
+                new BookingPointersServiceImpl(pointersRepository, bookingRepository, itemRepository,
+                        transactionManager, 500),
+                new ItemStatsServiceImpl(statsRepository, itemRepository, transactionManager, 1000, 1));
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        User owner = new User();
+        owner.setName("Owner");
+        owner.setEmail("concurrent-owner@example.com");
+        owner = userRepository.save(owner);
+
+        for (int i = 0; i < THREADS; i++) {
+            User booker = new User();
+            booker.setName("Booker " + i);
+            booker.setEmail("concurrent-booker" + i + "@example.com");
+            bookers.add(userRepository.save(booker));
+        }
+
+        item = new Item();
+        item.setName("Contested Item");
+        item.setDescription("Everyone wants it");
+        item.setAvailable(true);
+        item.setOwnerId(owner.getId());
+        item = itemRepository.save(item);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void create_ShouldAcceptOnlyOneBooking_WhenOverlappingRequestsRace() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch startSignal = new CountDownLatch(1);
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (User booker : bookers) {
+                results.add(executor.submit(() -> {
+                    BookingCreateDto bookingDto = new BookingCreateDto();
+                    bookingDto.setStart(start);
+                    bookingDto.setEnd(start.plusDays(1));
+                    bookingDto.setItemId(item.getId());
+                    startSignal.await();
+                    try {
+                        transactionTemplate.execute(status -> bookingService.create(bookingDto, booker.getId()));
+                        return true;
+                    } catch (ValidationException e) {
+                        return false;
+                    }
+                }));
+            }
+            startSignal.countDown();
+
+            int accepted = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get()) {
+                    accepted++;
+                }
+            }
+
+            assertEquals(1, accepted);
+            assertEquals(1, bookingRepository.count());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingExpiryServiceImpl;
+import ru.practicum.shareit.booking.service.ItemOccupancyIndex;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class BookingExpiryServiceIntegrationTest {
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private BookingExpiryServiceImpl expiryService;
+
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        expiryService = new BookingExpiryServiceImpl(bookingRepository,
+                new ItemOccupancyIndex(bookingRepository, 10_000, 300), transactionManager, meterRegistry, 2);
+
+        booker = new User();
+        booker.setName("Booker");
+        booker.setEmail("booker@example.com");
+        booker = userRepository.save(booker);
+
+        User owner = new User();
+        owner.setName("Owner");
+        owner.setEmail("owner@example.com");
+        owner = userRepository.save(owner);
+
+        item = new Item();
+        item.setName("Drill");
+        item.setDescription("Cordless drill");
+        item.setAvailable(true);
+        item.setOwnerId(owner.getId());
+        item = itemRepository.save(item);
+    }
+
+    @Test
+    void expireStaleBookings_ShouldExpireOnlyWaitingBookingsThatAlreadyStarted() {
+        LocalDateTime now = LocalDateTime.now();
+        Booking stale1 = saveBooking(now.minusDays(3), Status.WAITING);
+        Booking stale2 = saveBooking(now.minusDays(2), Status.WAITING);
+        Booking stale3 = saveBooking(now.minusHours(1), Status.WAITING);
+        Booking approved = saveBooking(now.minusDays(2), Status.APPROVED);
+        Booking upcoming = saveBooking(now.plusDays(1), Status.WAITING);
+
+        int expired = expiryService.expireStaleBookings();
+
+        assertEquals(3, expired);
+        assertEquals(Status.EXPIRED, statusOf(stale1));
+        assertEquals(Status.EXPIRED, statusOf(stale2));
+        assertEquals(Status.EXPIRED, statusOf(stale3));
+        assertEquals(Status.APPROVED, statusOf(approved));
+        assertEquals(Status.WAITING, statusOf(upcoming));
+        assertEquals(3.0, meterRegistry.get("shareit.bookings.expired").counter().count());
+        assertTrue(meterRegistry.get("shareit.bookings.expiry.lag").gauge().value() >= 3 * 24 * 3600 - 60);
+    }
+
+    @Test
+    void expireStaleBookings_ShouldReportZeroLag_WhenNothingIsStale() {
+        saveBooking(LocalDateTime.now().plusDays(1), Status.WAITING);
+
+        assertEquals(0, expiryService.expireStaleBookings());
+        assertEquals(0.0, meterRegistry.get("shareit.bookings.expiry.lag").gauge().value());
+    }
+
+    private Booking saveBooking(LocalDateTime start, Status status) {
+        Booking booking = new Booking();
+        booking.setStart(start);
+        booking.setEnd(start.plusDays(2));
+        booking.setItemId(item.getId());
+        booking.setBookerId(booker.getId());
+        booking.setOwnerId(item.getOwnerId());
+        booking.setStatus(status);
+        booking = bookingRepository.save(booking);
+        entityManager.flush();
+        return booking;
+    }
+
+    private Status statusOf(Booking booking) {
+        return bookingRepository.findById(booking.getId()).orElseThrow().getStatus();
+    }
+}
@@ -0,0 +1,121 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.Random;
+
+/**
+ * Замер времени проверки пересечения бронирований для вещи со 100 000 бронированиями.
+ * Запуск: mvn test -pl server -Dtest=BookingOverlapBenchmarkTest -Dbenchmark=true
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class BookingOverlapBenchmarkTest {
+
+    private static final int BOOKINGS = 100_000;
+    private static final int WARMUP = 2_000;
+    private static final int MEASUREMENTS = 10_000;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAllInBatch();
+        itemRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void overlapCheck_Latency() {
+        User user = new User();
+        user.setName("Benchmark");
+        user.setEmail("benchmark@example.com");
+        user = userRepository.save(user);
+
+        Item item = new Item();
+        item.setName("Benchmark Item");
+        item.setDescription("Benchmark Item");
+        item.setAvailable(true);
+        item.setOwnerId(user.getId());
+        item = itemRepository.save(item);
+
+        LocalDateTime base = LocalDateTime.now().minusYears(20);
+        long ownerId = user.getId();
+        long itemId = item.getId();
+        // Непересекающиеся двухчасовые бронирования с шагом в три часа
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                entityManager.getEntityManager().createNativeQuery(
+                                "INSERT INTO bookings (start_date, end_date, item_id, booker_id, owner_id, status) " +
+                                "SELECT DATEADD('HOUR', x * 3, CAST(:base AS TIMESTAMP)), " +
+                                "DATEADD('HOUR', x * 3 + 2, CAST(:base AS TIMESTAMP)), " +
+                                ":itemId, :bookerId, :bookerId, CASE WHEN MOD(x, 2) = 0 THEN 'APPROVED' ELSE 'WAITING' END " +
+                                "FROM SYSTEM_RANGE(0, " + (BOOKINGS - 1) + ")")
+                        .setParameter("base", base)
+                        .setParameter("itemId", itemId)
+                        .setParameter("bookerId", ownerId)
+                        .executeUpdate());
+
+        Random random = new Random(42);
+        for (int i = 0; i < WARMUP; i++) {
+            check(itemId, base, random);
+        }
+
+        long[] nanos = new long[MEASUREMENTS];
+        for (int i = 0; i < MEASUREMENTS; i++) {
+            long started = System.nanoTime();
+            check(itemId, base, random);
+            nanos[i] = System.nanoTime() - started;
+        }
+        Arrays.sort(nanos);
+
+        System.out.printf("Проверка пересечения, %d бронирований одной вещи: p50=%d мкс, p99=%d мкс, max=%d мкс%n",
+                BOOKINGS, nanos[MEASUREMENTS / 2] / 1_000, nanos[MEASUREMENTS * 99 / 100] / 1_000,
+                nanos[MEASUREMENTS - 1] / 1_000);
+    }
+
+    private boolean check(long itemId, LocalDateTime base, Random random) {
+        LocalDateTime start = base.plusMinutes(random.nextInt(BOOKINGS * 3 * 60));
+        LocalDateTime end = start.plusMinutes(30 + random.nextInt(240));
+        for (Status status : new Status[]{Status.WAITING, Status.APPROVED}) {
+            Optional<Booking> following = bookingRepository
+                    .findFirstByItemIdAndStatusAndEndAfterOrderByEndAsc(itemId, status, start);
+            if (following.isPresent() && following.get().getStart().isBefore(end)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
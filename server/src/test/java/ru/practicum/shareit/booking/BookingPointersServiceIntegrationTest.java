@@ -0,0 +1,191 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.ItemBookingPointers;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingPointersRepository;
+import ru.practicum.shareit.booking.service.BookingPointersServiceImpl;
+import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.booking.service.ItemOccupancyIndex;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.ItemStatsRepository;
+import ru.practicum.shareit.item.service.ItemStatsServiceImpl;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class BookingPointersServiceIntegrationTest {
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemBookingPointersRepository pointersRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemStatsRepository statsRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private BookingPointersServiceImpl pointersService;
+    private BookingServiceImpl bookingService;
+
+    private User booker;
+    private User owner;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        pointersService = new BookingPointersServiceImpl(pointersRepository, bookingRepository, itemRepository,
+                transactionManager, 2);
+        bookingService = new BookingServiceImpl(bookingRepository, userRepository, itemRepository,
+                new ItemOccupancyIndex(bookingRepository, 10_000, 300), pointersService,
+                new ItemStatsServiceImpl(statsRepository, itemRepository, transactionManager, 1000, 1));
+
+        booker = new User();
+        booker.setName("Booker");
+        booker.setEmail("booker@example.com");
+        booker = userRepository.save(booker);
+
+        owner = new User();
+        owner.setName("Owner");
+        owner.setEmail("owner@example.com");
+        owner = userRepository.save(owner);
+
+        item = new Item();
+        item.setName("Drill");
+        item.setDescription("Cordless drill");
+        item.setAvailable(true);
+        item.setOwnerId(owner.getId());
+        item = itemRepository.save(item);
+    }
+
+    @Test
+    void approve_ShouldStorePointersValidUntilNextBookingStarts() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Booking past = saveBooking(now.minusDays(5), now.minusDays(4), Status.APPROVED);
+        Booking next = saveBooking(now.plusDays(1), now.plusDays(2), Status.WAITING);
+        saveBooking(now.plusDays(3), now.plusDays(4), Status.APPROVED);
+
+        bookingService.approve(next.getId(), owner.getId(), true);
+        entityManager.flush();
+        entityManager.clear();
+
+        ItemBookingPointers pointers = pointersRepository.findById(item.getId()).orElseThrow();
+        assertEquals(past.getId(), pointers.getLast().getBookingId());
+        assertEquals(next.getId(), pointers.getNext().getBookingId());
+        assertEquals(booker.getId(), pointers.getNext().getBookerId());
+        assertEquals(next.getStart(), pointers.getValidUntil());
+    }
+
+    @Test
+    void approve_ShouldNotCreatePointers_WhenBookingRejected() {
+        LocalDateTime now = LocalDateTime.now();
+        Booking booking = saveBooking(now.plusDays(1), now.plusDays(2), Status.WAITING);
+
+        bookingService.approve(booking.getId(), owner.getId(), false);
+
+        assertTrue(pointersRepository.findById(item.getId()).isEmpty());
+    }
+
+    @Test
+    void get_ShouldComputePointersWithoutSaving_WhenRowMissing() {
+        LocalDateTime now = LocalDateTime.now();
+        Booking next = saveBooking(now.plusDays(1), now.plusDays(2), Status.APPROVED);
+
+        ItemBookingPointers pointers = pointersService.get(item.getId(), now);
+
+        assertNull(pointers.getLast());
+        assertEquals(next.getId(), pointers.getNext().getBookingId());
+        assertTrue(pointersRepository.findById(item.getId()).isEmpty());
+    }
+
+    @Test
+    void get_ShouldRecompute_WhenStoredPointersExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        Booking current = saveBooking(now.minusDays(2), now.minusHours(1), Status.APPROVED);
+        ItemBookingPointers stale = new ItemBookingPointers(item.getId());
+        stale.setValidUntil(now.minusHours(1));
+        pointersRepository.save(stale);
+
+        ItemBookingPointers pointers = pointersService.get(item.getId(), now);
+
+        assertEquals(current.getId(), pointers.getLast().getBookingId());
+        assertNull(pointers.getNext());
+    }
+
+    @Test
+    void rollover_ShouldRefreshOnlyStaleRowsInBatches() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Booking finished = saveBooking(now.minusDays(2), now.minusHours(1), Status.APPROVED);
+        Item other1 = saveItem("Saw");
+        Item other2 = saveItem("Hammer");
+        Item fresh = saveItem("Ladder");
+        savePointers(item, now.minusHours(1));
+        savePointers(other1, now.minusMinutes(30));
+        savePointers(other2, now.minusMinutes(10));
+        savePointers(fresh, now.plusDays(1));
+        entityManager.flush();
+
+        int refreshed = pointersService.rollover();
+        entityManager.clear();
+
+        assertEquals(3, refreshed);
+        ItemBookingPointers pointers = pointersRepository.findById(item.getId()).orElseThrow();
+        assertEquals(finished.getId(), pointers.getLast().getBookingId());
+        assertTrue(pointers.getValidUntil().isAfter(now));
+        assertTrue(pointersRepository.findById(other1.getId()).orElseThrow().getValidUntil().isAfter(now));
+        assertEquals(now.plusDays(1), pointersRepository.findById(fresh.getId()).orElseThrow().getValidUntil());
+    }
+
+    private Item saveItem(String name) {
+        Item other = new Item();
+        other.setName(name);
+        other.setDescription(name);
+        other.setAvailable(true);
+        other.setOwnerId(owner.getId());
+        return itemRepository.save(other);
+    }
+
+    private void savePointers(Item target, LocalDateTime validUntil) {
+        ItemBookingPointers pointers = new ItemBookingPointers(target.getId());
+        pointers.setValidUntil(validUntil);
+        pointersRepository.save(pointers);
+    }
+
+    private Booking saveBooking(LocalDateTime start, LocalDateTime end, Status status) {
+        Booking booking = new Booking();
+        booking.setStart(start);
+        booking.setEnd(end);
+        booking.setItemId(item.getId());
+        booking.setBookerId(booker.getId());
+        booking.setOwnerId(item.getOwnerId());
+        booking.setStatus(status);
+        booking = bookingRepository.save(booking);
+        entityManager.flush();
+        return booking;
+    }
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверяет запросы BookingRepository на настоящем Postgres: при запрещённом seq scan
+ * планировщик обязан найти подходящий индекс, иначе счётчик последовательных сканирований вырастет.
+ * Запускается только при наличии Docker.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class BookingRepositoryPostgresQueryPlanTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15");
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.sql.init.platform", () -> "postgresql");
+    }
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void disableSequentialScans() {
+        entityManager.getEntityManager()
+                .createNativeQuery("SET LOCAL enable_seqscan = off")
+                .executeUpdate();
+    }
+
+    @ParameterizedTest
+    @MethodSource("ru.practicum.shareit.booking.BookingRepositoryQueries#all")
+    void query_ShouldNotScanWholeTable(Consumer<BookingRepository> query) {
+        long before = sequentialScans();
+        query.accept(bookingRepository);
+
+        assertEquals(before, sequentialScans());
+    }
+
+    private long sequentialScans() {
+        Number scans = (Number) entityManager.getEntityManager()
+                .createNativeQuery("SELECT COALESCE(SUM(seq_scan), 0) FROM pg_stat_xact_user_tables " +
+                        "WHERE relname IN ('bookings', 'items')")
+                .getSingleResult();
+        return scans.longValue();
+    }
+}
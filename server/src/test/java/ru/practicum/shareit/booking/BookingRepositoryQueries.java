@@ -0,0 +1,101 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Named;
+import org.springframework.data.domain.Limit;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Все запросы BookingRepository, план которых проверяется на отсутствие полного сканирования таблиц.
+ * При добавлении нового запроса в репозиторий его нужно добавить и сюда.
+ */
+final class BookingRepositoryQueries {
+
+    private static final LocalDateTime NOW = LocalDateTime.now();
+    private static final LocalDateTime CURSOR_END = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    private static final Long CURSOR_ID = Long.MAX_VALUE;
+    private static final Limit LIMIT = Limit.of(21);
+
+    private BookingRepositoryQueries() {
+    }
+
+    static Stream<Named<Consumer<BookingRepository>>> all() {
+        return Stream.of(
+                query("findDetailsById",
+                        r -> r.findDetailsById(1L)),
+                query("findArchivedById",
+                        r -> r.findArchivedById(1L)),
+                query("updateStatusIfOwnedAndInStatus",
+                        r -> r.updateStatusIfOwnedAndInStatus(1L, 1L, Status.WAITING, Status.APPROVED)),
+                query("findLastBookingsByItemIdAndStatus",
+                        r -> r.findLastBookingsByItemIdAndStatus(1L, Status.APPROVED, NOW, Limit.of(1))),
+                query("findNextBookingsByItemIdAndStatus",
+                        r -> r.findNextBookingsByItemIdAndStatus(1L, Status.APPROVED, NOW, Limit.of(1))),
+                query("findLastAndNextByItemIdsAndStatus",
+                        r -> r.findLastAndNextByItemIdsAndStatus(List.of(1L, 2L), Status.APPROVED, NOW)),
+                query("findFirstByItemIdAndStatusAndEndAfterOrderByEndAsc",
+                        r -> r.findFirstByItemIdAndStatusAndEndAfterOrderByEndAsc(1L, Status.WAITING, NOW)),
+                query("streamExportRowsByBookerId",
+                        r -> drain(r.streamExportRowsByBookerId(1L))),
+                query("streamExportRowsByOwnerId",
+                        r -> drain(r.streamExportRowsByOwnerId(1L))),
+                query("countStatesByBookerId",
+                        r -> r.countStatesByBookerId(1L, NOW)),
+                query("countStatesByOwnerId",
+                        r -> r.countStatesByOwnerId(1L, NOW)),
+                query("findByStatusAndStartBeforeOrderByStartAsc",
+                        r -> r.findByStatusAndStartBeforeOrderByStartAsc(Status.WAITING, NOW, LIMIT)),
+                query("findMinStartByStatusAndStartBefore",
+                        r -> r.findMinStartByStatusAndStartBefore(Status.WAITING, NOW)),
+                query("updateStatusIfInStatus",
+                        r -> r.updateStatusIfInStatus(List.of(1L, 2L), Status.WAITING, Status.EXPIRED)),
+                query("findIdsEndedBefore",
+                        r -> r.findIdsEndedBefore(NOW, LIMIT)),
+                query("copyToArchive",
+                        r -> r.copyToArchive(List.of(1L, 2L))),
+                query("findMinEnd",
+                        BookingRepository::findMinEnd),
+                query("findByItemIdsAndStatusesIntersecting",
+                        r -> r.findByItemIdsAndStatusesIntersecting(
+                                List.of(1L, 2L), List.of(Status.WAITING, Status.APPROVED), NOW, NOW.plusDays(1))),
+                query("findByBookerIdAndIdLessThanOrderByIdDesc",
+                        r -> r.findByBookerIdAndIdLessThanOrderByIdDesc(1L, CURSOR_ID, LIMIT)),
+                query("findByBookerIdAndStatus",
+                        r -> r.findByBookerIdAndStatus(1L, Status.WAITING, CURSOR_END, CURSOR_ID, LIMIT)),
+                query("findCurrentBookingsByBooker",
+                        r -> r.findCurrentBookingsByBooker(1L, NOW, CURSOR_END, CURSOR_ID, LIMIT)),
+                query("findPastBookingsByBooker",
+                        r -> r.findPastBookingsByBooker(1L, NOW, CURSOR_END, CURSOR_ID, LIMIT)),
+                query("findFutureBookingsByBooker",
+                        r -> r.findFutureBookingsByBooker(1L, NOW, CURSOR_END, CURSOR_ID, LIMIT)),
+                query("findByItemOwnerIdOrderByIdDesc",
+                        r -> r.findByItemOwnerIdOrderByIdDesc(1L, CURSOR_END, CURSOR_ID, LIMIT)),
+                query("findByItemOwnerIdAndStatus",
+                        r -> r.findByItemOwnerIdAndStatus(1L, Status.WAITING, CURSOR_END, CURSOR_ID, LIMIT)),
+                query("findCurrentBookingsByOwner",
+                        r -> r.findCurrentBookingsByOwner(1L, NOW, CURSOR_END, CURSOR_ID, LIMIT)),
+                query("findPastBookingsByOwner",
+                        r -> r.findPastBookingsByOwner(1L, NOW, CURSOR_END, CURSOR_ID, LIMIT)),
+                query("findFutureBookingsByOwner",
+                        r -> r.findFutureBookingsByOwner(1L, NOW, CURSOR_END, CURSOR_ID, LIMIT))
+        );
+    }
+
+    private static Named<Consumer<BookingRepository>> query(String name, Consumer<BookingRepository> call) {
+        return Named.of(name, call);
+    }
+
+    /**
+     * Потоковые запросы выполняются лениво, поэтому поток нужно прочитать, чтобы SQL реально ушёл в базу.
+     */
+    private static void drain(Stream<?> stream) {
+        try (stream) {
+            stream.forEach(row -> { });
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.booking;
+
+import org.hibernate.Session;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ru.practicum.shareit.booking.CapturingStatementInspector")
+class BookingRepositoryQueryPlanTest {
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @ParameterizedTest
+    @MethodSource("ru.practicum.shareit.booking.BookingRepositoryQueries#all")
+    void query_ShouldNotScanWholeTable(Consumer<BookingRepository> query) {
+        CapturingStatementInspector.clear();
+        query.accept(bookingRepository);
+
+        List<String> statements = CapturingStatementInspector.statements();
+        assertFalse(statements.isEmpty());
+
+        for (String sql : statements) {
+            String plan = explain(sql);
+            assertFalse(plan.toLowerCase(Locale.ROOT).contains("tablescan"),
+                    () -> "Полное сканирование таблицы в плане запроса:\n" + plan);
+        }
+    }
+
+    private String explain(String sql) {
+        return entityManager.getEntityManager().unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql);
+                 ResultSet resultSet = statement.executeQuery()) {
+                StringBuilder plan = new StringBuilder();
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString(1)).append('\n');
+                }
+                return plan.toString();
+            }
+        });
+    }
+}
@@ -7,18 +7,28 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.NotFoundException;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -57,6 +67,79 @@ class BookingServerControllerTest {
                 .andExpect(jsonPath("$.id").value(1L));
     }
 
+    @Test
+    void createAll_ShouldReturnResultPerEntry() throws Exception {
+        BookingCreateDto inputDto = new BookingCreateDto();
+        inputDto.setStart(LocalDateTime.now().plusHours(1));
+        inputDto.setEnd(LocalDateTime.now().plusHours(2));
+        inputDto.setItemId(1L);
+
+        BookingDto created = new BookingDto();
+        created.setId(1L);
+
+        when(bookingService.createAll(anyList(), eq(1L))).thenReturn(List.of(
+                new BookingBatchResultDto(0, created, null),
+                new BookingBatchResultDto(1, null, "Item is already booked for the requested period")));
+
+        mockMvc.perform(post("/server/bookings/batch")
+                        .header("X-Sharer-User-Id", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(inputDto, inputDto))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].booking.id").value(1L))
+                .andExpect(jsonPath("$[1].index").value(1))
+                .andExpect(jsonPath("$[1].error").value("Item is already booked for the requested period"));
+    }
+
+    @Test
+    void getOwnerSummary_ShouldReturnCounts() throws Exception {
+        when(bookingService.getOwnerSummary(1L)).thenReturn(new BookingSummaryDto(6, 1, 2, 3, 1, 0));
+
+        mockMvc.perform(get("/server/bookings/owner/summary")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.all").value(6))
+                .andExpect(jsonPath("$.future").value(3))
+                .andExpect(jsonPath("$.rejected").value(0));
+    }
+
+    @Test
+    void exportUserBookings_ShouldWriteOneJsonObjectPerLine() throws Exception {
+        BookingDto first = new BookingDto();
+        first.setId(1L);
+        BookingDto second = new BookingDto();
+        second.setId(2L);
+
+        doAnswer(invocation -> {
+            Consumer<BookingDto> sink = invocation.getArgument(1);
+            sink.accept(first);
+            sink.accept(second);
+            return null;
+        }).when(bookingService).exportUserBookings(eq(1L), any());
+
+        String body = mockMvc.perform(get("/server/bookings/export")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(1L, objectMapper.readValue(lines[0], BookingDto.class).getId());
+        assertEquals(2L, objectMapper.readValue(lines[1], BookingDto.class).getId());
+    }
+
+    @Test
+    void exportOwnerBookings_ShouldReturnNotFound_WhenUserDoesNotExist() throws Exception {
+        doThrow(new NotFoundException("User not found"))
+                .when(bookingService).exportOwnerBookings(eq(99L), any());
+
+        mockMvc.perform(get("/server/bookings/owner/export")
+                        .header("X-Sharer-User-Id", 99L))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value("User not found"));
+    }
+
     @Test
     void approve_ShouldReturnApprovedBookingDto() throws Exception {
         Long bookingId = 1L;
@@ -105,11 +188,13 @@ class BookingServerControllerTest {
 
         List<BookingDto> expectedList = Arrays.asList(booking1, booking2);
 
-        when(bookingService.getUserBookings(anyLong(), eq("ALL"))).thenReturn(expectedList);
+        when(bookingService.getUserBookings(anyLong(), eq("ALL"), isNull(), eq(20)))
+                .thenReturn(new BookingPageDto(expectedList, "next"));
 
         mockMvc.perform(get("/server/bookings")
                         .header("X-Sharer-User-Id", 1L))
                 .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Page-Token", "next"))
                 .andExpect(jsonPath("$[0].id").value(1L))
                 .andExpect(jsonPath("$[1].id").value(2L));
     }
@@ -126,11 +211,13 @@ class BookingServerControllerTest {
 
         List<BookingDto> expectedList = Arrays.asList(booking1, booking2);
 
-        when(bookingService.getOwnerBookings(anyLong(), eq("ALL"))).thenReturn(expectedList);
+        when(bookingService.getOwnerBookings(anyLong(), eq("ALL"), isNull(), eq(20)))
+                .thenReturn(new BookingPageDto(expectedList, null));
 
         mockMvc.perform(get("/server/bookings/owner")
                         .header("X-Sharer-User-Id", 1L))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Page-Token"))
                 .andExpect(jsonPath("$[0].id").value(1L))
                 .andExpect(jsonPath("$[1].id").value(2L));
     }
@@ -1,37 +1,73 @@
 package ru.practicum.shareit.booking;
 
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingPointersRepository;
+import ru.practicum.shareit.booking.service.BookingPointersServiceImpl;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.booking.service.ItemOccupancyIndex;
+import ru.practicum.shareit.exception.AccessDeniedException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemStats;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.ItemStatsRepository;
+import ru.practicum.shareit.item.service.ItemStatsServiceImpl;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 class BookingServiceIntegrationTest {
 
     @Autowired
     private BookingRepository bookingRepository;
 
+    @Autowired
+    private ItemBookingPointersRepository pointersRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
     private ItemRepository itemRepository;
 
+    @Autowired
+    private ItemStatsRepository statsRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     private BookingServiceImpl bookingService;
 
     private User booker;
@@ -40,7 +76,11 @@ class BookingServiceIntegrationTest {
 
     @BeforeEach
     void setUp() {
-        bookingService = new BookingServiceImpl(bookingRepository, userRepository, itemRepository);
+        bookingService = new BookingServiceImpl(bookingRepository, userRepository, itemRepository,
+                new ItemOccupancyIndex(bookingRepository, 10_000, 300),
+                new BookingPointersServiceImpl(pointersRepository, bookingRepository, itemRepository,
+                        transactionManager, 500),
+                new ItemStatsServiceImpl(statsRepository, itemRepository, transactionManager, 1000, 1));
 
         // Создаем тестовых пользователей
         booker = new User();
@@ -75,7 +115,21 @@ class BookingServiceIntegrationTest {
         assertEquals(Status.WAITING, result.getStatus());
 
         // Проверяем, что бронирование действительно сохранилось в базе
-        assertEquals(1, bookingRepository.findByBookerIdOrderByIdDesc(booker.getId()).size());
+        assertEquals(1, bookingRepository.findByBookerIdAndIdLessThanOrderByIdDesc(
+                booker.getId(), Long.MAX_VALUE, Limit.unlimited()).size());
+    }
+
+    @Test
+    void create_ShouldStoreItemOwnerOnBooking() {
+        BookingCreateDto bookingDto = new BookingCreateDto();
+        bookingDto.setStart(LocalDateTime.now().plusHours(1));
+        bookingDto.setEnd(LocalDateTime.now().plusHours(2));
+        bookingDto.setItemId(item.getId());
+
+        BookingDto result = bookingService.create(bookingDto, booker.getId());
+
+        assertEquals(owner.getId(), bookingRepository.findById(result.getId()).orElseThrow().getOwnerId());
+        assertEquals(1, bookingService.getOwnerBookings(owner.getId(), "WAITING", null, 10).getBookings().size());
     }
 
     @Test
@@ -97,7 +151,7 @@ class BookingServiceIntegrationTest {
 
         BookingDto createdBooking = bookingService.create(bookingDto, booker.getId());
 
-        List<BookingDto> result = bookingService.getUserBookings(booker.getId(), "ALL");
+        List<BookingDto> result = bookingService.getUserBookings(booker.getId(), "ALL", null, 20).getBookings();
 
         assertEquals(1, result.size());
         assertEquals(createdBooking.getId(), result.get(0).getId());
@@ -121,4 +175,333 @@ class BookingServiceIntegrationTest {
         assertNotNull(updatedBooking);
         assertEquals(Status.APPROVED, updatedBooking.getStatus());
     }
-}
\ No newline at end of file
+
+    @Test
+    void approve_ShouldRunOneUpdateAndOneSelect_WhenRejected() {
+        createBookings(1);
+        Booking booking = bookingRepository.findAll().get(0);
+        entityManager.clear();
+
+        long count = countStatements(() -> bookingService.approve(booking.getId(), owner.getId(), false));
+
+        assertEquals(2, count);
+        Booking updated = bookingRepository.findById(booking.getId()).orElseThrow();
+        assertEquals(Status.REJECTED, updated.getStatus());
+        assertEquals(booking.getVersion() + 1, updated.getVersion());
+    }
+
+    @Test
+    void approve_ShouldAddOnlyPointerRefreshStatements_WhenApproved() {
+        createBookings(1);
+        Booking booking = bookingRepository.findAll().get(0);
+        statsRepository.saveAndFlush(new ItemStats(booking.getItemId()));
+        entityManager.clear();
+
+        long count = countStatements(() -> bookingService.approve(booking.getId(), owner.getId(), true));
+
+        // UPDATE и SELECT подтверждения, блокировка вещи и строки указателей, три запроса пересчёта и INSERT,
+        // UPDATE счётчиков вещи
+        assertEquals(9, count);
+        Booking updated = bookingRepository.findById(booking.getId()).orElseThrow();
+        assertEquals(Status.APPROVED, updated.getStatus());
+        assertEquals(booking.getVersion() + 1, updated.getVersion());
+    }
+
+    @Test
+    void approve_ShouldRejectSecondDecision_WhenBookingIsAlreadyApproved() {
+        createBookings(1);
+        Long bookingId = bookingRepository.findAll().get(0).getId();
+        entityManager.clear();
+
+        bookingService.approve(bookingId, owner.getId(), true);
+
+        assertThrows(ValidationException.class, () -> bookingService.approve(bookingId, owner.getId(), false));
+        assertEquals(Status.APPROVED, bookingRepository.findById(bookingId).orElseThrow().getStatus());
+    }
+
+    @Test
+    void approve_ShouldThrowAccessDenied_WhenUserIsNotOwner() {
+        createBookings(1);
+        Long bookingId = bookingRepository.findAll().get(0).getId();
+        entityManager.clear();
+
+        assertThrows(AccessDeniedException.class, () -> bookingService.approve(bookingId, booker.getId(), true));
+        assertEquals(Status.WAITING, bookingRepository.findById(bookingId).orElseThrow().getStatus());
+    }
+
+    @Test
+    void approve_ShouldThrowNotFound_WhenBookingDoesNotExist() {
+        assertThrows(NotFoundException.class, () -> bookingService.approve(999L, owner.getId(), true));
+    }
+
+    @Test
+    void create_ShouldRejectBooking_WhenPeriodOverlapsWaitingBooking() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        BookingCreateDto first = new BookingCreateDto();
+        first.setStart(start);
+        first.setEnd(start.plusDays(2));
+        first.setItemId(item.getId());
+        bookingService.create(first, booker.getId());
+
+        BookingCreateDto overlapping = new BookingCreateDto();
+        overlapping.setStart(start.plusDays(1));
+        overlapping.setEnd(start.plusDays(3));
+        overlapping.setItemId(item.getId());
+
+        BookingCreateDto adjacent = new BookingCreateDto();
+        adjacent.setStart(start.plusDays(2));
+        adjacent.setEnd(start.plusDays(3));
+        adjacent.setItemId(item.getId());
+
+        assertThrows(ValidationException.class, () -> bookingService.create(overlapping, booker.getId()));
+        assertNotNull(bookingService.create(adjacent, booker.getId()).getId());
+    }
+
+    @Test
+    void create_ShouldAllowBooking_WhenOverlappingBookingWasRejected() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        BookingCreateDto first = new BookingCreateDto();
+        first.setStart(start);
+        first.setEnd(start.plusDays(2));
+        first.setItemId(item.getId());
+        BookingDto rejected = bookingService.create(first, booker.getId());
+        bookingService.approve(rejected.getId(), owner.getId(), false);
+
+        BookingDto result = bookingService.create(first, booker.getId());
+
+        assertEquals(Status.WAITING, result.getStatus());
+    }
+
+    @Test
+    void createAll_ShouldReportResultPerEntry() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        Booking existing = new Booking();
+        existing.setStart(start);
+        existing.setEnd(start.plusDays(1));
+        existing.setItemId(item.getId());
+        existing.setBookerId(booker.getId());
+        existing.setOwnerId(owner.getId());
+        existing.setStatus(Status.APPROVED);
+        bookingRepository.save(existing);
+
+        List<BookingCreateDto> batch = List.of(
+                bookingCreateDto(item.getId(), start.plusDays(1), start.plusDays(2)),
+                bookingCreateDto(item.getId(), start.plusHours(12), start.plusDays(1).plusHours(12)),
+                bookingCreateDto(item.getId(), start.plusDays(1).plusHours(12), start.plusDays(3)),
+                bookingCreateDto(999L, start, start.plusDays(1)),
+                bookingCreateDto(item.getId(), start.minusDays(3), start.minusDays(2)),
+                bookingCreateDto(item.getId(), start.plusDays(2), start.plusDays(3)));
+
+        List<BookingBatchResultDto> results = bookingService.createAll(batch, booker.getId());
+
+        assertEquals(6, results.size());
+        assertNotNull(results.get(0).getBooking());
+        assertEquals("Item is already booked for the requested period", results.get(1).getError());
+        assertEquals("Item is already booked for the requested period", results.get(2).getError());
+        assertEquals("Item not found", results.get(3).getError());
+        assertEquals("Start date must be in the future", results.get(4).getError());
+        assertNotNull(results.get(5).getBooking());
+        assertEquals(Status.WAITING, results.get(5).getBooking().getStatus());
+        assertEquals(3, bookingRepository.count());
+    }
+
+    @Test
+    void createAll_ShouldRejectEntry_WhenItemIdIsMissing() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<BookingCreateDto> batch = List.of(
+                bookingCreateDto(null, start, start.plusDays(1)),
+                bookingCreateDto(null, start.plusDays(2), start.plusDays(3)));
+
+        List<BookingBatchResultDto> results = bookingService.createAll(batch, booker.getId());
+
+        assertEquals(2, results.size());
+        assertEquals("Item not found", results.get(0).getError());
+        assertEquals("Item not found", results.get(1).getError());
+        assertEquals(0, bookingRepository.count());
+    }
+
+    @Test
+    void createAll_ShouldRunConstantNumberOfQueries_WhenBatchIsLarge() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<BookingCreateDto> small = new ArrayList<>();
+        List<BookingCreateDto> large = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            BookingCreateDto dto = bookingCreateDto(item.getId(), start.plusDays(i), start.plusDays(i).plusHours(1));
+            (i < 10 ? small : large).add(dto);
+        }
+
+        long smallCount = countStatements(() -> {
+            bookingService.createAll(small, booker.getId());
+            entityManager.flush();
+        });
+        long largeCount = countStatements(() -> {
+            bookingService.createAll(large, booker.getId());
+            entityManager.flush();
+        });
+
+        assertEquals(120, countBookings(booker.getId()));
+        assertTrue(largeCount <= smallCount + 4, "small=" + smallCount + ", large=" + largeCount);
+    }
+
+    @Test
+    void getUserSummary_ShouldCountEveryStateInOneQuery() {
+        LocalDateTime now = LocalDateTime.now();
+        saveBooking(now.minusDays(3), now.minusDays(2), Status.APPROVED);
+        saveBooking(now.minusDays(1), now.plusDays(1), Status.APPROVED);
+        saveBooking(now.plusDays(1), now.plusDays(2), Status.WAITING);
+        saveBooking(now.plusDays(3), now.plusDays(4), Status.REJECTED);
+        entityManager.flush();
+
+        BookingSummaryDto[] summary = new BookingSummaryDto[1];
+        long statements = countStatements(() -> summary[0] = bookingService.getUserSummary(booker.getId()));
+
+        assertEquals(2, statements);
+        assertEquals(new BookingSummaryDto(4, 1, 1, 2, 1, 1), summary[0]);
+        assertEquals(summary[0], bookingService.getOwnerSummary(owner.getId()));
+        assertEquals(new BookingSummaryDto(), bookingService.getOwnerSummary(booker.getId()));
+    }
+
+    @Test
+    void exportUserBookings_ShouldStreamAllBookingsInIdOrder() {
+        createBookings(25);
+
+        List<BookingDto> exported = new ArrayList<>();
+        bookingService.exportUserBookings(booker.getId(), exported::add);
+
+        assertEquals(25, exported.size());
+        assertEquals("Booker", exported.get(0).getBooker().getName());
+        assertNotNull(exported.get(0).getItem().getName());
+        for (int i = 1; i < exported.size(); i++) {
+            assertTrue(exported.get(i - 1).getId() < exported.get(i).getId());
+        }
+    }
+
+    @Test
+    void exportOwnerBookings_ShouldStreamBookingsOfOwnedItemsOnly() {
+        createBookings(5);
+
+        List<BookingDto> ownerExport = new ArrayList<>();
+        bookingService.exportOwnerBookings(owner.getId(), ownerExport::add);
+        List<BookingDto> bookerAsOwnerExport = new ArrayList<>();
+        bookingService.exportOwnerBookings(booker.getId(), bookerAsOwnerExport::add);
+
+        assertEquals(5, ownerExport.size());
+        assertTrue(bookerAsOwnerExport.isEmpty());
+    }
+
+    @Test
+    void exportUserBookings_ShouldThrowNotFound_WhenUserDoesNotExist() {
+        assertThrows(NotFoundException.class, () -> bookingService.exportUserBookings(999L, booking -> { }));
+    }
+
+    @Test
+    void getUserBookings_ShouldRunConstantNumberOfQueries_WhenUserHasManyBookings() {
+        createBookings(3);
+        long smallCount = countStatements(() -> bookingService.getUserBookings(booker.getId(), "ALL", null, 100));
+
+        createBookings(30);
+        long largeCount = countStatements(() -> bookingService.getUserBookings(booker.getId(), "ALL", null, 100));
+
+        assertEquals(4, smallCount);
+        assertEquals(smallCount, largeCount);
+    }
+
+    @Test
+    void getOwnerBookings_ShouldRunConstantNumberOfQueries_WhenOwnerHasManyBookings() {
+        createBookings(3);
+        long smallCount = countStatements(() -> bookingService.getOwnerBookings(owner.getId(), "ALL", null, 100));
+
+        createBookings(30);
+        long largeCount = countStatements(() -> bookingService.getOwnerBookings(owner.getId(), "ALL", null, 100));
+
+        assertEquals(4, smallCount);
+        assertEquals(smallCount, largeCount);
+    }
+
+    @Test
+    void getOwnerBookings_ShouldWalkAllPages_WhenPageTokenIsPassedBack() {
+        createBookings(7);
+
+        List<Long> ids = new ArrayList<>();
+        String pageToken = null;
+        int pages = 0;
+        do {
+            BookingPageDto page = bookingService.getOwnerBookings(owner.getId(), "FUTURE", pageToken, 3);
+            page.getBookings().forEach(booking -> ids.add(booking.getId()));
+            pageToken = page.getNextPageToken();
+            pages++;
+        } while (pageToken != null);
+
+        assertEquals(3, pages);
+        assertEquals(7, ids.size());
+        assertEquals(7, new HashSet<>(ids).size());
+    }
+
+    @Test
+    void getUserBookings_ShouldReturnNoPageToken_WhenLastPageIsFull() {
+        createBookings(4);
+
+        BookingPageDto first = bookingService.getUserBookings(booker.getId(), "ALL", null, 2);
+        BookingPageDto second = bookingService.getUserBookings(booker.getId(), "ALL", first.getNextPageToken(), 2);
+
+        assertNotNull(first.getNextPageToken());
+        assertEquals(2, second.getBookings().size());
+        assertNull(second.getNextPageToken());
+        assertTrue(first.getBookings().get(1).getId() > second.getBookings().get(0).getId());
+    }
+
+    private long countBookings(Long bookerId) {
+        return bookingRepository.findByBookerIdAndIdLessThanOrderByIdDesc(
+                bookerId, Long.MAX_VALUE, Limit.unlimited()).size();
+    }
+
+    private BookingCreateDto bookingCreateDto(Long itemId, LocalDateTime start, LocalDateTime end) {
+        BookingCreateDto dto = new BookingCreateDto();
+        dto.setItemId(itemId);
+        dto.setStart(start);
+        dto.setEnd(end);
+        return dto;
+    }
+
+    private void createBookings(int count) {
+        for (int i = 0; i < count; i++) {
+            Item bookedItem = new Item();
+            bookedItem.setName("Item " + i);
+            bookedItem.setDescription("Description " + i);
+            bookedItem.setAvailable(true);
+            bookedItem.setOwnerId(owner.getId());
+            bookedItem = itemRepository.save(bookedItem);
+
+            Booking booking = new Booking();
+            booking.setStart(LocalDateTime.now().plusDays(i + 1));
+            booking.setEnd(LocalDateTime.now().plusDays(i + 2));
+            booking.setItemId(bookedItem.getId());
+            booking.setBookerId(booker.getId());
+            booking.setOwnerId(owner.getId());
+            booking.setStatus(Status.WAITING);
+            bookingRepository.save(booking);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private long countStatements(Runnable action) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        action.run();
+        long count = statistics.getPrepareStatementCount();
+        entityManager.clear();
+        return count;
+    }
+
+    private void saveBooking(LocalDateTime start, LocalDateTime end, Status status) {
+        Booking booking = new Booking();
+        booking.setStart(start);
+        booking.setEnd(end);
+        booking.setItemId(item.getId());
+        booking.setBookerId(booker.getId());
+        booking.setOwnerId(owner.getId());
+        booking.setStatus(status);
+        bookingRepository.save(booking);
+    }
+}
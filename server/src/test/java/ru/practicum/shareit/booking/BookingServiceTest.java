@@ -5,27 +5,37 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingDetails;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingPointersService;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.booking.service.ItemOccupancyIndex;
 import ru.practicum.shareit.exception.AccessDeniedException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemStatsService;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
@@ -41,11 +51,18 @@ class BookingServiceTest {
     @Mock
     private ItemRepository itemRepository;
 
+    @Mock
+    private BookingPointersService bookingPointersService;
+
+    @Mock
+    private ItemStatsService itemStatsService;
+
     private BookingServiceImpl bookingService;
 
     @BeforeEach
     void setUp() {
-        bookingService = new BookingServiceImpl(bookingRepository, userRepository, itemRepository);
+        bookingService = new BookingServiceImpl(bookingRepository, userRepository, itemRepository,
+                new ItemOccupancyIndex(bookingRepository, 10_000, 300), bookingPointersService, itemStatsService);
     }
 
     @Test
@@ -64,19 +81,19 @@ class BookingServiceTest {
         item.setOwnerId(2L);
         item.setAvailable(true);
 
-        Booking savedBooking = BookingMapper.toBooking(bookingDto, userId);
+        Booking savedBooking = BookingMapper.toBooking(bookingDto, userId, item.getOwnerId());
         savedBooking.setId(1L);
         savedBooking.setStatus(Status.WAITING);
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(booker));
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(itemRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(item));
         when(bookingRepository.save(any(Booking.class))).thenReturn(savedBooking);
 
         BookingDto result = bookingService.create(bookingDto, userId);
 
         assertEquals(Status.WAITING, result.getStatus());
         verify(userRepository).findById(userId);
-        verify(itemRepository).findById(1L);
+        verify(itemRepository).findByIdForUpdate(1L);
         verify(bookingRepository).save(any(Booking.class));
     }
 
@@ -90,7 +107,7 @@ class BookingServiceTest {
 
         assertThrows(ValidationException.class, () -> bookingService.create(bookingDto, userId));
         verify(userRepository, never()).findById(anyLong());
-        verify(itemRepository, never()).findById(anyLong());
+        verify(itemRepository, never()).findByIdForUpdate(anyLong());
         verify(bookingRepository, never()).save(any(Booking.class));
     }
 
@@ -104,7 +121,7 @@ class BookingServiceTest {
 
         assertThrows(ValidationException.class, () -> bookingService.create(bookingDto, userId));
         verify(userRepository, never()).findById(anyLong());
-        verify(itemRepository, never()).findById(anyLong());
+        verify(itemRepository, never()).findByIdForUpdate(anyLong());
         verify(bookingRepository, never()).save(any(Booking.class));
     }
 
@@ -118,7 +135,7 @@ class BookingServiceTest {
 
         assertThrows(ValidationException.class, () -> bookingService.create(bookingDto, userId));
         verify(userRepository, never()).findById(anyLong());
-        verify(itemRepository, never()).findById(anyLong());
+        verify(itemRepository, never()).findByIdForUpdate(anyLong());
         verify(bookingRepository, never()).save(any(Booking.class));
     }
 
@@ -134,7 +151,7 @@ class BookingServiceTest {
 
         assertThrows(NotFoundException.class, () -> bookingService.create(bookingDto, userId));
         verify(userRepository).findById(userId);
-        verify(itemRepository, never()).findById(anyLong());
+        verify(itemRepository, never()).findByIdForUpdate(anyLong());
         verify(bookingRepository, never()).save(any(Booking.class));
     }
 
@@ -150,11 +167,11 @@ class BookingServiceTest {
         booker.setId(userId);
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(booker));
-        when(itemRepository.findById(1L)).thenReturn(Optional.empty());
+        when(itemRepository.findByIdForUpdate(1L)).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class, () -> bookingService.create(bookingDto, userId));
         verify(userRepository).findById(userId);
-        verify(itemRepository).findById(1L);
+        verify(itemRepository).findByIdForUpdate(1L);
         verify(bookingRepository, never()).save(any(Booking.class));
     }
 
@@ -175,11 +192,11 @@ class BookingServiceTest {
         item.setAvailable(false);
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(booker));
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(itemRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(item));
 
         assertThrows(ValidationException.class, () -> bookingService.create(bookingDto, userId));
         verify(userRepository).findById(userId);
-        verify(itemRepository).findById(1L);
+        verify(itemRepository).findByIdForUpdate(1L);
         verify(bookingRepository, never()).save(any(Booking.class));
     }
 
@@ -201,14 +218,31 @@ class BookingServiceTest {
         item.setAvailable(true);
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(booker));
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(itemRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(item));
 
         assertThrows(ValidationException.class, () -> bookingService.create(bookingDto, userId));
         verify(userRepository).findById(userId);
-        verify(itemRepository).findById(1L);
+        verify(itemRepository).findByIdForUpdate(1L);
         verify(bookingRepository, never()).save(any(Booking.class));
     }
 
+    @Test
+    void createAll_ShouldThrowValidationException_WhenBatchIsTooLarge() {
+        List<BookingCreateDto> batch = Collections.nCopies(5001, new BookingCreateDto());
+
+        assertThrows(ValidationException.class, () -> bookingService.createAll(batch, 1L));
+        verify(userRepository, never()).findById(anyLong());
+        verify(bookingRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void createAll_ShouldThrowNotFoundException_WhenUserDoesNotExist() {
+        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> bookingService.createAll(List.of(new BookingCreateDto()), 1L));
+        verify(bookingRepository, never()).saveAll(anyList());
+    }
+
     @Test
     void approve_ShouldReturnApprovedBookingDto_WhenValidInput() {
         Long bookingId = 1L;
@@ -219,7 +253,7 @@ class BookingServiceTest {
         booking.setId(bookingId);
         booking.setItemId(1L);
         booking.setBookerId(1L);
-        booking.setStatus(Status.WAITING);
+        booking.setStatus(Status.APPROVED);
 
         Item item = new Item();
         item.setId(1L);
@@ -228,18 +262,19 @@ class BookingServiceTest {
         User booker = new User();
         booker.setId(1L);
 
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
-        when(userRepository.findById(1L)).thenReturn(Optional.of(booker));
-        when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
+        when(bookingRepository.updateStatusIfOwnedAndInStatus(bookingId, userId, Status.WAITING, Status.APPROVED))
+                .thenReturn(1);
+        when(bookingRepository.findDetailsById(bookingId))
+                .thenReturn(Optional.of(new BookingDetails(booking, item, booker)));
 
         BookingDto result = bookingService.approve(bookingId, userId, approved);
 
         assertEquals(Status.APPROVED, result.getStatus());
-        verify(bookingRepository).findById(bookingId);
-        verify(itemRepository).findById(1L);
-        verify(userRepository).findById(1L);
-        verify(bookingRepository).save(any(Booking.class));
+        verify(bookingRepository).updateStatusIfOwnedAndInStatus(bookingId, userId, Status.WAITING, Status.APPROVED);
+        verify(bookingRepository).findDetailsById(bookingId);
+        verify(bookingPointersService).refresh(1L);
+        verify(itemRepository, never()).findById(anyLong());
+        verify(bookingRepository, never()).save(any(Booking.class));
     }
 
     @Test
@@ -248,12 +283,11 @@ class BookingServiceTest {
         Long userId = 2L;
         Boolean approved = true;
 
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.empty());
+        when(bookingRepository.updateStatusIfOwnedAndInStatus(bookingId, userId, Status.WAITING, Status.APPROVED))
+                .thenReturn(0);
+        when(bookingRepository.findDetailsById(bookingId)).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class, () -> bookingService.approve(bookingId, userId, approved));
-        verify(bookingRepository).findById(bookingId);
-        verify(itemRepository, never()).findById(anyLong());
-        verify(userRepository, never()).findById(anyLong());
         verify(bookingRepository, never()).save(any(Booking.class));
     }
 
@@ -269,17 +303,19 @@ class BookingServiceTest {
         booking.setBookerId(1L);
         booking.setStatus(Status.WAITING);
 
+        User booker = new User();
+        booker.setId(1L);
+
         Item item = new Item();
         item.setId(1L);
         item.setOwnerId(2L);
 
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(bookingRepository.updateStatusIfOwnedAndInStatus(bookingId, userId, Status.WAITING, Status.APPROVED))
+                .thenReturn(0);
+        when(bookingRepository.findDetailsById(bookingId))
+                .thenReturn(Optional.of(new BookingDetails(booking, item, booker)));
 
         assertThrows(AccessDeniedException.class, () -> bookingService.approve(bookingId, userId, approved));
-        verify(bookingRepository).findById(bookingId);
-        verify(itemRepository).findById(1L);
-        verify(userRepository, never()).findById(anyLong());
         verify(bookingRepository, never()).save(any(Booking.class));
     }
 
@@ -295,17 +331,19 @@ class BookingServiceTest {
         booking.setBookerId(1L);
         booking.setStatus(Status.APPROVED);
 
+        User booker = new User();
+        booker.setId(1L);
+
         Item item = new Item();
         item.setId(1L);
         item.setOwnerId(userId);
 
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(bookingRepository.updateStatusIfOwnedAndInStatus(bookingId, userId, Status.WAITING, Status.APPROVED))
+                .thenReturn(0);
+        when(bookingRepository.findDetailsById(bookingId))
+                .thenReturn(Optional.of(new BookingDetails(booking, item, booker)));
 
         assertThrows(ValidationException.class, () -> bookingService.approve(bookingId, userId, approved));
-        verify(bookingRepository).findById(bookingId);
-        verify(itemRepository).findById(1L);
-        verify(userRepository, never()).findById(anyLong());
         verify(bookingRepository, never()).save(any(Booking.class));
     }
 
@@ -326,16 +364,15 @@ class BookingServiceTest {
         User booker = new User();
         booker.setId(userId);
 
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
-        when(userRepository.findById(userId)).thenReturn(Optional.of(booker));
+        when(bookingRepository.findDetailsById(bookingId))
+                .thenReturn(Optional.of(new BookingDetails(booking, item, booker)));
 
         BookingDto result = bookingService.getById(bookingId, userId);
 
         assertEquals(bookingId, result.getId());
-        verify(bookingRepository).findById(bookingId);
-        verify(itemRepository).findById(1L);
-        verify(userRepository).findById(userId);
+        verify(bookingRepository).findDetailsById(bookingId);
+        verify(itemRepository, never()).findById(anyLong());
+        verify(userRepository, never()).findById(anyLong());
     }
 
     @Test
@@ -357,16 +394,15 @@ class BookingServiceTest {
         User booker = new User();
         booker.setId(bookerId);
 
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
-        when(userRepository.findById(bookerId)).thenReturn(Optional.of(booker));
+        when(bookingRepository.findDetailsById(bookingId))
+                .thenReturn(Optional.of(new BookingDetails(booking, item, booker)));
 
         BookingDto result = bookingService.getById(bookingId, userId);
 
         assertEquals(bookingId, result.getId());
-        verify(bookingRepository).findById(bookingId);
-        verify(itemRepository).findById(1L);
-        verify(userRepository).findById(bookerId);
+        verify(bookingRepository).findDetailsById(bookingId);
+        verify(itemRepository, never()).findById(anyLong());
+        verify(userRepository, never()).findById(anyLong());
     }
 
     @Test
@@ -381,17 +417,17 @@ class BookingServiceTest {
         booking.setBookerId(bookerId);
         booking.setStatus(Status.WAITING);
 
+        User booker = new User();
+        booker.setId(bookerId);
+
         Item item = new Item();
         item.setId(1L);
         item.setOwnerId(2L);
 
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(bookingRepository.findDetailsById(bookingId))
+                .thenReturn(Optional.of(new BookingDetails(booking, item, booker)));
 
         assertThrows(AccessDeniedException.class, () -> bookingService.getById(bookingId, userId));
-        verify(bookingRepository).findById(bookingId);
-        verify(itemRepository).findById(1L);
-        verify(userRepository, never()).findById(anyLong());
     }
 
     @Test
@@ -432,14 +468,14 @@ class BookingServiceTest {
         booker.setId(userId);
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(booker));
-        when(bookingRepository.findByBookerIdOrderByIdDesc(userId)).thenReturn(List.of(booking1, booking2));
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
-        when(userRepository.findById(userId)).thenReturn(Optional.of(booker));  // для toBookingDto
+        when(bookingRepository.findByBookerIdAndIdLessThanOrderByIdDesc(eq(userId), anyLong(), any(Limit.class))).thenReturn(List.of(booking1, booking2));
+        when(itemRepository.findAllById(Set.of(1L))).thenReturn(List.of(item));
+        when(userRepository.findAllById(Set.of(userId))).thenReturn(List.of(booker));
 
-        List<BookingDto> result = bookingService.getUserBookings(userId, state);
+        List<BookingDto> result = bookingService.getUserBookings(userId, state, null, 20).getBookings();
 
         assertEquals(2, result.size());
-        verify(bookingRepository).findByBookerIdOrderByIdDesc(userId);
+        verify(bookingRepository).findByBookerIdAndIdLessThanOrderByIdDesc(eq(userId), anyLong(), any(Limit.class));
     }
 
     @Test
@@ -462,14 +498,14 @@ class BookingServiceTest {
         booker.setId(userId);
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(booker));
-        when(bookingRepository.findCurrentBookingsByBooker(eq(userId), any(LocalDateTime.class))).thenReturn(List.of(booking));
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
-        when(userRepository.findById(userId)).thenReturn(Optional.of(booker));
+        when(bookingRepository.findCurrentBookingsByBooker(eq(userId), any(LocalDateTime.class), any(LocalDateTime.class), anyLong(), any(Limit.class))).thenReturn(List.of(booking));
+        when(itemRepository.findAllById(Set.of(1L))).thenReturn(List.of(item));
+        when(userRepository.findAllById(Set.of(userId))).thenReturn(List.of(booker));
 
-        List<BookingDto> result = bookingService.getUserBookings(userId, state);
+        List<BookingDto> result = bookingService.getUserBookings(userId, state, null, 20).getBookings();
 
         assertEquals(1, result.size());
-        verify(bookingRepository).findCurrentBookingsByBooker(eq(userId), any(LocalDateTime.class));
+        verify(bookingRepository).findCurrentBookingsByBooker(eq(userId), any(LocalDateTime.class), any(LocalDateTime.class), anyLong(), any(Limit.class));
     }
 
     @Test
@@ -493,14 +529,14 @@ class BookingServiceTest {
         booker.setId(userId);
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(booker));
-        when(bookingRepository.findPastBookingsByBooker(eq(userId), any(LocalDateTime.class))).thenReturn(List.of(booking));
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
-        when(userRepository.findById(userId)).thenReturn(Optional.of(booker));
+        when(bookingRepository.findPastBookingsByBooker(eq(userId), any(LocalDateTime.class), any(LocalDateTime.class), anyLong(), any(Limit.class))).thenReturn(List.of(booking));
+        when(itemRepository.findAllById(Set.of(1L))).thenReturn(List.of(item));
+        when(userRepository.findAllById(Set.of(userId))).thenReturn(List.of(booker));
 
-        List<BookingDto> result = bookingService.getUserBookings(userId, state);
+        List<BookingDto> result = bookingService.getUserBookings(userId, state, null, 20).getBookings();
 
         assertEquals(1, result.size());
-        verify(bookingRepository).findPastBookingsByBooker(eq(userId), any(LocalDateTime.class));
+        verify(bookingRepository).findPastBookingsByBooker(eq(userId), any(LocalDateTime.class), any(LocalDateTime.class), anyLong(), any(Limit.class));
     }
 
     @Test
@@ -523,14 +559,14 @@ class BookingServiceTest {
         booker.setId(userId);
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(booker));
-        when(bookingRepository.findFutureBookingsByBooker(eq(userId), any(LocalDateTime.class))).thenReturn(List.of(booking));
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
-        when(userRepository.findById(userId)).thenReturn(Optional.of(booker));
+        when(bookingRepository.findFutureBookingsByBooker(eq(userId), any(LocalDateTime.class), any(LocalDateTime.class), anyLong(), any(Limit.class))).thenReturn(List.of(booking));
+        when(itemRepository.findAllById(Set.of(1L))).thenReturn(List.of(item));
+        when(userRepository.findAllById(Set.of(userId))).thenReturn(List.of(booker));
 
-        List<BookingDto> result = bookingService.getUserBookings(userId, state);
+        List<BookingDto> result = bookingService.getUserBookings(userId, state, null, 20).getBookings();
 
         assertEquals(1, result.size());
-        verify(bookingRepository).findFutureBookingsByBooker(eq(userId), any(LocalDateTime.class));
+        verify(bookingRepository).findFutureBookingsByBooker(eq(userId), any(LocalDateTime.class), any(LocalDateTime.class), anyLong(), any(Limit.class));
     }
 
     @Test
@@ -554,14 +590,14 @@ class BookingServiceTest {
         booker.setId(userId);
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(booker));
-        when(bookingRepository.findByBookerIdAndStatus(userId, Status.WAITING)).thenReturn(List.of(booking));
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
-        when(userRepository.findById(userId)).thenReturn(Optional.of(booker));  // для toBookingDto
+        when(bookingRepository.findByBookerIdAndStatus(eq(userId), eq(Status.WAITING), any(LocalDateTime.class), anyLong(), any(Limit.class))).thenReturn(List.of(booking));
+        when(itemRepository.findAllById(Set.of(1L))).thenReturn(List.of(item));
+        when(userRepository.findAllById(Set.of(userId))).thenReturn(List.of(booker));
 
-        List<BookingDto> result = bookingService.getUserBookings(userId, state);
+        List<BookingDto> result = bookingService.getUserBookings(userId, state, null, 20).getBookings();
 
         assertEquals(1, result.size());
-        verify(bookingRepository).findByBookerIdAndStatus(userId, Status.WAITING);
+        verify(bookingRepository).findByBookerIdAndStatus(eq(userId), eq(Status.WAITING), any(LocalDateTime.class), anyLong(), any(Limit.class));
     }
 
     @Test
@@ -585,14 +621,14 @@ class BookingServiceTest {
         booker.setId(userId);
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(booker));
-        when(bookingRepository.findByBookerIdAndStatus(userId, Status.REJECTED)).thenReturn(List.of(booking));
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
-        when(userRepository.findById(userId)).thenReturn(Optional.of(booker));
+        when(bookingRepository.findByBookerIdAndStatus(eq(userId), eq(Status.REJECTED), any(LocalDateTime.class), anyLong(), any(Limit.class))).thenReturn(List.of(booking));
+        when(itemRepository.findAllById(Set.of(1L))).thenReturn(List.of(item));
+        when(userRepository.findAllById(Set.of(userId))).thenReturn(List.of(booker));
 
-        List<BookingDto> result = bookingService.getUserBookings(userId, state);
+        List<BookingDto> result = bookingService.getUserBookings(userId, state, null, 20).getBookings();
 
         assertEquals(1, result.size());
-        verify(bookingRepository).findByBookerIdAndStatus(userId, Status.REJECTED);
+        verify(bookingRepository).findByBookerIdAndStatus(eq(userId), eq(Status.REJECTED), any(LocalDateTime.class), anyLong(), any(Limit.class));
     }
 
     @Test
@@ -602,7 +638,7 @@ class BookingServiceTest {
 
         when(userRepository.findById(userId)).thenReturn(Optional.empty());
 
-        assertThrows(NotFoundException.class, () -> bookingService.getUserBookings(userId, state));
+        assertThrows(NotFoundException.class, () -> bookingService.getUserBookings(userId, state, null, 20));
         verify(userRepository).findById(userId);
     }
 
@@ -616,7 +652,7 @@ class BookingServiceTest {
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
 
-        assertThrows(ValidationException.class, () -> bookingService.getUserBookings(userId, state));
+        assertThrows(ValidationException.class, () -> bookingService.getUserBookings(userId, state, null, 20));
     }
 
     @Test
@@ -648,15 +684,15 @@ class BookingServiceTest {
         booker.setId(bookerId);
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(owner));
-        when(bookingRepository.findByItemOwnerIdOrderByIdDesc(userId)).thenReturn(List.of(booking1, booking2));
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
-        when(userRepository.findById(bookerId)).thenReturn(Optional.of(booker));  // добавлено
+        when(bookingRepository.findByItemOwnerIdOrderByIdDesc(eq(userId), any(LocalDateTime.class), anyLong(), any(Limit.class))).thenReturn(List.of(booking1, booking2));
+        when(itemRepository.findAllById(Set.of(1L))).thenReturn(List.of(item));
+        when(userRepository.findAllById(Set.of(bookerId))).thenReturn(List.of(booker));
 
-        List<BookingDto> result = bookingService.getOwnerBookings(userId, state);
+        List<BookingDto> result = bookingService.getOwnerBookings(userId, state, null, 20).getBookings();
 
         assertEquals(2, result.size());
         verify(userRepository).findById(userId);
-        verify(bookingRepository).findByItemOwnerIdOrderByIdDesc(userId);
+        verify(bookingRepository).findByItemOwnerIdOrderByIdDesc(eq(userId), any(LocalDateTime.class), anyLong(), any(Limit.class));
     }
 
     @Test
@@ -680,14 +716,14 @@ class BookingServiceTest {
         booker.setId(2L);
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(booker));
-        when(bookingRepository.findCurrentBookingsByOwner(eq(userId), any(LocalDateTime.class))).thenReturn(List.of(booking));
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
-        when(userRepository.findById(2L)).thenReturn(Optional.of(booker));
+        when(bookingRepository.findCurrentBookingsByOwner(eq(userId), any(LocalDateTime.class), any(LocalDateTime.class), anyLong(), any(Limit.class))).thenReturn(List.of(booking));
+        when(itemRepository.findAllById(Set.of(1L))).thenReturn(List.of(item));
+        when(userRepository.findAllById(Set.of(2L))).thenReturn(List.of(booker));
 
-        List<BookingDto> result = bookingService.getOwnerBookings(userId, state);
+        List<BookingDto> result = bookingService.getOwnerBookings(userId, state, null, 20).getBookings();
 
         assertEquals(1, result.size());
-        verify(bookingRepository).findCurrentBookingsByOwner(eq(userId), any(LocalDateTime.class));
+        verify(bookingRepository).findCurrentBookingsByOwner(eq(userId), any(LocalDateTime.class), any(LocalDateTime.class), anyLong(), any(Limit.class));
     }
 
     @Test
@@ -712,15 +748,15 @@ class BookingServiceTest {
         booker.setId(2L);
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(booker));
-        when(bookingRepository.findByItemOwnerIdAndStatus(userId, Status.WAITING)).thenReturn(List.of(booking));
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
-        when(userRepository.findById(2L)).thenReturn(Optional.of(booker));
+        when(bookingRepository.findByItemOwnerIdAndStatus(eq(userId), eq(Status.WAITING), any(LocalDateTime.class), anyLong(), any(Limit.class))).thenReturn(List.of(booking));
+        when(itemRepository.findAllById(Set.of(1L))).thenReturn(List.of(item));
+        when(userRepository.findAllById(Set.of(2L))).thenReturn(List.of(booker));
 
-        List<BookingDto> result = bookingService.getOwnerBookings(userId, state);
+        List<BookingDto> result = bookingService.getOwnerBookings(userId, state, null, 20).getBookings();
 
         assertEquals(1, result.size());
         verify(userRepository).findById(userId);
-        verify(bookingRepository).findByItemOwnerIdAndStatus(userId, Status.WAITING);
+        verify(bookingRepository).findByItemOwnerIdAndStatus(eq(userId), eq(Status.WAITING), any(LocalDateTime.class), anyLong(), any(Limit.class));
     }
 
     @Test
@@ -745,15 +781,15 @@ class BookingServiceTest {
         booker.setId(2L);
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(booker));
-        when(bookingRepository.findByItemOwnerIdAndStatus(userId, Status.REJECTED)).thenReturn(List.of(booking));
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
-        when(userRepository.findById(2L)).thenReturn(Optional.of(booker));
+        when(bookingRepository.findByItemOwnerIdAndStatus(eq(userId), eq(Status.REJECTED), any(LocalDateTime.class), anyLong(), any(Limit.class))).thenReturn(List.of(booking));
+        when(itemRepository.findAllById(Set.of(1L))).thenReturn(List.of(item));
+        when(userRepository.findAllById(Set.of(2L))).thenReturn(List.of(booker));
 
-        List<BookingDto> result = bookingService.getOwnerBookings(userId, state);
+        List<BookingDto> result = bookingService.getOwnerBookings(userId, state, null, 20).getBookings();
 
         assertEquals(1, result.size());
         verify(userRepository).findById(userId);
-        verify(bookingRepository).findByItemOwnerIdAndStatus(userId, Status.REJECTED);
+        verify(bookingRepository).findByItemOwnerIdAndStatus(eq(userId), eq(Status.REJECTED), any(LocalDateTime.class), anyLong(), any(Limit.class));
     }
 
     @Test
@@ -763,7 +799,7 @@ class BookingServiceTest {
 
         when(userRepository.findById(userId)).thenReturn(Optional.empty());
 
-        assertThrows(NotFoundException.class, () -> bookingService.getOwnerBookings(userId, state));
+        assertThrows(NotFoundException.class, () -> bookingService.getOwnerBookings(userId, state, null, 20));
         verify(userRepository).findById(userId);
     }
 
@@ -777,7 +813,7 @@ class BookingServiceTest {
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
 
-        assertThrows(ValidationException.class, () -> bookingService.getOwnerBookings(userId, state));
+        assertThrows(ValidationException.class, () -> bookingService.getOwnerBookings(userId, state, null, 20));
     }
 
     @Test
@@ -802,7 +838,7 @@ class BookingServiceTest {
         booking.setId(bookingId);
         booking.setItemId(1L);
         booking.setBookerId(1L);
-        booking.setStatus(Status.WAITING);
+        booking.setStatus(Status.REJECTED);
 
         Item item = new Item();
         item.setId(1L);
@@ -811,18 +847,18 @@ class BookingServiceTest {
         User booker = new User();
         booker.setId(1L);
 
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
-        when(userRepository.findById(1L)).thenReturn(Optional.of(booker));
-        when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
+        when(bookingRepository.updateStatusIfOwnedAndInStatus(bookingId, userId, Status.WAITING, Status.REJECTED))
+                .thenReturn(1);
+        when(bookingRepository.findDetailsById(bookingId))
+                .thenReturn(Optional.of(new BookingDetails(booking, item, booker)));
 
         BookingDto result = bookingService.approve(bookingId, userId, approved);
 
         assertEquals(Status.REJECTED, result.getStatus());
-        verify(bookingRepository).findById(bookingId);
-        verify(itemRepository).findById(1L);
-        verify(userRepository).findById(1L);
-        verify(bookingRepository).save(any(Booking.class));
+        verify(bookingRepository).updateStatusIfOwnedAndInStatus(bookingId, userId, Status.WAITING, Status.REJECTED);
+        verify(bookingRepository).findDetailsById(bookingId);
+        verify(itemRepository, never()).findById(anyLong());
+        verify(bookingRepository, never()).save(any(Booking.class));
     }
 
     @Test
@@ -849,16 +885,19 @@ class BookingServiceTest {
         booking.setBookerId(1L);
         booking.setStatus(Status.APPROVED);
 
+        User booker = new User();
+        booker.setId(1L);
+
         Item item = new Item();
         item.setId(1L);
         item.setOwnerId(userId);
 
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(bookingRepository.updateStatusIfOwnedAndInStatus(bookingId, userId, Status.WAITING, Status.APPROVED))
+                .thenReturn(0);
+        when(bookingRepository.findDetailsById(bookingId))
+                .thenReturn(Optional.of(new BookingDetails(booking, item, booker)));
 
         assertThrows(ValidationException.class, () -> bookingService.approve(bookingId, userId, approved));
-        verify(bookingRepository).findById(bookingId);
-        verify(itemRepository).findById(1L);
     }
 
     @Test
@@ -873,16 +912,19 @@ class BookingServiceTest {
         booking.setBookerId(1L);
         booking.setStatus(Status.REJECTED);
 
+        User booker = new User();
+        booker.setId(1L);
+
         Item item = new Item();
         item.setId(1L);
         item.setOwnerId(userId);
 
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(bookingRepository.updateStatusIfOwnedAndInStatus(bookingId, userId, Status.WAITING, Status.APPROVED))
+                .thenReturn(0);
+        when(bookingRepository.findDetailsById(bookingId))
+                .thenReturn(Optional.of(new BookingDetails(booking, item, booker)));
 
         assertThrows(ValidationException.class, () -> bookingService.approve(bookingId, userId, approved));
-        verify(bookingRepository).findById(bookingId);
-        verify(itemRepository).findById(1L);
     }
 
     @Test
@@ -894,13 +936,13 @@ class BookingServiceTest {
         user.setId(userId);
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(bookingRepository.findByBookerIdOrderByIdDesc(userId)).thenReturn(List.of());
+        when(bookingRepository.findByBookerIdAndIdLessThanOrderByIdDesc(eq(userId), anyLong(), any(Limit.class))).thenReturn(List.of());
 
-        List<BookingDto> result = bookingService.getUserBookings(userId, state);
+        List<BookingDto> result = bookingService.getUserBookings(userId, state, null, 20).getBookings();
 
         assertTrue(result.isEmpty());
         verify(userRepository).findById(userId);
-        verify(bookingRepository).findByBookerIdOrderByIdDesc(userId);
+        verify(bookingRepository).findByBookerIdAndIdLessThanOrderByIdDesc(eq(userId), anyLong(), any(Limit.class));
     }
 
     @Test
@@ -912,12 +954,143 @@ class BookingServiceTest {
         user.setId(userId);
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(bookingRepository.findByItemOwnerIdOrderByIdDesc(userId)).thenReturn(List.of());
+        when(bookingRepository.findByItemOwnerIdOrderByIdDesc(eq(userId), any(LocalDateTime.class), anyLong(), any(Limit.class))).thenReturn(List.of());
 
-        List<BookingDto> result = bookingService.getOwnerBookings(userId, state);
+        List<BookingDto> result = bookingService.getOwnerBookings(userId, state, null, 20).getBookings();
 
         assertTrue(result.isEmpty());
         verify(userRepository).findById(userId);
-        verify(bookingRepository).findByItemOwnerIdOrderByIdDesc(userId);
+        verify(bookingRepository).findByItemOwnerIdOrderByIdDesc(eq(userId), any(LocalDateTime.class), anyLong(), any(Limit.class));
+    }
+
+    @Test
+    void getUserBookings_ShouldReturnNextPageToken_WhenMoreBookingsExist() {
+        Long userId = 1L;
+
+        User booker = new User();
+        booker.setId(userId);
+
+        Item item = new Item();
+        item.setId(1L);
+
+        List<Booking> bookings = new ArrayList<>();
+        for (long id = 3; id > 0; id--) {
+            Booking booking = new Booking();
+            booking.setId(id);
+            booking.setBookerId(userId);
+            booking.setItemId(1L);
+            booking.setEnd(LocalDateTime.now().minusDays(id));
+            booking.setStatus(Status.APPROVED);
+            bookings.add(booking);
+        }
+
+        when(userRepository.findById(userId)).thenReturn(Optional.of(booker));
+        when(bookingRepository.findPastBookingsByBooker(eq(userId), any(LocalDateTime.class),
+                any(LocalDateTime.class), anyLong(), eq(Limit.of(3)))).thenReturn(bookings);
+        when(itemRepository.findAllById(Set.of(1L))).thenReturn(List.of(item));
+        when(userRepository.findAllById(Set.of(userId))).thenReturn(List.of(booker));
+
+        BookingPageDto result = bookingService.getUserBookings(userId, "PAST", null, 2);
+
+        assertEquals(2, result.getBookings().size());
+        assertEquals(2L, result.getBookings().get(1).getId());
+        assertNotNull(result.getNextPageToken());
+    }
+
+    @Test
+    void getUserBookings_ShouldThrowValidationException_WhenPageTokenIsMalformed() {
+        Long userId = 1L;
+        User user = new User();
+        user.setId(userId);
+
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+
+        assertThrows(ValidationException.class,
+                () -> bookingService.getUserBookings(userId, "ALL", "not-a-token", 20));
+    }
+
+    @Test
+    void getOwnerBookings_ShouldThrowValidationException_WhenPageSizeIsNotPositive() {
+        Long userId = 1L;
+        User user = new User();
+        user.setId(userId);
+
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+
+        assertThrows(ValidationException.class,
+                () -> bookingService.getOwnerBookings(userId, "ALL", null, 0));
+    }
+
+    @Test
+    void create_ShouldThrowValidationException_WhenPeriodOverlapsExistingBooking() {
+        Long userId = 1L;
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        BookingCreateDto bookingDto = new BookingCreateDto();
+        bookingDto.setStart(start);
+        bookingDto.setEnd(start.plusDays(2));
+        bookingDto.setItemId(1L);
+
+        User booker = new User();
+        booker.setId(userId);
+
+        Item item = new Item();
+        item.setId(1L);
+        item.setOwnerId(2L);
+        item.setAvailable(true);
+
+        Booking existing = new Booking();
+        existing.setId(5L);
+        existing.setStart(start.minusHours(5));
+        existing.setEnd(start.plusHours(1));
+        existing.setStatus(Status.APPROVED);
+
+        when(userRepository.findById(userId)).thenReturn(Optional.of(booker));
+        when(itemRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(item));
+        when(bookingRepository.findFirstByItemIdAndStatusAndEndAfterOrderByEndAsc(
+                1L, Status.WAITING, bookingDto.getStart())).thenReturn(Optional.empty());
+        when(bookingRepository.findFirstByItemIdAndStatusAndEndAfterOrderByEndAsc(
+                1L, Status.APPROVED, bookingDto.getStart())).thenReturn(Optional.of(existing));
+
+        assertThrows(ValidationException.class, () -> bookingService.create(bookingDto, userId));
+        verify(bookingRepository, never()).save(any(Booking.class));
+    }
+
+    @Test
+    void create_ShouldSaveBooking_WhenNextBookingStartsAtRequestedEnd() {
+        Long userId = 1L;
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        BookingCreateDto bookingDto = new BookingCreateDto();
+        bookingDto.setStart(start);
+        bookingDto.setEnd(start.plusDays(2));
+        bookingDto.setItemId(1L);
+
+        User booker = new User();
+        booker.setId(userId);
+
+        Item item = new Item();
+        item.setId(1L);
+        item.setOwnerId(2L);
+        item.setAvailable(true);
+
+        Booking next = new Booking();
+        next.setId(5L);
+        next.setStart(bookingDto.getEnd());
+        next.setEnd(bookingDto.getEnd().plusDays(1));
+        next.setStatus(Status.WAITING);
+
+        Booking savedBooking = BookingMapper.toBooking(bookingDto, userId, item.getOwnerId());
+        savedBooking.setId(6L);
+
+        when(userRepository.findById(userId)).thenReturn(Optional.of(booker));
+        when(itemRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(item));
+        when(bookingRepository.findFirstByItemIdAndStatusAndEndAfterOrderByEndAsc(
+                1L, Status.WAITING, bookingDto.getStart())).thenReturn(Optional.of(next));
+        when(bookingRepository.findFirstByItemIdAndStatusAndEndAfterOrderByEndAsc(
+                1L, Status.APPROVED, bookingDto.getStart())).thenReturn(Optional.empty());
+        when(bookingRepository.save(any(Booking.class))).thenReturn(savedBooking);
+
+        BookingDto result = bookingService.create(bookingDto, userId);
+
+        assertEquals(6L, result.getId());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,105 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.OccupancyBitmap;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.ItemOccupancyIndex;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemOccupancyIndexTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2030, 5, 10, 0, 0);
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private ItemOccupancyIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ItemOccupancyIndex(bookingRepository, 10_000, 300);
+    }
+
+    @Test
+    void bookingCreated_ShouldMarkLoadedBitmapWithoutReloading() {
+        when(bookingRepository.findByItemIdsAndStatusesIntersecting(anyCollection(), anyCollection(), any(), any()))
+                .thenReturn(List.of());
+        assertEquals(1, index.intervals(1L, DAY, DAY.plusDays(1)).size());
+
+        index.bookingCreated(booking(DAY.withHour(9), DAY.withHour(11)));
+        List<OccupancyBitmap.Interval> intervals = index.intervals(1L, DAY, DAY.plusDays(1));
+
+        assertEquals(3, intervals.size());
+        assertTrue(intervals.get(1).isBusy());
+        verify(bookingRepository, times(1))
+                .findByItemIdsAndStatusesIntersecting(anyCollection(), anyCollection(), any(), any());
+    }
+
+    @Test
+    void bookingReleased_ShouldRebuildBitmapFromDatabase() {
+        when(bookingRepository.findByItemIdsAndStatusesIntersecting(anyCollection(), anyCollection(), any(), any()))
+                .thenReturn(List.of(booking(DAY.withHour(9), DAY.withHour(11))))
+                .thenReturn(List.of());
+        assertEquals(3, index.intervals(1L, DAY, DAY.plusDays(1)).size());
+
+        index.bookingReleased(1L);
+
+        assertEquals(1, index.intervals(1L, DAY, DAY.plusDays(1)).size());
+    }
+
+    @Test
+    void intervals_ShouldEvictLeastRecentlyReadBitmap_WhenMaxItemsIsExceeded() {
+        index = new ItemOccupancyIndex(bookingRepository, 2, 300);
+        when(bookingRepository.findByItemIdsAndStatusesIntersecting(anyCollection(), anyCollection(), any(), any()))
+                .thenReturn(List.of());
+
+        index.intervals(1L, DAY, DAY.plusDays(1));
+        index.intervals(2L, DAY, DAY.plusDays(1));
+        index.intervals(1L, DAY, DAY.plusDays(1));
+        index.intervals(3L, DAY, DAY.plusDays(1));
+        index.intervals(1L, DAY, DAY.plusDays(1));
+        index.intervals(2L, DAY, DAY.plusDays(1));
+
+        verify(bookingRepository, times(1))
+                .findByItemIdsAndStatusesIntersecting(eq(List.of(1L)), anyCollection(), any(), any());
+        verify(bookingRepository, times(2))
+                .findByItemIdsAndStatusesIntersecting(eq(List.of(2L)), anyCollection(), any(), any());
+    }
+
+    @Test
+    void intervals_ShouldReloadBitmap_WhenTtlHasExpired() {
+        index = new ItemOccupancyIndex(bookingRepository, 10, 0);
+        when(bookingRepository.findByItemIdsAndStatusesIntersecting(anyCollection(), anyCollection(), any(), any()))
+                .thenReturn(List.of())
+                .thenReturn(List.of(booking(DAY.withHour(9), DAY.withHour(11))));
+
+        assertEquals(1, index.intervals(1L, DAY, DAY.plusDays(1)).size());
+
+        // Бронирование другого экземпляра видно после истечения срока жизни карты
+        assertEquals(3, index.intervals(1L, DAY, DAY.plusDays(1)).size());
+    }
+
+    private Booking booking(LocalDateTime start, LocalDateTime end) {
+        Booking booking = new Booking();
+        booking.setItemId(1L);
+        booking.setStart(start);
+        booking.setEnd(end);
+        return booking;
+    }
+}
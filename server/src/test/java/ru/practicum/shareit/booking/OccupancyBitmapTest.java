@@ -0,0 +1,68 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.model.OccupancyBitmap;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OccupancyBitmapTest {
+
+    @Test
+    void intervals_ShouldReturnSingleFreeInterval_WhenNothingIsMarked() {
+        OccupancyBitmap bitmap = new OccupancyBitmap();
+
+        List<OccupancyBitmap.Interval> intervals = bitmap.intervals(0, 24 * 366);
+
+        assertEquals(1, intervals.size());
+        assertFalse(intervals.get(0).isBusy());
+        assertEquals(24 * 366, intervals.get(0).getToHour());
+    }
+
+    @Test
+    void mark_ShouldSpanWordBoundaries() {
+        OccupancyBitmap bitmap = new OccupancyBitmap();
+        bitmap.mark(60, 200);
+
+        assertFalse(bitmap.isBusy(59));
+        assertTrue(bitmap.isBusy(60));
+        assertTrue(bitmap.isBusy(64));
+        assertTrue(bitmap.isBusy(199));
+        assertFalse(bitmap.isBusy(200));
+    }
+
+    @Test
+    void intervals_ShouldAlternateBetweenFreeAndBusy() {
+        OccupancyBitmap bitmap = new OccupancyBitmap();
+        bitmap.mark(10, 20);
+        bitmap.mark(20, 30);
+        bitmap.mark(127, 129);
+
+        List<OccupancyBitmap.Interval> intervals = bitmap.intervals(0, 200);
+
+        assertEquals(5, intervals.size());
+        assertInterval(intervals.get(0), 0, 10, false);
+        assertInterval(intervals.get(1), 10, 30, true);
+        assertInterval(intervals.get(2), 30, 127, false);
+        assertInterval(intervals.get(3), 127, 129, true);
+        assertInterval(intervals.get(4), 129, 200, false);
+    }
+
+    @Test
+    void intervals_ShouldClipToRequestedRange() {
+        OccupancyBitmap bitmap = new OccupancyBitmap();
+        bitmap.mark(-5, 5);
+
+        List<OccupancyBitmap.Interval> intervals = bitmap.intervals(-2, 2);
+
+        assertEquals(1, intervals.size());
+        assertInterval(intervals.get(0), -2, 2, true);
+    }
+
+    private void assertInterval(OccupancyBitmap.Interval interval, long from, long to, boolean busy) {
+        assertEquals(from, interval.getFromHour());
+        assertEquals(to, interval.getToHour());
+        assertEquals(busy, interval.isBusy());
+    }
+}
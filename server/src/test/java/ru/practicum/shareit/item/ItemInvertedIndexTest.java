@@ -0,0 +1,59 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.model.ItemInvertedIndex;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemInvertedIndexTest {
+
+    @Test
+    void search_ShouldMatchAllWordsAsPrefixes() {
+        ItemInvertedIndex index = new ItemInvertedIndex.Builder()
+                .add(1, "Дрель Bosch", "Аккумуляторная дрель")
+                .add(2, "Дрель ударная", "Сетевая")
+                .add(3, "Шуруповёрт", "Аккумуляторный, две батареи")
+                .build();
+
+        assertArrayEquals(new long[]{1, 2}, index.search("дрель"));
+        assertArrayEquals(new long[]{1, 3}, index.search("АККУМ"));
+        assertArrayEquals(new long[]{1}, index.search("дрел аккум"));
+        assertArrayEquals(new long[0], index.search("дрель батареи"));
+        assertArrayEquals(new long[0], index.search("  !? "));
+    }
+
+    @Test
+    void put_ShouldReplaceWordsOfExistingItem() {
+        ItemInvertedIndex index = new ItemInvertedIndex();
+        index.put(5, "Молоток", "Слесарный");
+        index.put(2, "Молоток", "Столярный");
+
+        index.put(5, "Киянка", "Резиновая");
+
+        assertArrayEquals(new long[]{2}, index.search("молоток"));
+        assertArrayEquals(new long[]{5}, index.search("киянка"));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void remove_ShouldDropItemFromAllWords() {
+        ItemInvertedIndex index = new ItemInvertedIndex.Builder()
+                .add(1, "Лестница", "Алюминиевая")
+                .add(2, "Лестница", "Деревянная")
+                .build();
+
+        index.remove(1);
+        index.remove(42);
+
+        assertArrayEquals(new long[]{2}, index.search("лестница"));
+        assertArrayEquals(new long[0], index.search("алюминиевая"));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void builder_ShouldRejectUnorderedIds() {
+        ItemInvertedIndex.Builder builder = new ItemInvertedIndex.Builder().add(2, "a", "b");
+
+        assertThrows(IllegalArgumentException.class, () -> builder.add(1, "c", "d"));
+    }
+}
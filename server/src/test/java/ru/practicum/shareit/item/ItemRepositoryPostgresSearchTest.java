@@ -0,0 +1,114 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверяет полнотекстовый поиск вещей на настоящем Postgres. Запускается только при наличии Docker.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class ItemRepositoryPostgresSearchTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15");
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.sql.init.platform", () -> "postgresql");
+    }
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void searchByFullText_ShouldRankNameMatchesFirst() {
+        User owner = new User();
+        owner.setName("Owner");
+        owner.setEmail("owner@example.com");
+        owner = userRepository.save(owner);
+
+        Item inDescription = saveItem(owner, "Набор бит", "Подходит к любой дрели", true);
+        Item inName = saveItem(owner, "Дрель аккумуляторная", "Две батареи", true);
+        saveItem(owner, "Дрель ударная", "На ремонте", false);
+        saveItem(owner, "Молоток", "Обычный", true);
+        entityManager.flush();
+
+        List<Item> result = itemRepository.searchByFullTextOrTrigram("дрел:*", "дрел", "%дрел%", Limit.of(10));
+
+        assertEquals(List.of(inName.getId(), inDescription.getId()), result.stream().map(Item::getId).toList());
+    }
+
+    @Test
+    void searchByFullTextOrTrigram_ShouldFindFragmentsAndTypos() {
+        User owner = new User();
+        owner.setName("Owner");
+        owner.setEmail("owner3@example.com");
+        owner = userRepository.save(owner);
+
+        Item drill = saveItem(owner, "Drill", "Cordless", true);
+        Item fragment = saveItem(owner, "Superdrill", "Heavy duty", true);
+        saveItem(owner, "Hammer", "Steel", true);
+        entityManager.flush();
+
+        List<Item> typo = itemRepository.searchByFullTextOrTrigram("drll:*", "drll", "%drll%", Limit.of(10));
+        List<Item> inner = itemRepository.searchByFullTextOrTrigram("rill:*", "rill", "%rill%", Limit.of(10));
+
+        assertTrue(typo.stream().map(Item::getId).toList().contains(drill.getId()));
+        assertEquals(List.of(drill.getId(), fragment.getId()), inner.stream().map(Item::getId).sorted().toList());
+    }
+
+    @Test
+    void searchByFullTextAvailableBetween_ShouldApplyWindowFilter() {
+        User owner = new User();
+        owner.setName("Owner");
+        owner.setEmail("owner2@example.com");
+        owner = userRepository.save(owner);
+        Item item = saveItem(owner, "Дрель", "Аккумуляторная", true);
+        entityManager.flush();
+
+        LocalDateTime from = LocalDateTime.now();
+        List<Item> result = itemRepository.searchByFullTextAvailableBetween(
+                "дрел:*", List.of("WAITING", "APPROVED"), from, from.plusDays(1), Limit.of(20));
+
+        assertEquals(List.of(item.getId()), result.stream().map(Item::getId).toList());
+    }
+
+    private Item saveItem(User owner, String name, String description, boolean available) {
+        Item item = new Item();
+        item.setName(name);
+        item.setDescription(description);
+        item.setAvailable(available);
+        item.setOwnerId(owner.getId());
+        return itemRepository.save(item);
+    }
+}
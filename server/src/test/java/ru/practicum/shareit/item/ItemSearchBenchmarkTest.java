@@ -0,0 +1,134 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemInvertedIndex;
+import ru.practicum.shareit.item.model.ItemSuggestIndex;
+import ru.practicum.shareit.item.model.ItemTrigramIndex;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemSearchEngine;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * Сравнение поиска вещей через LIKE в базе, через инвертированный и через триграммный индексы
+ * на 1 000 000 вещей, а также скорость подсказок названий при вводе.
+ * Запуск: mvn test -pl server -Dtest=ItemSearchBenchmarkTest -Dbenchmark=true -DargLine=-Xmx3g
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ItemSearchBenchmarkTest {
+
+    private static final int ITEMS = 1_000_000;
+    private static final String[] TOOLS = {"дрель", "пила", "молоток", "лестница", "шуруповёрт", "рубанок", "стремянка"};
+    private static final String[] BRANDS = {"bosch", "makita", "dewalt", "metabo", "hitachi", "ryobi", "stihl",
+            "husqvarna", "einhell", "interskol", "zubr"};
+    private static final String[] QUERIES = {"дрель", "дрель bosch", "пила makita", "стрем", "лестница zubr 1234"};
+    private static final String[] FRAGMENTS = {"руповёр", "makta", "стремянка husqvrna", "одель 12345"};
+    private static final String[] PREFIXES = {"д", "др", "дрель b", "пила mak", "шуруповёрт", "сте", "ле"};
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        itemRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void search_Latency() {
+        User owner = new User();
+        owner.setName("Benchmark");
+        owner.setEmail("benchmark@example.com");
+        owner = userRepository.save(owner);
+        long ownerId = owner.getId();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                entityManager.getEntityManager().createNativeQuery(
+                                "INSERT INTO items (name, description, is_available, owner_id) " +
+                                "SELECT " + pick(TOOLS, 1) + " || ' ' || " + pick(BRANDS, 7) + ", " +
+                                "'Модель ' || x || ' в хорошем состоянии', TRUE, :ownerId " +
+                                "FROM SYSTEM_RANGE(0, " + (ITEMS - 1) + ")")
+                        .setParameter("ownerId", ownerId)
+                        .executeUpdate());
+
+        long started = System.nanoTime();
+        ItemInvertedIndex.Builder builder = new ItemInvertedIndex.Builder();
+        ItemTrigramIndex.Builder trigramBuilder = new ItemTrigramIndex.Builder();
+        ItemSuggestIndex suggestions = new ItemSuggestIndex();
+        long lastId = 0;
+        List<Item> batch;
+        do {
+            batch = itemRepository.findByAvailableTrueAndIdGreaterThanOrderById(lastId, Limit.of(10_000));
+            for (Item item : batch) {
+                builder.add(item.getId(), item.getName(), item.getDescription());
+                trigramBuilder.add(item.getId(), item.getName(), item.getDescription());
+                suggestions.put(item.getId(), item.getName());
+                lastId = item.getId();
+            }
+        } while (!batch.isEmpty());
+        ItemInvertedIndex index = builder.build();
+        ItemTrigramIndex trigrams = trigramBuilder.build();
+        System.out.printf("Построение индексов: %d вещей за %d мс%n", index.size(),
+                (System.nanoTime() - started) / 1_000_000);
+
+        ItemSearchEngine engine = new ItemSearchEngine(itemRepository, "h2", ItemSearchEngine.MODE_DATABASE, 100);
+        measure("LIKE в базе, первая страница", QUERIES, 2, 10, query -> engine.search(query, 0, 20));
+        measure("Инвертированный индекс", QUERIES, 2_000, 20_000, index::search);
+        measure("Триграммный индекс, фрагменты и опечатки", FRAGMENTS, 200, 2_000,
+                query -> trigrams.search(query, 0.6, 100));
+        measure("Подсказки названий", PREFIXES, 20_000, 200_000, prefix -> suggestions.suggest(prefix, 10));
+    }
+
+    private void measure(String name, String[] queries, int warmup, int measurements, Consumer<String> search) {
+        Random random = new Random(42);
+        for (int i = 0; i < warmup; i++) {
+            search.accept(queries[random.nextInt(queries.length)]);
+        }
+        long[] nanos = new long[measurements];
+        for (int i = 0; i < measurements; i++) {
+            String query = queries[random.nextInt(queries.length)];
+            long started = System.nanoTime();
+            search.accept(query);
+            nanos[i] = System.nanoTime() - started;
+        }
+        Arrays.sort(nanos);
+        System.out.printf("%s, %d вещей: p50=%d мкс, p99=%d мкс, max=%d мкс%n", name, ITEMS,
+                nanos[measurements / 2] / 1_000, nanos[measurements * 99 / 100] / 1_000,
+                nanos[measurements - 1] / 1_000);
+    }
+
+    private static String pick(String[] words, int multiplier) {
+        StringBuilder sql = new StringBuilder("CASE MOD(x * " + multiplier + ", " + words.length + ")");
+        for (int i = 0; i < words.length; i++) {
+            sql.append(" WHEN ").append(i).append(" THEN '").append(words[i]).append("'");
+        }
+        return sql.append(" END").toString();
+    }
+}
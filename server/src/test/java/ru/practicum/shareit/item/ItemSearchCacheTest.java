@@ -0,0 +1,137 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemSearchCache;
+import ru.practicum.shareit.item.service.ItemSearchEngine;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSearchCacheTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void get_ShouldCountHitsAndMisses() {
+        ItemSearchCache cache = cache(ItemSearchEngine.MODE_DATABASE, 100);
+
+        assertNull(cache.get("дрель", 0, 21));
+        cache.put("дрель", 0, 21, List.of(1L, 2L), cache.generation());
+
+        assertEquals(List.of(1L, 2L), cache.get("дрель", 0, 21));
+        assertNull(cache.get("дрель", 20, 21));
+        assertEquals(2, meterRegistry.get("shareit.items.search.cache.requests").tag("result", "miss")
+                .counter().count());
+        assertEquals(1.0 / 3, meterRegistry.get("shareit.items.search.cache.hit.ratio").gauge().value(), 1e-9);
+    }
+
+    @Test
+    void put_ShouldEvictLeastRecentlyReadPages_WhenSizeLimitIsExceeded() {
+        ItemSearchCache cache = cache(ItemSearchEngine.MODE_DATABASE, 7);
+        cache.put("дрель", 0, 21, List.of(1L, 2L), cache.generation());
+        cache.put("пила", 0, 21, List.of(3L, 4L), cache.generation());
+        cache.get("дрель", 0, 21);
+
+        cache.put("лестница", 0, 21, List.of(5L), cache.generation());
+
+        assertNotNull(cache.get("дрель", 0, 21));
+        assertNull(cache.get("пила", 0, 21));
+        assertNotNull(cache.get("лестница", 0, 21));
+        assertEquals(1, meterRegistry.get("shareit.items.search.cache.evictions").tag("cause", "size")
+                .counter().count());
+        assertEquals(5, meterRegistry.get("shareit.items.search.cache.size").gauge().value());
+    }
+
+    @Test
+    void put_ShouldIgnoreResult_ReadBeforeInvalidation() {
+        ItemSearchCache cache = cache(ItemSearchEngine.MODE_DATABASE, 100);
+        long generation = cache.generation();
+
+        cache.itemChanged(item(1L, "Пила", true));
+        cache.put("дрель", 0, 21, List.of(2L), generation);
+
+        assertNull(cache.get("дрель", 0, 21));
+    }
+
+    @Test
+    void itemChanged_ShouldDropAllPagesOfQueriesContainingItem() {
+        ItemSearchCache cache = cache(ItemSearchEngine.MODE_DATABASE, 100);
+        cache.put("дрель", 0, 2, List.of(1L, 2L), cache.generation());
+        cache.put("дрель", 1, 2, List.of(2L, 3L), cache.generation());
+        cache.put("пила", 0, 2, List.of(4L), cache.generation());
+
+        cache.itemChanged(item(1L, "Молоток", false));
+
+        assertNull(cache.get("дрель", 0, 2));
+        assertNull(cache.get("дрель", 1, 2));
+        assertEquals(List.of(4L), cache.get("пила", 0, 2));
+        assertEquals(2, meterRegistry.get("shareit.items.search.cache.evictions").tag("cause", "invalidation")
+                .counter().count());
+    }
+
+    @Test
+    void itemChanged_ShouldDropOnlyQueriesThatNewTextMayMatch() {
+        ItemSearchCache cache = cache(ItemSearchEngine.MODE_DATABASE, 100);
+        cache.put("дрель", 0, 21, List.of(1L), cache.generation());
+        cache.put("пила", 0, 21, List.of(2L), cache.generation());
+        cache.put("rel", 0, 21, List.of(), cache.generation());
+
+        cache.itemChanged(item(3L, "Дрель ударная", true));
+        cache.itemChanged(item(4L, "Пила", false));
+
+        assertNull(cache.get("дрель", 0, 21));
+        assertEquals(List.of(2L), cache.get("пила", 0, 21));
+        assertEquals(List.of(), cache.get("rel", 0, 21));
+    }
+
+    @Test
+    void itemChanged_ShouldDropFuzzyMatches_InMemoryMode() {
+        ItemSearchCache cache = cache(ItemSearchEngine.MODE_MEMORY, 100);
+        cache.put("шуруповерт", 0, 21, List.of(), cache.generation());
+        cache.put("пила", 0, 21, List.of(), cache.generation());
+
+        cache.itemChanged(item(3L, "Шуруповёрт", true));
+
+        assertNull(cache.get("шуруповерт", 0, 21));
+        assertNotNull(cache.get("пила", 0, 21));
+    }
+
+    @Test
+    void put_ShouldDoNothing_WhenCacheIsDisabled() {
+        ItemSearchCache cache = cache(ItemSearchEngine.MODE_DATABASE, 0);
+
+        cache.put("дрель", 0, 21, List.of(1L), cache.generation());
+
+        assertNull(cache.get("дрель", 0, 21));
+    }
+
+    private ItemSearchCache cache(String mode, long maxIds) {
+        return new ItemSearchCache(new ItemSearchEngine(itemRepository, "h2", mode, 100), meterRegistry, maxIds);
+    }
+
+    private Item item(Long id, String name, boolean available) {
+        Item item = new Item();
+        item.setId(id);
+        item.setName(name);
+        item.setDescription("Инструмент");
+        item.setAvailable(available);
+        return item;
+    }
+}
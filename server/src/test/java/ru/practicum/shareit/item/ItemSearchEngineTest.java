@@ -0,0 +1,204 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemSearchEngine;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSearchEngineTest {
+
+    private static final int MAX_RESULTS = 100;
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Test
+    void toPrefixQuery_ShouldJoinWordsAsPrefixes() {
+        assertEquals("дрель:* & bosch:*", ItemSearchEngine.toPrefixQuery("Дрель BOSCH"));
+    }
+
+    @Test
+    void toPrefixQuery_ShouldDropTsqueryOperators() {
+        assertEquals("a:* & b:* & c:*", ItemSearchEngine.toPrefixQuery("a & !b | (c:*)"));
+        assertEquals("", ItemSearchEngine.toPrefixQuery(" &|! "));
+    }
+
+    @Test
+    void toContainsPattern_ShouldEscapeLikeWildcards() {
+        assertEquals("%50\\%\\_off\\\\%", ItemSearchEngine.toContainsPattern("50%_off\\"));
+    }
+
+    @Test
+    void search_ShouldUseFullTextAndTrigramIndexes_OnPostgres() {
+        Item item = new Item();
+        when(itemRepository.searchByFullTextOrTrigram("drll:*", "drll", "%drll%", Limit.of(20)))
+                .thenReturn(List.of(item));
+
+        List<Item> result = engine("postgresql", ItemSearchEngine.MODE_DATABASE).search(" Drll ", 0, 20);
+
+        assertEquals(List.of(item), result);
+        verify(itemRepository, never()).searchByText(anyString(), any(Limit.class));
+    }
+
+    @Test
+    void search_ShouldReturnEmptyList_WhenNoWordsOnPostgres() {
+        assertTrue(engine("postgresql", ItemSearchEngine.MODE_DATABASE).search("!!!", 0, 20).isEmpty());
+        verifyNoInteractions(itemRepository);
+    }
+
+    @Test
+    void searchAvailable_ShouldPassStatusNamesToFullTextQuery() {
+        LocalDateTime from = LocalDateTime.now();
+        LocalDateTime to = from.plusDays(1);
+
+        engine("postgresql", ItemSearchEngine.MODE_DATABASE)
+                .searchAvailable("drill", List.of(Status.WAITING, Status.APPROVED), from, to, 0, 20);
+
+        verify(itemRepository).searchByFullTextAvailableBetween("drill:*", List.of("WAITING", "APPROVED"), from, to,
+                Limit.of(20));
+    }
+
+    @Test
+    void search_ShouldUseLikeQuery_OnOtherPlatforms() {
+        engine("h2", ItemSearchEngine.MODE_DATABASE).search("drill", 0, 20);
+
+        verify(itemRepository).searchByText("drill", Limit.of(20));
+        verify(itemRepository, never()).searchByFullTextOrTrigram(anyString(), anyString(), anyString(),
+                any(Limit.class));
+    }
+
+    @Test
+    void search_ShouldFetchOnlyTopOffsetPlusLimit_AndSkipOffset() {
+        List<Item> top = List.of(item(1L, "a", true), item(2L, "b", true), item(3L, "c", true));
+        when(itemRepository.searchByText("drill", Limit.of(3))).thenReturn(top);
+        ItemSearchEngine engine = engine("h2", ItemSearchEngine.MODE_DATABASE);
+
+        assertEquals(top.subList(2, 3), engine.search("drill", 2, 1));
+    }
+
+    @Test
+    void search_ShouldNotGoDeeperThanMaxResults() {
+        ItemSearchEngine engine = engine("h2", ItemSearchEngine.MODE_DATABASE);
+
+        engine.search("drill", MAX_RESULTS - 5, 20);
+        assertTrue(engine.search("drill", MAX_RESULTS, 20).isEmpty());
+
+        verify(itemRepository).searchByText("drill", Limit.of(MAX_RESULTS));
+        verifyNoMoreInteractions(itemRepository);
+    }
+
+    @Test
+    void search_ShouldPageRankedIds_InMemoryMode() {
+        Item first = item(1L, "Дрель первая", true);
+        Item second = item(2L, "Дрель вторая", true);
+        Item third = item(3L, "Дрель третья", true);
+        when(itemRepository.findByAvailableTrueAndIdGreaterThanOrderById(eq(0L), any(Limit.class)))
+                .thenReturn(List.of(first, second, third));
+        when(itemRepository.findAllById(List.of(2L))).thenReturn(List.of(second));
+        ItemSearchEngine engine = engine("h2", ItemSearchEngine.MODE_MEMORY);
+        engine.loadIndex();
+
+        assertEquals(List.of(second), engine.search("дрель", 1, 1));
+    }
+
+    @Test
+    void search_ShouldUseInvertedIndex_InMemoryMode() {
+        Item drill = item(1L, "Дрель", true);
+        Item saw = item(2L, "Пила", true);
+        when(itemRepository.findByAvailableTrueAndIdGreaterThanOrderById(eq(0L), any(Limit.class)))
+                .thenReturn(List.of(drill, saw));
+        when(itemRepository.findAllById(List.of(1L))).thenReturn(List.of(drill));
+        ItemSearchEngine engine = engine("h2", ItemSearchEngine.MODE_MEMORY);
+
+        engine.loadIndex();
+
+        assertEquals(List.of(drill), engine.search("дрел", 0, 20));
+        verify(itemRepository, never()).searchByText(anyString(), any(Limit.class));
+    }
+
+    @Test
+    void search_ShouldRankWordMatchesBeforeFragmentsAndTypos_InMemoryMode() {
+        Item typo = item(1L, "Дрлеь", true);
+        Item fragment = item(2L, "Мегадрель", true);
+        Item word = item(3L, "Дрель", true);
+        when(itemRepository.findByAvailableTrueAndIdGreaterThanOrderById(eq(0L), any(Limit.class)))
+                .thenReturn(List.of(typo, fragment, word, item(4L, "Пила", true)));
+        when(itemRepository.findAllById(anyList())).thenReturn(List.of(typo, fragment, word));
+        ItemSearchEngine engine = engine("h2", ItemSearchEngine.MODE_MEMORY);
+        engine.loadIndex();
+
+        assertEquals(List.of(word, fragment), engine.search("дрель", 0, 20));
+        verify(itemRepository).findAllById(List.of(3L, 2L));
+    }
+
+    @Test
+    void itemSaved_ShouldUpdateIndex_InMemoryMode() {
+        Item drill = item(1L, "Дрель", true);
+        when(itemRepository.findByAvailableTrueAndIdGreaterThanOrderById(eq(0L), any(Limit.class)))
+                .thenReturn(List.of(drill));
+        ItemSearchEngine engine = engine("h2", ItemSearchEngine.MODE_MEMORY);
+        engine.loadIndex();
+
+        Item saw = item(2L, "Пила", true);
+        engine.itemSaved(saw);
+        engine.itemSaved(item(1L, "Дрель", false));
+        when(itemRepository.findAllById(List.of(2L))).thenReturn(List.of(saw));
+
+        assertEquals(List.of(saw), engine.search("пила", 0, 20));
+        assertTrue(engine.search("дрель", 0, 20).isEmpty());
+    }
+
+    @Test
+    void itemSaved_ShouldOnlyUpdateSuggestions_InDatabaseMode() {
+        when(itemRepository.findByAvailableTrueAndIdGreaterThanOrderById(eq(0L), any(Limit.class)))
+                .thenReturn(List.of(item(1L, "Дрель", true)));
+        ItemSearchEngine engine = engine("h2", ItemSearchEngine.MODE_DATABASE);
+        engine.loadIndex();
+
+        engine.itemSaved(item(2L, "Дрель ударная", true));
+        engine.itemSaved(item(1L, "Дрель", false));
+        engine.search("дрель", 0, 20);
+
+        assertEquals(List.of("Дрель ударная"), engine.suggest("др", 10));
+        verify(itemRepository).searchByText("дрель", Limit.of(20));
+        verify(itemRepository, never()).findAllById(anyList());
+    }
+
+    @Test
+    void suggest_ShouldReturnEmptyList_BeforeIndexIsLoaded() {
+        ItemSearchEngine engine = engine("h2", ItemSearchEngine.MODE_DATABASE);
+        engine.itemSaved(item(1L, "Дрель", true));
+
+        assertTrue(engine.suggest("др", 10).isEmpty());
+        verifyNoInteractions(itemRepository);
+    }
+
+    private ItemSearchEngine engine(String platform, String mode) {
+        return new ItemSearchEngine(itemRepository, platform, mode, MAX_RESULTS);
+    }
+
+    private Item item(Long id, String name, boolean available) {
+        Item item = new Item();
+        item.setId(id);
+        item.setName(name);
+        item.setDescription(name);
+        item.setAvailable(available);
+        return item;
+    }
+}
@@ -7,8 +7,12 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentPageDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemPageDto;
 import ru.practicum.shareit.item.service.ItemService;
 
 import java.time.LocalDateTime;
@@ -89,6 +93,25 @@ class ItemServerControllerTest {
                 .andExpect(jsonPath("$.available").value(false));
     }
 
+    @Test
+    void getAvailability_ShouldReturnIntervals() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 5, 10, 8, 0);
+        LocalDateTime to = LocalDateTime.of(2030, 5, 10, 16, 0);
+        ItemAvailabilityDto availability = new ItemAvailabilityDto(1L, from, to, List.of(
+                new AvailabilityIntervalDto(from, from.plusHours(2), true),
+                new AvailabilityIntervalDto(from.plusHours(2), to, false)));
+
+        when(itemService.getAvailability(1L, from, to)).thenReturn(availability);
+
+        mockMvc.perform(get("/server/items/{itemId}/availability", 1L)
+                        .param("from", "2030-05-10T08:00:00")
+                        .param("to", "2030-05-10T16:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.intervals.length()").value(2))
+                .andExpect(jsonPath("$.intervals[0].free").value(true))
+                .andExpect(jsonPath("$.intervals[1].start").value("2030-05-10T10:00:00"));
+    }
+
     @Test
     void getItem_ShouldReturnItemDto() throws Exception {
         Long itemId = 1L;
@@ -148,7 +171,7 @@ class ItemServerControllerTest {
 
         List<ItemDto> expectedList = Arrays.asList(item1, item2);
 
-        when(itemService.search("search")).thenReturn(expectedList);
+        when(itemService.search("search", 0, null, 20)).thenReturn(new ItemPageDto(expectedList, null));
 
         mockMvc.perform(get("/server/items/search")
                         .param("text", "search"))
@@ -156,7 +179,64 @@ class ItemServerControllerTest {
                 .andExpect(jsonPath("$[0].id").value(1L))
                 .andExpect(jsonPath("$[0].name").value("Search Item 1"))
                 .andExpect(jsonPath("$[1].id").value(2L))
-                .andExpect(jsonPath("$[1].name").value("Search Item 2"));
+                .andExpect(jsonPath("$[1].name").value("Search Item 2"))
+                .andExpect(header().doesNotExist("X-Next-Page-Token"));
+    }
+
+    @Test
+    void searchItems_ShouldReturnNextPageTokenHeader() throws Exception {
+        ItemDto item = new ItemDto();
+        item.setId(7L);
+        when(itemService.search("drill", 0, "token", 1)).thenReturn(new ItemPageDto(List.of(item), "next"));
+
+        mockMvc.perform(get("/server/items/search")
+                        .param("text", "drill")
+                        .param("pageToken", "token")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(7L))
+                .andExpect(header().string("X-Next-Page-Token", "next"));
+    }
+
+    @Test
+    void searchItems_ShouldSearchAvailable_WhenPeriodIsPassed() throws Exception {
+        ItemDto item = new ItemDto();
+        item.setId(3L);
+        item.setName("Free Item");
+
+        when(itemService.searchAvailable("free", LocalDateTime.of(2030, 5, 10, 18, 0),
+                LocalDateTime.of(2030, 5, 12, 20, 0), 0, null, 20)).thenReturn(new ItemPageDto(List.of(item), null));
+
+        mockMvc.perform(get("/server/items/search")
+                        .param("text", "free")
+                        .param("from", "2030-05-10T18:00:00")
+                        .param("to", "2030-05-12T20:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(3L));
+    }
+
+    @Test
+    void suggest_ShouldReturnNames() throws Exception {
+        when(itemService.suggest("дре", 5)).thenReturn(List.of("Дрель", "Дрель ударная"));
+
+        mockMvc.perform(get("/server/items/suggest")
+                        .param("prefix", "дре")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]").value("Дрель"))
+                .andExpect(jsonPath("$[1]").value("Дрель ударная"));
+    }
+
+    @Test
+    void getComments_ShouldReturnPageAndNextPageTokenHeader() throws Exception {
+        CommentDto comment = new CommentDto(5L, "Отличная дрель", "Ann", LocalDateTime.of(2024, 1, 1, 10, 0));
+        when(itemService.getComments(1L, null, 20)).thenReturn(new CommentPageDto(List.of(comment), "next"));
+
+        mockMvc.perform(get("/server/items/1/comments"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(5L))
+                .andExpect(jsonPath("$[0].authorName").value("Ann"))
+                .andExpect(header().string("X-Next-Page-Token", "next"));
     }
 
     @Test
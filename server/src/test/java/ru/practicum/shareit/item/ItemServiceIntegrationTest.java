@@ -1,26 +1,54 @@
 package ru.practicum.shareit.item;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingPointersRepository;
+import ru.practicum.shareit.booking.service.BookingPointersServiceImpl;
+import ru.practicum.shareit.booking.service.ItemOccupancyIndex;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentPageDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemPageDto;
+import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemStats;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.ItemStatsRepository;
+import ru.practicum.shareit.item.service.ItemSearchCache;
+import ru.practicum.shareit.item.service.ItemSearchEngine;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.item.service.ItemStatsServiceImpl;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 class ItemServiceIntegrationTest {
 
     @Autowired
@@ -32,10 +60,26 @@ class ItemServiceIntegrationTest {
     @Autowired
     private BookingRepository bookingRepository;  // Добавлено
 
+    @Autowired
+    private ItemBookingPointersRepository pointersRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     @Autowired
     private CommentRepository commentRepository;  // Добавлено
 
+    @Autowired
+    private ItemStatsRepository statsRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     private ItemServiceImpl itemService;
+    private ItemStatsServiceImpl statsService;
 
     private User testUser;
 
@@ -58,6 +102,11 @@ class ItemServiceIntegrationTest {
                 return null;
             }
 
+            @Override
+            public List<UserDto> createUsers(List<UserDto> userDtos) {
+                return List.of();
+            }
+
             @Override
             public UserDto updateUser(Long id, UserDto userDto) {
                 return null;
@@ -73,7 +122,14 @@ class ItemServiceIntegrationTest {
             }
         };
 
-        itemService = new ItemServiceImpl(itemRepository, mockUserService, bookingRepository, commentRepository, userRepository);
+        ItemSearchEngine searchEngine = new ItemSearchEngine(itemRepository, "h2", ItemSearchEngine.MODE_DATABASE, 100);
+        statsService = new ItemStatsServiceImpl(statsRepository, itemRepository, transactionManager, 1000, 1);
+        itemService = new ItemServiceImpl(itemRepository, mockUserService, commentRepository,
+                new ItemOccupancyIndex(bookingRepository, 10_000, 300),
+                new BookingPointersServiceImpl(pointersRepository, bookingRepository, itemRepository,
+                        transactionManager, 500),
+                searchEngine, new ItemSearchCache(searchEngine, new SimpleMeterRegistry(), 100_000),
+                statsService, entityManager.getEntityManager(), 50);
 
         // Создаем тестового пользователя
         testUser = new User();
@@ -102,6 +158,100 @@ class ItemServiceIntegrationTest {
         assertEquals("Test Item", itemsInDb.get(0).getName());
     }
 
+    @Test
+    void createAll_ShouldSaveAllItems_WhenValidInput() {
+        List<ItemDto> itemDtos = new ArrayList<>();
+        for (int i = 0; i < 75; i++) {
+            ItemDto itemDto = new ItemDto();
+            itemDto.setName("Item " + i);
+            itemDto.setDescription("Description " + i);
+            itemDto.setAvailable(true);
+            itemDtos.add(itemDto);
+        }
+
+        List<ItemDto> result = itemService.createAll(itemDtos, testUser.getId());
+
+        // Две пачки по 50: после каждой контекст персистентности очищается
+        assertEquals(0, entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount());
+        assertEquals(75, result.size());
+        assertEquals(75, result.stream().map(ItemDto::getId).distinct().count());
+        assertEquals(75, itemRepository.findByOwnerIdOrderById(testUser.getId()).size());
+    }
+
+    @Test
+    void createAll_ShouldThrowNotFoundException_WhenUserDoesNotExist() {
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName("Test Item");
+        itemDto.setDescription("Test Description");
+        itemDto.setAvailable(true);
+
+        assertThrows(NotFoundException.class, () -> itemService.createAll(List.of(itemDto), 999L));
+        assertTrue(itemRepository.findAll().isEmpty());
+    }
+
+    @Test
+    void getAvailability_ShouldReturnHourAlignedFreeAndBusyIntervals() {
+        Item item = new Item();
+        item.setName("Drill");
+        item.setDescription("Cordless drill");
+        item.setAvailable(true);
+        item.setOwnerId(testUser.getId());
+        item = itemRepository.save(item);
+
+        User booker = new User();
+        booker.setName("Booker");
+        booker.setEmail("booker@example.com");
+        booker = userRepository.save(booker);
+
+        LocalDateTime day = LocalDateTime.of(2030, 5, 10, 0, 0);
+        saveBooking(item, booker, day.withHour(10).withMinute(30), day.withHour(12), Status.WAITING);
+        saveBooking(item, booker, day.withHour(14), day.withHour(15), Status.REJECTED);
+
+        ItemAvailabilityDto result = itemService.getAvailability(
+                item.getId(), day.withHour(8).withMinute(15), day.withHour(16));
+
+        assertEquals(day.withHour(8), result.getFrom());
+        assertEquals(List.of(
+                new AvailabilityIntervalDto(day.withHour(8), day.withHour(10), true),
+                new AvailabilityIntervalDto(day.withHour(10), day.withHour(12), false),
+                new AvailabilityIntervalDto(day.withHour(12), day.withHour(16), true)
+        ), result.getIntervals());
+    }
+
+    @Test
+    void searchAvailable_ShouldExcludeItemsWithOverlappingActiveBookings() {
+        User booker = new User();
+        booker.setName("Booker");
+        booker.setEmail("booker@example.com");
+        booker = userRepository.save(booker);
+
+        LocalDateTime friday = LocalDateTime.of(2030, 5, 10, 18, 0);
+        LocalDateTime sunday = friday.plusDays(2);
+        Item approved = saveItem("Drill approved");
+        Item waiting = saveItem("Drill waiting");
+        Item rejected = saveItem("Drill rejected");
+        Item bookedLater = saveItem("Drill later");
+        Item free = saveItem("Drill free");
+        saveBooking(approved, booker, friday.plusDays(1), friday.plusDays(3), Status.APPROVED);
+        saveBooking(waiting, booker, friday.minusDays(1), friday.plusHours(1), Status.WAITING);
+        saveBooking(rejected, booker, friday, sunday, Status.REJECTED);
+        saveBooking(bookedLater, booker, sunday, sunday.plusDays(1), Status.APPROVED);
+
+        List<Long> found = itemService.searchAvailable("drill", friday, sunday, 0, null, 20).getItems().stream()
+                .map(ItemDto::getId)
+                .sorted()
+                .toList();
+
+        assertEquals(List.of(rejected.getId(), bookedLater.getId(), free.getId()), found);
+    }
+
+    @Test
+    void getAvailability_ShouldThrowValidationException_WhenPeriodIsEmpty() {
+        LocalDateTime now = LocalDateTime.now();
+
+        assertThrows(ValidationException.class, () -> itemService.getAvailability(1L, now, now));
+    }
+
     @Test
     void create_ShouldThrowNotFoundException_WhenUserDoesNotExist() {
         ItemDto itemDto = new ItemDto();
@@ -162,6 +312,42 @@ class ItemServiceIntegrationTest {
         assertEquals("Item 2", result.get(1).getName());
     }
 
+    @Test
+    void getOwnerItems_ShouldRunFixedNumberOfQueries_RegardlessOfItemCount() {
+        User booker = new User();
+        booker.setName("Booker");
+        booker.setEmail("booker@example.com");
+        booker = userRepository.save(booker);
+
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        for (int i = 0; i < 50; i++) {
+            Item item = saveItem("Item " + i);
+            saveBooking(item, booker, now.minusDays(3), now.minusDays(2), Status.APPROVED);
+            saveBooking(item, booker, now.minusDays(5), now.minusDays(4), Status.APPROVED);
+            saveBooking(item, booker, now.plusDays(2), now.plusDays(3), Status.APPROVED);
+            saveBooking(item, booker, now.plusDays(1), now.plusDays(2), Status.REJECTED);
+            saveComment(item, booker, "Comment " + i);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<ItemDto> result = itemService.getOwnerItems(testUser.getId());
+
+        // Вещи, сохранённые указатели, оконный запрос по остальным вещам, счётчики и комментарии
+        assertEquals(5, statistics.getPrepareStatementCount());
+        assertEquals(50, result.size());
+        for (ItemDto dto : result) {
+            assertEquals(now.minusDays(2), dto.getLastBooking().getEnd());
+            assertEquals(now.plusDays(2), dto.getNextBooking().getStart());
+            assertEquals(1, dto.getCommentCount());
+            assertEquals(1, dto.getComments().size());
+            assertEquals("Booker", dto.getComments().get(0).getAuthorName());
+        }
+        assertEquals("Comment 0", result.get(0).getComments().get(0).getText());
+    }
+
     @Test
     void search_ShouldReturnItems_WhenTextMatches() {
         Item item1 = new Item();
@@ -178,9 +364,151 @@ class ItemServiceIntegrationTest {
         item2.setAvailable(true);
         itemRepository.save(item2);
 
-        List<ItemDto> result = itemService.search("Searchable");
+        List<ItemDto> result = itemService.search("Searchable", 0, null, 20).getItems();
 
         assertEquals(1, result.size());
         assertEquals("Searchable Item", result.get(0).getName());
     }
-}
\ No newline at end of file
+
+    @Test
+    void search_ShouldWalkPagesWithPageToken() {
+        Item first = saveItem("Saw one");
+        Item second = saveItem("Saw two");
+        Item third = saveItem("Saw three");
+
+        ItemPageDto page = itemService.search("saw", 0, null, 2);
+        ItemPageDto last = itemService.search("saw", 0, page.getNextPageToken(), 2);
+
+        assertEquals(List.of(first.getId(), second.getId()), page.getItems().stream().map(ItemDto::getId).toList());
+        assertEquals(List.of(third.getId()), last.getItems().stream().map(ItemDto::getId).toList());
+        assertNull(last.getNextPageToken());
+    }
+
+    @Test
+    void findById_ShouldReturnCommentCountAndOnlyNewestComments() {
+        User author = saveAuthor();
+        Item item = saveItem("Popular drill");
+        Item quiet = saveItem("Quiet saw");
+        for (int i = 0; i < 25; i++) {
+            saveComment(item, author, "Comment " + i);
+        }
+
+        ItemDto card = itemService.findById(item.getId(), testUser.getId());
+        ItemDto quietCard = itemService.findById(quiet.getId(), testUser.getId());
+
+        assertEquals(25, card.getCommentCount());
+        assertEquals(10, card.getComments().size());
+        assertEquals("Comment 24", card.getComments().get(0).getText());
+        assertEquals("Comment 15", card.getComments().get(9).getText());
+        assertEquals(0, quietCard.getCommentCount());
+        assertTrue(quietCard.getComments().isEmpty());
+    }
+
+    @Test
+    void getComments_ShouldWalkPagesFromNewestToOldest() {
+        User author = saveAuthor();
+        Item item = saveItem("Drill");
+        Item other = saveItem("Saw");
+        for (int i = 0; i < 5; i++) {
+            saveComment(item, author, "Comment " + i);
+        }
+        saveComment(other, author, "Other");
+
+        CommentPageDto first = itemService.getComments(item.getId(), null, 2);
+        CommentPageDto second = itemService.getComments(item.getId(), first.getNextPageToken(), 2);
+        CommentPageDto last = itemService.getComments(item.getId(), second.getNextPageToken(), 2);
+
+        assertEquals(List.of("Comment 4", "Comment 3"), texts(first));
+        assertEquals(List.of("Comment 2", "Comment 1"), texts(second));
+        assertEquals(List.of("Comment 0"), texts(last));
+        assertEquals("Booker", last.getComments().get(0).getAuthorName());
+        assertNull(last.getNextPageToken());
+    }
+
+    @Test
+    void getComments_ShouldThrowNotFoundException_WhenItemDoesNotExist() {
+        assertThrows(NotFoundException.class, () -> itemService.getComments(999L, null, 20));
+    }
+
+    @Test
+    void addComment_ShouldCheckEligibilityInOneQueryAndNotReadAuthorAgain() {
+        User booker = saveAuthor();
+        Item item = saveItem("Drill");
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        saveBooking(item, booker, now.minusDays(3), now.minusDays(2), Status.APPROVED);
+        statsRepository.saveAndFlush(new ItemStats(item.getId()));
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        CommentDto dto = itemService.addComment(item.getId(), booker.getId(), "Отличная дрель");
+        entityManager.flush();
+
+        // Проверка, UPDATE счётчиков и INSERT комментария; изредка ещё запрос к последовательности
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(1, statistics.getEntityInsertCount());
+        assertTrue(statistics.getPrepareStatementCount() <= 4);
+        assertEquals("Booker", dto.getAuthorName());
+        assertEquals(1, itemService.findById(item.getId(), testUser.getId()).getCommentCount());
+    }
+
+    @Test
+    void addComment_ShouldAcceptArchivedBookingAndRejectUnfinishedOne() {
+        User booker = saveAuthor();
+        Item archivedItem = saveItem("Drill");
+        Item futureItem = saveItem("Saw");
+        LocalDateTime now = LocalDateTime.now();
+        saveBooking(archivedItem, booker, now.minusYears(2).minusDays(1), now.minusYears(2), Status.APPROVED);
+        saveBooking(futureItem, booker, now.plusDays(1), now.plusDays(2), Status.APPROVED);
+        entityManager.flush();
+        List<Long> archived = bookingRepository.findIdsEndedBefore(now.minusYears(1), Limit.of(10));
+        bookingRepository.copyToArchive(archived);
+        bookingRepository.deleteAllByIdInBatch(archived);
+
+        assertNotNull(itemService.addComment(archivedItem.getId(), booker.getId(), "Давно брал").getId());
+        assertThrows(ValidationException.class,
+                () -> itemService.addComment(futureItem.getId(), booker.getId(), "Ещё не вернул"));
+        assertThrows(NotFoundException.class, () -> itemService.addComment(999L, booker.getId(), "Нет вещи"));
+    }
+
+    private static List<String> texts(CommentPageDto page) {
+        return page.getComments().stream().map(CommentDto::getText).toList();
+    }
+
+    private User saveAuthor() {
+        User author = new User();
+        author.setName("Booker");
+        author.setEmail("booker@example.com");
+        return userRepository.save(author);
+    }
+
+    private void saveBooking(Item item, User booker, LocalDateTime start, LocalDateTime end, Status status) {
+        Booking booking = new Booking();
+        booking.setStart(start);
+        booking.setEnd(end);
+        booking.setItemId(item.getId());
+        booking.setBookerId(booker.getId());
+        booking.setOwnerId(item.getOwnerId());
+        booking.setStatus(status);
+        bookingRepository.save(booking);
+    }
+
+    private void saveComment(Item item, User author, String text) {
+        Comment comment = new Comment();
+        comment.setText(text);
+        comment.setItemId(item.getId());
+        comment.setAuthorId(author.getId());
+        comment.setCreated(LocalDateTime.now());
+        commentRepository.save(comment);
+        statsService.commentAdded(item.getId(), comment.getCreated());
+    }
+
+    private Item saveItem(String name) {
+        Item item = new Item();
+        item.setName(name);
+        item.setDescription("Tool");
+        item.setAvailable(true);
+        item.setOwnerId(testUser.getId());
+        return itemRepository.save(item);
+    }
+}
@@ -1,31 +1,42 @@
 package ru.practicum.shareit.item;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
-import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.model.ItemBookingPointers;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingPointersService;
+import ru.practicum.shareit.booking.service.ItemOccupancyIndex;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentPageDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemPageDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.CommentAuthor;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemStats;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemSearchCache;
+import ru.practicum.shareit.item.service.ItemSearchEngine;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
-import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.item.service.ItemStatsService;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -49,13 +60,27 @@ class ItemServiceTest {
     private CommentRepository commentRepository;
 
     @Mock
-    private UserRepository userRepository;
+    private ItemStatsService itemStatsService;
+
+    @Mock
+    private BookingPointersService bookingPointersService;
+
+    @Mock
+    private EntityManager entityManager;
 
     private ItemServiceImpl itemService;
 
+    private ItemSearchCache searchCache;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @BeforeEach
     void setUp() {
-        itemService = new ItemServiceImpl(itemRepository, userService, bookingRepository, commentRepository, userRepository);
+        ItemSearchEngine searchEngine = new ItemSearchEngine(itemRepository, "h2", ItemSearchEngine.MODE_DATABASE, 100);
+        searchCache = new ItemSearchCache(searchEngine, meterRegistry, 100_000);
+        itemService = new ItemServiceImpl(itemRepository, userService, commentRepository,
+                new ItemOccupancyIndex(bookingRepository, 10_000, 300), bookingPointersService, searchEngine,
+                searchCache, itemStatsService, entityManager, 50);
     }
 
     @Test
@@ -166,12 +191,11 @@ class ItemServiceTest {
         item.setOwnerId(1L);
 
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
-        when(bookingRepository.findLastBookingsByItemIdAndStatus(anyLong(), any(), any(LocalDateTime.class)))
-                .thenReturn(List.of());
-        when(bookingRepository.findNextBookingsByItemIdAndStatus(anyLong(), any(), any(LocalDateTime.class)))
+        when(bookingPointersService.get(anyLong(), any(LocalDateTime.class)))
+                .thenReturn(new ItemBookingPointers(1L));
+        when(itemStatsService.get(itemId)).thenReturn(new ItemStats(itemId));
+        when(commentRepository.findCommentDtosByItemIdBefore(eq(itemId), anyLong(), any(Limit.class)))
                 .thenReturn(List.of());
-        when(commentRepository.findCommentDtosByItemId(anyLong())).thenReturn(List.of());
-
 
         ItemDto result = itemService.findById(itemId, 1L);
 
@@ -191,16 +215,17 @@ class ItemServiceTest {
 
     @Test
     void search_ShouldReturnEmptyList_WhenTextIsNull() {
-        List<ItemDto> result = itemService.search(null);
+        ItemPageDto result = itemService.search(null, 0, null, 20);
 
-        assertTrue(result.isEmpty());
+        assertTrue(result.getItems().isEmpty());
+        assertNull(result.getNextPageToken());
     }
 
     @Test
     void search_ShouldReturnEmptyList_WhenTextIsBlank() {
-        List<ItemDto> result = itemService.search("   ");
+        ItemPageDto result = itemService.search("   ", 0, null, 20);
 
-        assertTrue(result.isEmpty());
+        assertTrue(result.getItems().isEmpty());
     }
 
     @Test
@@ -210,13 +235,99 @@ class ItemServiceTest {
         item1.setId(1L);
         item1.setName("Search Item");
 
-        when(itemRepository.searchByText(text)).thenReturn(Arrays.asList(item1));
+        when(itemRepository.searchByText(text, Limit.of(21))).thenReturn(Arrays.asList(item1));
 
-        List<ItemDto> result = itemService.search(text);
+        ItemPageDto result = itemService.search(text, 0, null, 20);
 
-        assertEquals(1, result.size());
-        assertEquals("Search Item", result.get(0).getName());
-        verify(itemRepository).searchByText(text);
+        assertEquals(1, result.getItems().size());
+        assertEquals("Search Item", result.getItems().get(0).getName());
+        assertNull(result.getNextPageToken());
+    }
+
+    @Test
+    void search_ShouldServeRepeatedNormalizedQueryFromCache() {
+        Item item = new Item();
+        item.setId(1L);
+        item.setName("Дрель");
+        item.setAvailable(true);
+        when(itemRepository.searchByText("дрель", Limit.of(21))).thenReturn(List.of(item));
+        when(itemRepository.findAllById(List.of(1L))).thenReturn(List.of(item));
+
+        itemService.search("Дрель", 0, null, 20);
+        ItemPageDto cached = itemService.search("  дРЕЛЬ ", 0, null, 20);
+
+        assertEquals(List.of(1L), cached.getItems().stream().map(ItemDto::getId).toList());
+        verify(itemRepository, times(1)).searchByText("дрель", Limit.of(21));
+        assertEquals(1, meterRegistry.get("shareit.items.search.cache.requests").tag("result", "hit")
+                .counter().count());
+    }
+
+    @Test
+    void update_ShouldInvalidateCachedSearch_OnlyWhenSearchableFieldsChange() {
+        Item item = new Item();
+        item.setId(1L);
+        item.setName("Дрель");
+        item.setDescription("Ударная");
+        item.setAvailable(true);
+        item.setOwnerId(1L);
+        when(itemRepository.searchByText("дрель", Limit.of(21))).thenReturn(List.of(item));
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(itemRepository.save(any(Item.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(itemRepository.findAllById(List.of(1L))).thenReturn(List.of(item));
+        itemService.search("дрель", 0, null, 20);
+
+        ItemDto sameText = new ItemDto();
+        sameText.setName("Дрель");
+        itemService.update(1L, sameText, 1L);
+        itemService.search("дрель", 0, null, 20);
+        verify(itemRepository, times(1)).searchByText("дрель", Limit.of(21));
+
+        ItemDto unavailable = new ItemDto();
+        unavailable.setAvailable(false);
+        itemService.update(1L, unavailable, 1L);
+        itemService.search("дрель", 0, null, 20);
+        verify(itemRepository, times(2)).searchByText("дрель", Limit.of(21));
+    }
+
+    @Test
+    void search_ShouldReturnNextPageToken_WhenMoreItemsExist() {
+        List<Item> found = new ArrayList<>();
+        for (long id = 1; id <= 5; id++) {
+            Item item = new Item();
+            item.setId(id);
+            found.add(item);
+        }
+        when(itemRepository.searchByText("drill", Limit.of(5))).thenReturn(found);
+        when(itemRepository.searchByText("drill", Limit.of(7))).thenReturn(found);
+
+        ItemPageDto first = itemService.search("drill", 2, null, 2);
+        ItemPageDto second = itemService.search("drill", 0, first.getNextPageToken(), 2);
+
+        assertEquals(List.of(3L, 4L), first.getItems().stream().map(ItemDto::getId).toList());
+        assertNotNull(first.getNextPageToken());
+        assertEquals(List.of(5L), second.getItems().stream().map(ItemDto::getId).toList());
+        assertNull(second.getNextPageToken());
+    }
+
+    @Test
+    void search_ShouldThrowValidationException_WhenPagingIsInvalid() {
+        assertThrows(ValidationException.class, () -> itemService.search("drill", -1, null, 20));
+        assertThrows(ValidationException.class, () -> itemService.search("drill", 0, null, 0));
+        assertThrows(ValidationException.class, () -> itemService.search("drill", 0, null, 101));
+        assertThrows(ValidationException.class, () -> itemService.search("drill", 0, "not a token", 20));
+    }
+
+    @Test
+    void suggest_ShouldThrowValidationException_WhenSizeIsOutOfRange() {
+        assertThrows(ValidationException.class, () -> itemService.suggest("дре", 0));
+        assertThrows(ValidationException.class, () -> itemService.suggest("дре", 51));
+        assertThrows(ValidationException.class, () -> itemService.suggest("дре", null));
+    }
+
+    @Test
+    void suggest_ShouldReturnEmptyList_WhenPrefixIsBlank() {
+        assertTrue(itemService.suggest("  ", 10).isEmpty());
+        verifyNoInteractions(itemRepository);
     }
 
     @Test
@@ -228,11 +339,10 @@ class ItemServiceTest {
         item1.setOwnerId(userId);
 
         when(itemRepository.findByOwnerIdOrderById(userId)).thenReturn(Arrays.asList(item1));
-        when(bookingRepository.findLastBookingsByItemIdAndStatus(anyLong(), any(), any(LocalDateTime.class)))
-                .thenReturn(List.of());
-        when(bookingRepository.findNextBookingsByItemIdAndStatus(anyLong(), any(), any(LocalDateTime.class)))
-                .thenReturn(List.of());
-        when(commentRepository.findCommentDtosByItemId(anyLong())).thenReturn(List.of());
+        when(bookingPointersService.getAll(anyList(), any(LocalDateTime.class)))
+                .thenReturn(Map.of(1L, new ItemBookingPointers(1L)));
+        when(itemStatsService.getAll(anyList())).thenReturn(Map.of(1L, new ItemStats(1L)));
+        when(commentRepository.findNewestCommentRowsByItemIdIn(anyList(), anyInt())).thenReturn(List.of());
 
         List<ItemDto> result = itemService.getOwnerItems(userId);
 
@@ -247,93 +357,86 @@ class ItemServiceTest {
         Long userId = 1L;
         String text = "Great item!";
 
-        Item item = new Item();
-        item.setId(itemId);
-        item.setOwnerId(2L);
-
-        User author = new User();
-        author.setId(userId);
-        author.setName("Author Name");
-
-        Comment savedComment = new Comment();
-        savedComment.setId(1L);
-        savedComment.setText(text);
-        savedComment.setCreated(LocalDateTime.now());
-
-        Booking booking = new Booking();
-        booking.setId(1L);
-        booking.setBookerId(userId);
-        booking.setItemId(itemId);
-        booking.setStatus(Status.APPROVED);
-        booking.setEnd(LocalDateTime.now().minusHours(1)); // Завершено
-
-        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
-        when(bookingRepository.existsByBookerIdAndItemIdAndStatusAndEndBefore(anyLong(), anyLong(), any(), any(LocalDateTime.class)))
-                .thenReturn(true);
-        when(userRepository.findById(userId)).thenReturn(Optional.of(author));
-        when(commentRepository.save(any(Comment.class))).thenReturn(savedComment);
+        when(commentRepository.findCommentAuthor(eq(itemId), eq(userId), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(new CommentAuthor("Author Name", true)));
+        when(commentRepository.save(any(Comment.class))).thenAnswer(invocation -> {
+            Comment comment = invocation.getArgument(0);
+            comment.setId(7L);
+            return comment;
+        });
 
         CommentDto result = itemService.addComment(itemId, userId, text);
 
+        assertEquals(7L, result.getId());
         assertEquals(text, result.getText());
         assertEquals("Author Name", result.getAuthorName());
-        verify(itemRepository).findById(itemId);
-        verify(bookingRepository).existsByBookerIdAndItemIdAndStatusAndEndBefore(anyLong(), anyLong(), any(), any(LocalDateTime.class));
-        verify(userRepository).findById(userId);
+        assertNotNull(result.getCreated());
         verify(commentRepository).save(any(Comment.class));
+        verify(itemStatsService).commentAdded(itemId, result.getCreated());
+        verifyNoInteractions(itemRepository, bookingRepository);
     }
 
     @Test
     void addComment_ShouldThrowValidationException_WhenTextIsNull() {
-        Long itemId = 1L;
-        Long userId = 1L;
-        String text = null;
-
-        assertThrows(ValidationException.class, () -> itemService.addComment(itemId, userId, text));
-        verify(itemRepository, never()).findById(anyLong());
-        verify(bookingRepository, never()).existsByBookerIdAndItemIdAndStatusAndEndBefore(anyLong(), anyLong(), any(), any(LocalDateTime.class));
+        assertThrows(ValidationException.class, () -> itemService.addComment(1L, 1L, null));
+        verifyNoInteractions(commentRepository);
     }
 
     @Test
     void addComment_ShouldThrowValidationException_WhenTextIsBlank() {
-        Long itemId = 1L;
-        Long userId = 1L;
-        String text = "   ";
-
-        assertThrows(ValidationException.class, () -> itemService.addComment(itemId, userId, text));
-        verify(itemRepository, never()).findById(anyLong());
-        verify(bookingRepository, never()).existsByBookerIdAndItemIdAndStatusAndEndBefore(anyLong(), anyLong(), any(), any(LocalDateTime.class));
+        assertThrows(ValidationException.class, () -> itemService.addComment(1L, 1L, "   "));
+        verifyNoInteractions(commentRepository);
     }
 
     @Test
     void addComment_ShouldThrowNotFoundException_WhenItemDoesNotExist() {
-        Long itemId = 1L;
-        Long userId = 1L;
-        String text = "Great item!";
-
-        when(itemRepository.findById(itemId)).thenReturn(Optional.empty());
+        when(commentRepository.findCommentAuthor(eq(1L), eq(1L), any(LocalDateTime.class)))
+                .thenReturn(Optional.empty());
 
-        assertThrows(NotFoundException.class, () -> itemService.addComment(itemId, userId, text));
-        verify(itemRepository).findById(itemId);
-        verify(bookingRepository, never()).existsByBookerIdAndItemIdAndStatusAndEndBefore(anyLong(), anyLong(), any(), any(LocalDateTime.class));
+        assertThrows(NotFoundException.class, () -> itemService.addComment(1L, 1L, "Great item!"));
+        verify(commentRepository, never()).save(any(Comment.class));
     }
 
     @Test
     void addComment_ShouldThrowValidationException_WhenUserHasNoFinishedBooking() {
-        Long itemId = 1L;
-        Long userId = 1L;
-        String text = "Great item!";
-        Item item = new Item();
-        item.setId(itemId);
-        item.setOwnerId(2L);
+        when(commentRepository.findCommentAuthor(eq(1L), eq(1L), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(new CommentAuthor("Author Name", false)));
 
-        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
-        when(bookingRepository.existsByBookerIdAndItemIdAndStatusAndEndBefore(anyLong(), anyLong(), any(), any(LocalDateTime.class)))
-                .thenReturn(false);
+        assertThrows(ValidationException.class, () -> itemService.addComment(1L, 1L, "Great item!"));
+        verify(commentRepository, never()).save(any(Comment.class));
+        verifyNoInteractions(itemStatsService);
+    }
 
-        assertThrows(ValidationException.class, () -> itemService.addComment(itemId, userId, text));
-        verify(itemRepository).findById(itemId);
-        verify(bookingRepository).existsByBookerIdAndItemIdAndStatusAndEndBefore(anyLong(), anyLong(), any(), any(LocalDateTime.class));
+    @Test
+    void getComments_ShouldThrowValidationException_WhenSizeIsOutOfRange() {
+        assertThrows(ValidationException.class, () -> itemService.getComments(1L, null, 0));
+        assertThrows(ValidationException.class, () -> itemService.getComments(1L, null, 101));
+        verifyNoInteractions(commentRepository);
+    }
+
+    @Test
+    void getComments_ShouldThrowValidationException_WhenPageTokenIsInvalid() {
+        assertThrows(ValidationException.class, () -> itemService.getComments(1L, "not-a-token", 20));
+        verifyNoInteractions(commentRepository);
+    }
+
+    @Test
+    void getComments_ShouldReturnNextPageToken_WhenMoreCommentsExist() {
+        when(itemRepository.existsById(1L)).thenReturn(true);
+        when(commentRepository.findCommentDtosByItemIdBefore(eq(1L), eq(Long.MAX_VALUE), any(Limit.class)))
+                .thenReturn(List.of(new CommentDto(9L, "a", "Ann", null), new CommentDto(7L, "b", "Bob", null),
+                        new CommentDto(4L, "c", "Cid", null)));
+        when(commentRepository.findCommentDtosByItemIdBefore(eq(1L), eq(7L), any(Limit.class)))
+                .thenReturn(List.of(new CommentDto(4L, "c", "Cid", null)));
+
+        CommentPageDto first = itemService.getComments(1L, null, 2);
+        CommentPageDto last = itemService.getComments(1L, first.getNextPageToken(), 2);
+
+        assertEquals(2, first.getComments().size());
+        assertNotNull(first.getNextPageToken());
+        assertEquals(4L, last.getComments().get(0).getId());
+        assertNull(last.getNextPageToken());
+        verify(commentRepository).findCommentDtosByItemIdBefore(1L, Long.MAX_VALUE, Limit.of(3));
     }
 
     @Test
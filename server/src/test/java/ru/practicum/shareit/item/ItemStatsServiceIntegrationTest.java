@@ -0,0 +1,206 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingPointersRepository;
+import ru.practicum.shareit.booking.service.BookingPointersServiceImpl;
+import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.booking.service.ItemOccupancyIndex;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemStats;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.ItemStatsRepository;
+import ru.practicum.shareit.item.service.ItemStatsServiceImpl;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ItemStatsServiceIntegrationTest {
+
+    @Autowired
+    private ItemStatsRepository statsRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemBookingPointersRepository pointersRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ItemStatsServiceImpl statsService;
+    private TransactionTemplate transactionTemplate;
+    private User owner;
+    private User booker;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        statsService = new ItemStatsServiceImpl(statsRepository, itemRepository, transactionManager, 2, 3);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        owner = saveUser("Owner", "owner@example.com");
+        booker = saveUser("Booker", "booker@example.com");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM bookings_archive");
+        commentRepository.deleteAllInBatch();
+        bookingRepository.deleteAllInBatch();
+        pointersRepository.deleteAllInBatch();
+        statsRepository.deleteAllInBatch();
+        itemRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void commentAdded_ShouldCountExistingCommentsOnFirstWriteAndIncrementAfterwards() {
+        Item item = saveItem("Drill");
+        saveComment(item, now.minusDays(3));
+        saveComment(item, now.minusDays(2));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            saveComment(item, now.minusDays(1));
+            statsService.commentAdded(item.getId(), now.minusDays(1));
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            saveComment(item, now);
+            statsService.commentAdded(item.getId(), now);
+        });
+
+        ItemStats stats = statsService.get(item.getId());
+        assertEquals(4, stats.getCommentCount());
+        assertEquals(now, stats.getLastCommentAt());
+        assertEquals(0, stats.getBookingCount());
+        assertNull(stats.getLastBookingEnd());
+    }
+
+    @Test
+    void approve_ShouldIncrementBookingCountAndKeepLatestEnd() {
+        Item item = saveItem("Drill");
+        BookingServiceImpl bookingService = new BookingServiceImpl(bookingRepository, userRepository, itemRepository,
+                new ItemOccupancyIndex(bookingRepository, 10_000, 300),
+                new BookingPointersServiceImpl(pointersRepository, bookingRepository, itemRepository,
+                        transactionManager, 500),
+                statsService);
+        Booking later = saveBooking(item, now.plusDays(5), Status.WAITING);
+        Booking earlier = saveBooking(item, now.plusDays(2), Status.WAITING);
+
+        transactionTemplate.executeWithoutResult(status ->
+                bookingService.approve(later.getId(), owner.getId(), true));
+        transactionTemplate.executeWithoutResult(status ->
+                bookingService.approve(earlier.getId(), owner.getId(), true));
+
+        ItemStats stats = statsService.get(item.getId());
+        assertEquals(2, stats.getBookingCount());
+        assertEquals(now.plusDays(5), stats.getLastBookingEnd());
+    }
+
+    @Test
+    void rebuild_ShouldRecomputeAllItemsInParallelChunks() {
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Item item = saveItem("Item " + i);
+            items.add(item);
+            for (int c = 0; c <= i; c++) {
+                saveComment(item, now.minusDays(10 - c));
+            }
+        }
+        Item booked = items.get(0);
+        Booking archived = saveBooking(booked, now.minusYears(2), Status.APPROVED);
+        transactionTemplate.executeWithoutResult(status -> {
+            bookingRepository.copyToArchive(List.of(archived.getId()));
+            bookingRepository.deleteAllByIdInBatch(List.of(archived.getId()));
+        });
+        saveBooking(booked, now.minusDays(1), Status.APPROVED);
+        saveBooking(booked, now.plusDays(1), Status.REJECTED);
+        ItemStats stale = new ItemStats(booked.getId());
+        stale.setCommentCount(42);
+        statsRepository.save(stale);
+
+        int rebuilt = statsService.rebuild();
+
+        assertEquals(5, rebuilt);
+        assertEquals(5, statsRepository.count());
+        for (int i = 0; i < 5; i++) {
+            ItemStats stats = statsService.get(items.get(i).getId());
+            assertEquals(i + 1, stats.getCommentCount());
+            assertEquals(now.minusDays(10 - i), stats.getLastCommentAt());
+        }
+        ItemStats stats = statsService.get(booked.getId());
+        assertEquals(2, stats.getBookingCount());
+        assertEquals(now.minusDays(1), stats.getLastBookingEnd());
+        assertEquals(0, statsService.get(items.get(1).getId()).getBookingCount());
+    }
+
+    private User saveUser(String name, String email) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        return userRepository.save(user);
+    }
+
+    private Item saveItem(String name) {
+        Item item = new Item();
+        item.setName(name);
+        item.setDescription("Tool");
+        item.setAvailable(true);
+        item.setOwnerId(owner.getId());
+        return itemRepository.save(item);
+    }
+
+    private void saveComment(Item item, LocalDateTime created) {
+        Comment comment = new Comment();
+        comment.setText("Comment");
+        comment.setItemId(item.getId());
+        comment.setAuthorId(booker.getId());
+        comment.setCreated(created);
+        commentRepository.save(comment);
+    }
+
+    private Booking saveBooking(Item item, LocalDateTime end, Status status) {
+        Booking booking = new Booking();
+        booking.setStart(end.minusDays(1));
+        booking.setEnd(end);
+        booking.setItemId(item.getId());
+        booking.setBookerId(booker.getId());
+        booking.setOwnerId(owner.getId());
+        booking.setStatus(status);
+        return bookingRepository.save(booking);
+    }
+}
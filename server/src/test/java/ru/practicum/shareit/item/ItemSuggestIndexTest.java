@@ -0,0 +1,56 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.model.ItemSuggestIndex;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemSuggestIndexTest {
+
+    @Test
+    void suggest_ShouldReturnNamesStartingWithPrefixInAlphabeticalOrder() {
+        ItemSuggestIndex index = new ItemSuggestIndex();
+        index.put(1, "Дрель ударная");
+        index.put(2, "Дрель Bosch");
+        index.put(3, "Пила");
+        index.put(4, "дрель  BOSCH!");
+
+        assertEquals(List.of("Дрель Bosch", "Дрель ударная"), index.suggest("ДРЕ", 10));
+        assertEquals(List.of("Дрель Bosch"), index.suggest("дрель, bo", 10));
+        assertEquals(List.of("Дрель Bosch"), index.suggest("др", 1));
+        assertTrue(index.suggest("bosch", 10).isEmpty());
+        assertTrue(index.suggest(" !? ", 10).isEmpty());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void remove_ShouldKeepNameWhileOtherItemsUseIt() {
+        ItemSuggestIndex index = new ItemSuggestIndex();
+        index.put(1, "Лестница");
+        index.put(2, "Лестница");
+
+        index.remove(1);
+        assertEquals(List.of("Лестница"), index.suggest("лес", 10));
+
+        index.remove(2);
+        index.remove(42);
+        assertTrue(index.suggest("лес", 10).isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void put_ShouldReplaceNameOfExistingItem() {
+        ItemSuggestIndex index = new ItemSuggestIndex();
+        index.put(1, "Молоток");
+
+        index.put(1, "Киянка");
+        index.put(1, "Киянка");
+
+        assertTrue(index.suggest("мол", 10).isEmpty());
+        assertEquals(List.of("Киянка"), index.suggest("ки", 10));
+        index.remove(1);
+        assertEquals(0, index.size());
+    }
+}
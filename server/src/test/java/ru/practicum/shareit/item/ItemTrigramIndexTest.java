@@ -0,0 +1,68 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.model.ItemTrigramIndex;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemTrigramIndexTest {
+
+    private static final double THRESHOLD = 0.6;
+
+    @Test
+    void search_ShouldFindFragmentsInsideWords() {
+        ItemTrigramIndex index = new ItemTrigramIndex.Builder()
+                .add(1, "Дрель", "Аккумуляторная")
+                .add(2, "Перфоратор", "Бурит и долбит")
+                .add(3, "Пила", "Дисковая")
+                .build();
+
+        assertEquals(List.of(1L), ids(index.search("кумулятор", THRESHOLD, 10)));
+        assertEquals(List.of(2L), ids(index.search("ФОРАТ", THRESHOLD, 10)));
+    }
+
+    @Test
+    void search_ShouldFindTyposRankedBelowExactFragments() {
+        ItemTrigramIndex index = new ItemTrigramIndex.Builder()
+                .add(1, "Drill", "Cordless")
+                .add(2, "Drll stand", "For any drill")
+                .add(3, "Hammer", "Steel")
+                .build();
+
+        List<ItemTrigramIndex.Match> matches = index.search("drll", THRESHOLD, 10);
+
+        assertEquals(List.of(2L, 1L), ids(matches));
+        assertEquals(1.0, matches.get(0).getScore());
+        assertTrue(matches.get(1).getScore() < 1.0);
+    }
+
+    @Test
+    void search_ShouldLimitResults() {
+        ItemTrigramIndex.Builder builder = new ItemTrigramIndex.Builder();
+        for (long id = 1; id <= 50; id++) {
+            builder.add(id, "Лестница " + id, "Алюминиевая");
+        }
+
+        assertEquals(List.of(1L, 2L, 3L), ids(builder.build().search("лестн", THRESHOLD, 3)));
+    }
+
+    @Test
+    void putAndRemove_ShouldKeepIndexInSync() {
+        ItemTrigramIndex index = new ItemTrigramIndex();
+        index.put(1, "Молоток", "Слесарный");
+        index.put(1, "Киянка", "Резиновая");
+        index.put(2, "Рубанок", "Ручной");
+        index.remove(2);
+
+        assertTrue(index.search("молот", THRESHOLD, 10).isEmpty());
+        assertEquals(List.of(1L), ids(index.search("киян", THRESHOLD, 10)));
+        assertTrue(index.search("рубан", THRESHOLD, 10).isEmpty());
+        assertEquals(1, index.size());
+    }
+
+    private List<Long> ids(List<ItemTrigramIndex.Match> matches) {
+        return matches.stream().map(ItemTrigramIndex.Match::getItemId).toList();
+    }
+}
@@ -50,6 +50,11 @@ class ItemRequestServiceIntegrationTest {
                 return null;
             }
 
+            @Override
+            public List<UserDto> createUsers(List<UserDto> userDtos) {
+                return List.of();
+            }
+
             @Override
             public UserDto updateUser(Long id, UserDto userDto) {
                 return null;
@@ -1,9 +1,14 @@
 package ru.practicum.shareit.user;
 
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
@@ -11,20 +16,28 @@ import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.service.UserServiceImpl;
 
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 class UserServiceIntegrationTest {
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     private UserServiceImpl userService;
 
     @BeforeEach
     void setUp() {
-        userService = new UserServiceImpl(userRepository);
+        userService = new UserServiceImpl(userRepository, entityManager.getEntityManager(), 50);
     }
 
     @Test
@@ -45,6 +58,41 @@ class UserServiceIntegrationTest {
         assertEquals("test@example.com", usersInDb.get(0).getEmail());
     }
 
+    @Test
+    void createUsers_ShouldInsertInJdbcBatches() {
+        List<UserDto> userDtos = IntStream.range(0, 120)
+                .mapToObj(i -> new UserDto(null, "User " + i, "user" + i + "@example.com"))
+                .collect(Collectors.toList());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<UserDto> result = userService.createUsers(userDtos);
+        long managedEntities = entityManager.getEntityManager().unwrap(Session.class)
+                .getStatistics().getEntityCount();
+        entityManager.flush();
+
+        assertEquals(120, result.size());
+        // После каждой пачки контекст очищается: пользователи импорта в нём не копятся
+        assertEquals(0, managedEntities);
+        assertTrue(result.stream().allMatch(user -> user.getId() != null));
+        assertEquals(120, userRepository.count());
+        // На каждую пачку из 50 строк: проверка email, INSERT и изредка обращение к последовательности
+        assertTrue(statistics.getPrepareStatementCount() < 12,
+                "Prepared statements: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void createUsers_ShouldRejectBatch_WhenEmailAlreadyExists() {
+        userService.createUser(new UserDto(null, "Existing", "user1@example.com"));
+
+        List<UserDto> userDtos = List.of(
+                new UserDto(null, "User 0", "user0@example.com"),
+                new UserDto(null, "User 1", "user1@example.com"));
+
+        assertThrows(RuntimeException.class, () -> userService.createUsers(userDtos));
+        assertEquals(1, userRepository.count());
+    }
+
     @Test
     void createUser_ShouldThrowValidationException_WhenEmailIsInvalid() {
         UserDto userDto = new UserDto();
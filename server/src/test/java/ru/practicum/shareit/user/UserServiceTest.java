@@ -1,10 +1,12 @@
 package ru.practicum.shareit.user;
 
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.exception.EmailAlreadyExistsException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -19,6 +21,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
@@ -28,11 +31,14 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private EntityManager entityManager;
+
     private UserServiceImpl userService;
 
     @BeforeEach
     void setUp() {
-        userService = new UserServiceImpl(userRepository);
+        userService = new UserServiceImpl(userRepository, entityManager, 50);
     }
 
     @Test
@@ -74,6 +80,46 @@ class UserServiceTest {
         verify(userRepository, never()).save(any(User.class));
     }
 
+    @Test
+    void createUsers_ShouldSaveAllInOneCall_WhenEmailsAreUnique() {
+        List<UserDto> inputDtos = List.of(
+                new UserDto(null, "John Doe", "john@example.com"),
+                new UserDto(null, "Jane Doe", "jane@example.com"));
+        List<User> savedUsers = inputDtos.stream().map(UserMapper::toUser).toList();
+        savedUsers.get(0).setId(1L);
+        savedUsers.get(1).setId(2L);
+
+        when(userRepository.findExistingEmails(any())).thenReturn(List.of());
+        when(userRepository.saveAll(anyList())).thenReturn(savedUsers);
+
+        List<UserDto> result = userService.createUsers(inputDtos);
+
+        assertEquals(2, result.size());
+        assertEquals(2L, result.get(1).getId());
+        verify(userRepository).saveAll(anyList());
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    void createUsers_ShouldThrowEmailAlreadyExistsException_WhenEmailRepeatsInBatch() {
+        List<UserDto> inputDtos = List.of(
+                new UserDto(null, "John Doe", "john@example.com"),
+                new UserDto(null, "Johnny", "john@example.com"));
+
+        assertThrows(EmailAlreadyExistsException.class, () -> userService.createUsers(inputDtos));
+        verify(userRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void createUsers_ShouldThrowEmailAlreadyExistsException_WhenEmailAlreadyExists() {
+        List<UserDto> inputDtos = List.of(new UserDto(null, "John Doe", "john@example.com"));
+
+        when(userRepository.findExistingEmails(any())).thenReturn(List.of("john@example.com"));
+
+        assertThrows(EmailAlreadyExistsException.class, () -> userService.createUsers(inputDtos));
+        verify(userRepository, never()).saveAll(anyList());
+    }
+
     @Test
     void getUserById_ShouldReturnUserDto_WhenUserExists() {
         Long userId = 1L;